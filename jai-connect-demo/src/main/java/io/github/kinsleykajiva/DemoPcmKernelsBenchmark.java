@@ -0,0 +1,161 @@
+package io.github.kinsleykajiva;
+
+import io.github.kinsleykajiva.ai.audio.PcmKernels;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Benchmark for {@link PcmKernels}: measures each kernel on 20 ms chunks of
+ * 24 kHz audio with the scalar and the Vector API implementations.
+ * <p>
+ * The implementation is fixed when {@code PcmKernels} loads, and a timing
+ * loop shared by several kernels stops inlining them, so every kernel is
+ * measured in its own child JVM, with {@code --add-modules jdk.incubator.vector}
+ * and {@code -Djai.audio.vector} set for the path. An optional argument sets
+ * the seconds spent on each kernel.
+ */
+public class DemoPcmKernelsBenchmark {
+    private static final int CHUNK = 480;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("run")) {
+            measure(args[1], Double.parseDouble(args[2]));
+            return;
+        }
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+        for (boolean vector : new boolean[] { false, true }) {
+            System.out.printf("%s kernels, %d-sample chunks:%n", vector ? "Vector API" : "Scalar", CHUNK);
+            for (String kernel : kernels().keySet()) {
+                int exit = launch(vector, kernel, seconds);
+                if (exit != 0) {
+                    System.out.println("Benchmark JVM exited with " + exit);
+                }
+            }
+        }
+    }
+
+    private static int launch(boolean vector, String kernel, double seconds)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("--add-modules");
+        command.add("jdk.incubator.vector");
+        command.add("-Djai.audio.vector=" + vector);
+        String modulePath = System.getProperty("jdk.module.path");
+        Module module = DemoPcmKernelsBenchmark.class.getModule();
+        if (modulePath != null && module.isNamed()) {
+            command.add("--module-path");
+            command.add(modulePath);
+            command.add("--module");
+            command.add(module.getName() + "/" + DemoPcmKernelsBenchmark.class.getName());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(DemoPcmKernelsBenchmark.class.getName());
+        }
+        command.add("run");
+        command.add(kernel);
+        command.add(Double.toString(seconds));
+        return new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+
+    private static Map<String, IntSupplier> kernels() {
+        Random random = new Random(42);
+        short[] pcm = new short[CHUNK];
+        short[] other = new short[CHUNK];
+        short[] out = new short[CHUNK];
+        short[] stereo = new short[CHUNK * 2];
+        int[] acc = new int[CHUNK];
+        byte[] bytes = new byte[CHUNK * 2];
+        float[] taps = new float[CHUNK];
+        float[] window = new float[CHUNK];
+        for (int i = 0; i < CHUNK; i++) {
+            pcm[i] = (short) (random.nextGaussian() * 6000);
+            other[i] = (short) (random.nextGaussian() * 6000);
+            taps[i] = (float) random.nextGaussian();
+            window[i] = (float) random.nextGaussian();
+        }
+        for (int i = 0; i < stereo.length; i++) {
+            stereo[i] = (short) (random.nextGaussian() * 6000);
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) random.nextInt();
+        }
+
+        Map<String, IntSupplier> kernels = new LinkedHashMap<>();
+        kernels.put("sumOfSquares", () -> (int) PcmKernels.sumOfSquares(pcm, 0, CHUNK));
+        kernels.put("applyGain", () -> {
+            PcmKernels.applyGain(pcm, 0, out, 0, CHUNK, 0.8f);
+            return out[CHUNK - 1];
+        });
+        kernels.put("clip", () -> {
+            System.arraycopy(pcm, 0, out, 0, CHUNK);
+            PcmKernels.clip(out, 0, CHUNK, (short) 8000);
+            return out[CHUNK - 1];
+        });
+        kernels.put("mixInto", () -> {
+            System.arraycopy(pcm, 0, out, 0, CHUNK);
+            PcmKernels.mixInto(out, 0, other, 0, CHUNK);
+            return out[CHUNK - 1];
+        });
+        kernels.put("accumulate+softClip", () -> {
+            Arrays.fill(acc, 0);
+            PcmKernels.accumulate(pcm, 0, acc, 0, CHUNK, 1.5f);
+            PcmKernels.accumulate(other, 0, acc, 0, CHUNK, 1.5f);
+            PcmKernels.softClip(acc, 0, out, 0, CHUNK, 24000);
+            return out[CHUNK - 1];
+        });
+        kernels.put("pcm16leToShorts", () -> {
+            PcmKernels.pcm16leToShorts(bytes, 0, out, 0, CHUNK);
+            return out[CHUNK - 1];
+        });
+        kernels.put("shortsToPcm16le", () -> {
+            PcmKernels.shortsToPcm16le(pcm, 0, bytes, 0, CHUNK);
+            return bytes[bytes.length - 1];
+        });
+        kernels.put("downmixStereo", () -> {
+            PcmKernels.downmixStereo(stereo, 0, out, 0, CHUNK);
+            return out[CHUNK - 1];
+        });
+        kernels.put("dot", () -> (int) PcmKernels.dot(taps, 0, window, 0, CHUNK));
+        return kernels;
+    }
+
+    private static void measure(String name, double seconds) {
+        IntSupplier kernel = kernels().get(name);
+        if (kernel == null) {
+            throw new IllegalArgumentException("Unknown kernel " + name);
+        }
+        int sink = 0;
+        // Warm up until C2 has compiled the kernel; Vector API intrinsics need a second or so
+        long warmupEnd = System.nanoTime() + (long) (Math.max(1.0, seconds) * 1e9);
+        while (System.nanoTime() < warmupEnd) {
+            for (int i = 0; i < 1_000; i++) {
+                sink += kernel.getAsInt();
+            }
+        }
+        long calls = 0;
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long now;
+        do {
+            for (int i = 0; i < 1_000; i++) {
+                sink += kernel.getAsInt();
+            }
+            calls += 1_000;
+            now = System.nanoTime();
+        } while (now < end);
+        double nanosPerCall = (double) (now - start) / calls;
+        // Printing the sink keeps the kernel results live
+        System.out.printf("  %-20s %8.1f ns/chunk %8.2f ns/sample %10.0f Msamples/s%s%n", name, nanosPerCall,
+                nanosPerCall / CHUNK, CHUNK * 1e3 / nanosPerCall, sink == 42 ? " " : "");
+    }
+}
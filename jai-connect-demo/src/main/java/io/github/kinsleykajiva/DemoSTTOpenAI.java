@@ -1,5 +1,6 @@
 package io.github.kinsleykajiva;
 
+import io.github.kinsleykajiva.ai.audio.PcmKernels;
 import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
 import io.github.kinsleykajiva.ai.vendors.openai.OpenAIConfig;
 import io.github.kinsleykajiva.ai.vendors.openai.OpenAIRealtimeClient;
@@ -104,6 +105,7 @@ public class DemoSTTOpenAI {
 			System.out.println(">>> Start speaking now. Press Ctrl+C to stop. <<<");
 
 			byte[] buffer = new byte[4800]; // 100ms chunks
+			short[] samples = new short[buffer.length / 2];
 
 			while (running.get()) {
 				try {
@@ -112,14 +114,9 @@ public class DemoSTTOpenAI {
 
 					if (bytesRead > 0 && running.get()) {
 						// Calculate simple RMS volume for debugging
-						double sum = 0;
-						for (int i = 0; i < bytesRead; i += 2) {
-							if (i + 1 < bytesRead) {
-								short sample = (short) ((buffer[i] & 0xFF) | (buffer[i + 1] << 8));
-								sum += sample * sample;
-							}
-						}
-						double rms = Math.sqrt(sum / (bytesRead / 2.0));
+						int samplesRead = bytesRead / 2;
+						PcmKernels.pcm16leToShorts(buffer, 0, samples, 0, samplesRead);
+						double rms = PcmKernels.rms(samples, 0, samplesRead);
 						// System.out.printf("[DEBUG] Read %d bytes, Volume: %.2f%n", bytesRead, rms);
 
 						// Only encode the actual bytes read, not the entire buffer
@@ -0,0 +1,128 @@
+package io.github.kinsleykajiva;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import io.github.kinsleykajiva.ai.vendors.openai.TranscriptJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark for {@link TranscriptJournal}: writes a day's worth of calls, then
+ * measures item, session and time-range lookups.
+ * <p>
+ * Arguments (all optional): number of calls, items per call, segments per
+ * item, and the journal directory (a temporary directory by default).
+ */
+public class DemoTranscriptJournalBenchmark {
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final String[] WORDS = { "hello", "thanks", "for", "calling", "how", "can", "I", "help", "you",
+            "today", "my", "order", "has", "not", "arrived", "yet", "let", "me", "check", "that" };
+
+    public static void main(String[] args) throws IOException {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int itemsPerCall = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int segmentsPerItem = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        Path directory = args.length > 3 ? Path.of(args[3]) : Files.createTempDirectory("transcript-journal");
+        long records = (long) calls * itemsPerCall * (segmentsPerItem + 1);
+        System.out.printf("Writing %d calls x %d items x (%d segments + transcript) = %d records to %s%n", calls,
+                itemsPerCall, segmentsPerItem, records, directory);
+
+        long dayStart = System.currentTimeMillis() - DAY_MILLIS;
+        long bytes;
+        try (TranscriptJournal journal = TranscriptJournal.open(directory)) {
+            long start = System.nanoTime();
+            CompletableFuture<Long> last = null;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int call = 0; call < calls; call++) {
+                String session = "sess_" + call;
+                long callStart = dayStart + DAY_MILLIS * call / calls;
+                for (int item = 0; item < itemsPerCall; item++) {
+                    String itemId = "item_" + item;
+                    long timestamp = callStart + item * 3_000L;
+                    StringBuilder transcript = new StringBuilder();
+                    for (int segment = 0; segment < segmentsPerItem; segment++) {
+                        String text = sentence(random);
+                        transcript.append(text).append(' ');
+                        last = journal.append(new TranscriptJournal.Entry(-1, session, itemId,
+                                TranscriptJournal.Kind.SEGMENT, timestamp, segment * 1.5, segment * 1.5 + 1.4,
+                                segment % 2 == 0 ? "A" : "B", text));
+                    }
+                    last = journal.append(new TranscriptJournal.Entry(-1, session, itemId,
+                            TranscriptJournal.Kind.TRANSCRIPT, timestamp, 0, 0, null, transcript.toString().trim()));
+                }
+            }
+            last.join();
+            long elapsedNanos = System.nanoTime() - start;
+            bytes = journal.getEndOffset();
+            System.out.printf("Wrote %d records (%.1f MB) in %d ms: %.0f records/s, %.1f MB/s, %d group commits%n",
+                    journal.getRecords(), bytes / 1e6, elapsedNanos / 1_000_000,
+                    journal.getRecords() / (elapsedNanos / 1e9), bytes / 1e6 / (elapsedNanos / 1e9),
+                    journal.getBatches());
+            System.out.println("Commit latency: " + journal.getCommitLatency());
+        }
+
+        long openStart = System.nanoTime();
+        try (TranscriptJournal journal = TranscriptJournal.open(directory)) {
+            System.out.printf("Reopened in %d ms%n", (System.nanoTime() - openStart) / 1_000_000);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            LatencyHistogram itemLookup = new LatencyHistogram("item_lookup");
+            for (int i = 0; i < 100_000; i++) {
+                String session = "sess_" + random.nextInt(calls);
+                String item = "item_" + random.nextInt(itemsPerCall);
+                long start = System.nanoTime();
+                List<TranscriptJournal.Entry> entries = journal.findItem(session, item);
+                itemLookup.recordSince(start);
+                if (entries.size() != segmentsPerItem + 1) {
+                    throw new IllegalStateException("Expected " + (segmentsPerItem + 1) + " entries for " + session
+                            + "/" + item + " but found " + entries.size());
+                }
+            }
+            System.out.println("Item lookup: " + itemLookup);
+
+            LatencyHistogram sessionLookup = new LatencyHistogram("session_lookup");
+            for (int i = 0; i < 10_000; i++) {
+                long start = System.nanoTime();
+                journal.findSpeaker("sess_" + random.nextInt(calls), "A");
+                sessionLookup.recordSince(start);
+            }
+            System.out.println("Session speaker lookup: " + sessionLookup);
+
+            LatencyHistogram rangeScan = new LatencyHistogram("minute_scan");
+            long[] matched = new long[1];
+            for (int i = 0; i < 1_000; i++) {
+                long from = dayStart + random.nextLong(DAY_MILLIS - 60_000);
+                long start = System.nanoTime();
+                journal.scan(from, from + 60_000, entry -> matched[0]++);
+                rangeScan.recordSince(start);
+            }
+            System.out.printf("One-minute range scan (%.0f entries on average): %s%n", matched[0] / 1_000.0,
+                    rangeScan);
+        }
+
+        if (args.length <= 3) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static String sentence(ThreadLocalRandom random) {
+        StringBuilder sentence = new StringBuilder();
+        int words = 6 + random.nextInt(10);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
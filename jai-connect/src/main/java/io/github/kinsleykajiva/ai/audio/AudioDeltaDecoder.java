@@ -0,0 +1,56 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+
+import java.util.Objects;
+
+/**
+ * Decodes base64 audio chunks, such as output audio deltas, to PCM16 without
+ * allocating per chunk. Bytes and samples are decoded into buffers that grow
+ * to the largest chunk seen and are then reused, so the samples are only valid
+ * until the next call.
+ * <p>
+ * Instances are not thread-safe; use one per decoding thread.
+ */
+public final class AudioDeltaDecoder {
+	private final AudioFormats format;
+	private final boolean g711;
+	private byte[] bytes = new byte[0];
+	private short[] samples = new short[0];
+
+	public AudioDeltaDecoder(AudioFormats format) {
+		this.format = Objects.requireNonNull(format, "Audio format cannot be null");
+		this.g711 = G711Codec.isG711(format);
+	}
+
+	/**
+	 * Decodes one chunk in the configured format.
+	 *
+	 * @return the number of samples written to {@link #samples()}
+	 */
+	public int decode(CharSequence base64) {
+		int chars = Base64Decoder.unpaddedLength(base64);
+		int byteCount = Base64Decoder.decodedLength(chars);
+		if (bytes.length < byteCount) {
+			bytes = new byte[byteCount];
+		}
+		byteCount = Base64Decoder.decode(base64, 0, chars, bytes, 0);
+		int sampleCount = g711 ? byteCount : byteCount / 2;
+		if (samples.length < sampleCount) {
+			samples = new short[sampleCount];
+		}
+		if (g711) {
+			G711Codec.forFormat(format).decode(bytes, 0, samples, 0, sampleCount);
+		} else {
+			PcmKernels.pcm16leToShorts(bytes, 0, samples, 0, sampleCount);
+		}
+		return sampleCount;
+	}
+
+	/**
+	 * Returns the buffer holding the samples of the last {@link #decode} call.
+	 */
+	public short[] samples() {
+		return samples;
+	}
+}
@@ -0,0 +1,69 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free base64 decoding from a {@link CharSequence}, so audio deltas
+ * can be decoded straight out of the parsed event into preallocated buffers.
+ */
+final class Base64Decoder {
+	private static final int[] VALUES = table();
+
+	private Base64Decoder() {
+	}
+
+	/**
+	 * Returns the number of characters excluding trailing padding.
+	 */
+	static int unpaddedLength(CharSequence base64) {
+		int length = base64.length();
+		while (length > 0 && base64.charAt(length - 1) == '=') {
+			length--;
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the number of bytes {@code chars} unpadded characters decode to.
+	 */
+	static int decodedLength(int chars) {
+		return chars * 3 / 4;
+	}
+
+	/**
+	 * Decodes {@code length} characters starting at {@code offset}. Unless the
+	 * range ends the input, {@code offset} and {@code length} must be multiples
+	 * of four.
+	 *
+	 * @return the number of bytes written to {@code dst}
+	 */
+	static int decode(CharSequence base64, int offset, int length, byte[] dst, int dstOffset) {
+		int out = dstOffset;
+		int bits = 0;
+		int accumulator = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			char c = base64.charAt(i);
+			int value = c < 128 ? VALUES[c] : -1;
+			if (value < 0) {
+				throw new IllegalArgumentException("Invalid base64 character at " + i);
+			}
+			accumulator = (accumulator << 6) | value;
+			bits += 6;
+			if (bits >= 8) {
+				bits -= 8;
+				dst[out++] = (byte) (accumulator >> bits);
+			}
+		}
+		return out - dstOffset;
+	}
+
+	private static int[] table() {
+		int[] table = new int[128];
+		Arrays.fill(table, -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			table[alphabet.charAt(i)] = i;
+		}
+		return table;
+	}
+}
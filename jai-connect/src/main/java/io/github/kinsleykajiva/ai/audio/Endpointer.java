@@ -0,0 +1,156 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.util.Objects;
+
+/**
+ * Local end-of-turn detector for outgoing PCM16 audio.
+ * <p>
+ * A turn starts at the first chunk the {@link VoiceActivityDetector} classifies
+ * as speech and ends once {@code silenceMs} of non-speech audio has followed at
+ * least {@code minSpeechMs} of speech. Shorter bursts (coughs, clicks) are
+ * discarded without ending a turn. All timing is derived from the number of
+ * samples seen, so results are independent of how fast audio is fed in.
+ * Instances are not thread-safe.
+ */
+public final class Endpointer {
+
+	/**
+	 * Default trailing silence that ends a turn.
+	 */
+	public static final int DEFAULT_SILENCE_MS = 500;
+
+	/**
+	 * Default minimum amount of speech for a turn to count.
+	 */
+	public static final int DEFAULT_MIN_SPEECH_MS = 200;
+
+	/**
+	 * Receives turn boundaries. Offsets are milliseconds of audio since the
+	 * endpointer was created or last reset.
+	 */
+	public interface Listener {
+		default void onSpeechStarted(long startMs) {
+		}
+
+		void onEndOfTurn(long speechStartMs, long speechEndMs);
+	}
+
+	private final VoiceActivityDetector detector;
+	private final int sampleRate;
+	private final long minSpeechSamples;
+	private final long silenceSamples;
+	private volatile Listener listener;
+
+	private long position;
+	private boolean inSpeech;
+	private long speechStart;
+	private long speechEnd;
+	private long speechLength;
+	private long silenceLength;
+
+	/**
+	 * Creates an endpointer with an {@link EnergyVoiceActivityDetector} and
+	 * default timings.
+	 */
+	public Endpointer(int sampleRate) {
+		this(new EnergyVoiceActivityDetector(sampleRate), sampleRate, DEFAULT_MIN_SPEECH_MS, DEFAULT_SILENCE_MS);
+	}
+
+	/**
+	 * Creates an endpointer.
+	 *
+	 * @param detector    the detector used to classify chunks
+	 * @param sampleRate  the sample rate of the audio being analysed
+	 * @param minSpeechMs minimum speech for a turn to be reported
+	 * @param silenceMs   trailing silence that ends a turn
+	 */
+	public Endpointer(VoiceActivityDetector detector, int sampleRate, int minSpeechMs, int silenceMs) {
+		this.detector = Objects.requireNonNull(detector, "Detector cannot be null");
+		if (sampleRate <= 0 || minSpeechMs < 0 || silenceMs <= 0) {
+			throw new IllegalArgumentException("Sample rate and silence must be positive, min speech non-negative");
+		}
+		this.sampleRate = sampleRate;
+		this.minSpeechSamples = (long) sampleRate * minSpeechMs / 1000;
+		this.silenceSamples = (long) sampleRate * silenceMs / 1000;
+	}
+
+	/**
+	 * Sets the listener notified of speech starts and turn ends.
+	 */
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Analyses the next chunk of audio.
+	 *
+	 * @return {@code true} if this chunk completed a turn
+	 */
+	public boolean process(short[] pcm, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		boolean speech = detector.isSpeech(pcm, offset, length);
+		long chunkStart = position;
+		position += length;
+		if (speech) {
+			if (!inSpeech) {
+				inSpeech = true;
+				speechStart = chunkStart;
+				speechLength = 0;
+				Listener current = listener;
+				if (current != null) {
+					current.onSpeechStarted(toMillis(speechStart));
+				}
+			}
+			speechLength += length;
+			speechEnd = position;
+			silenceLength = 0;
+			return false;
+		}
+		if (!inSpeech) {
+			return false;
+		}
+		silenceLength += length;
+		if (silenceLength < silenceSamples) {
+			return false;
+		}
+		inSpeech = false;
+		if (speechLength < minSpeechSamples) {
+			return false;
+		}
+		Listener current = listener;
+		if (current != null) {
+			current.onEndOfTurn(toMillis(speechStart), toMillis(speechEnd));
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether a turn is currently in progress.
+	 */
+	public boolean isInSpeech() {
+		return inSpeech;
+	}
+
+	/**
+	 * Returns the amount of audio analysed so far in milliseconds.
+	 */
+	public long getPositionMs() {
+		return toMillis(position);
+	}
+
+	/**
+	 * Abandons any turn in progress, clears detector state and restarts the
+	 * time base, so later offsets count from the reset.
+	 */
+	public void reset() {
+		position = 0;
+		inSpeech = false;
+		speechLength = 0;
+		silenceLength = 0;
+		detector.reset();
+	}
+
+	private long toMillis(long samples) {
+		return samples * 1000 / sampleRate;
+	}
+}
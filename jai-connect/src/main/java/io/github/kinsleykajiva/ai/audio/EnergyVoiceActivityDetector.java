@@ -0,0 +1,117 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Energy-based voice activity detector.
+ * <p>
+ * Each chunk is split into short analysis frames (10 ms by default) and is
+ * classified as speech if any frame's level exceeds both a fixed threshold and
+ * an adaptive noise floor by a margin. The noise floor is the minimum frame
+ * level over the last few seconds (minimum statistics): it drops at once on a
+ * quieter frame, and rises to the level of steady background noise, such as
+ * hold music or line hiss, within {@value #NOISE_WINDOW_MILLIS} ms, so such
+ * noise does not keep the detector open. Speech has pauses between words
+ * that keep the minimum near the true background level.
+ */
+public final class EnergyVoiceActivityDetector implements VoiceActivityDetector {
+
+	/**
+	 * Default absolute speech threshold in dBFS.
+	 */
+	public static final double DEFAULT_THRESHOLD_DBFS = -45.0;
+
+	/**
+	 * Default margin above the adaptive noise floor in dB.
+	 */
+	public static final double DEFAULT_NOISE_MARGIN_DB = 9.0;
+
+	/**
+	 * Span over which the noise floor is the minimum frame level.
+	 */
+	public static final int NOISE_WINDOW_MILLIS = 4000;
+
+	private static final double FULL_SCALE_ENERGY = 32768.0 * 32768.0;
+	private static final double INITIAL_NOISE_FLOOR = FULL_SCALE_ENERGY * 1e-7;
+	// The window is tracked as the minima of consecutive 500 ms sub-windows
+	private static final int SUB_WINDOW_FRAMES = 50;
+	private static final int SUB_WINDOWS = NOISE_WINDOW_MILLIS / (SUB_WINDOW_FRAMES * 10);
+
+	private final int frameSamples;
+	private final double thresholdEnergy;
+	private final double noiseMargin;
+	private final double[] subWindowMinima = new double[SUB_WINDOWS];
+	private int subWindow;
+	private int subWindowFrames;
+	private double subWindowMinimum = Double.MAX_VALUE;
+	private double noiseFloor = INITIAL_NOISE_FLOOR;
+
+	/**
+	 * Creates a detector with default thresholds and 10 ms analysis frames.
+	 *
+	 * @param sampleRate the sample rate of the audio that will be classified
+	 */
+	public EnergyVoiceActivityDetector(int sampleRate) {
+		this(sampleRate, DEFAULT_THRESHOLD_DBFS, DEFAULT_NOISE_MARGIN_DB);
+	}
+
+	/**
+	 * Creates a detector.
+	 *
+	 * @param sampleRate     the sample rate of the audio that will be classified
+	 * @param thresholdDbfs  absolute level a frame must exceed, in dBFS
+	 * @param noiseMarginDb  how far above the adaptive noise floor a frame must
+	 *                       be, in dB
+	 */
+	public EnergyVoiceActivityDetector(int sampleRate, double thresholdDbfs, double noiseMarginDb) {
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException("Sample rate must be positive");
+		}
+		this.frameSamples = Math.max(1, sampleRate / 100);
+		this.thresholdEnergy = FULL_SCALE_ENERGY * Math.pow(10, thresholdDbfs / 10);
+		this.noiseMargin = Math.pow(10, noiseMarginDb / 10);
+		reset();
+	}
+
+	@Override
+	public boolean isSpeech(short[] pcm, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		boolean speech = false;
+		for (int start = offset, end = offset + length; start < end; start += frameSamples) {
+			int frameLength = Math.min(frameSamples, end - start);
+			double energy = (double) PcmKernels.sumOfSquares(pcm, start, frameLength) / frameLength;
+			if (energy > thresholdEnergy && energy > noiseFloor * noiseMargin) {
+				speech = true;
+			}
+			updateNoiseFloor(Math.max(energy, 1.0));
+		}
+		return speech;
+	}
+
+	private void updateNoiseFloor(double energy) {
+		noiseFloor = Math.min(noiseFloor, energy);
+		subWindowMinimum = Math.min(subWindowMinimum, energy);
+		if (++subWindowFrames < SUB_WINDOW_FRAMES) {
+			return;
+		}
+		subWindowMinima[subWindow] = subWindowMinimum;
+		subWindow = (subWindow + 1) % SUB_WINDOWS;
+		subWindowFrames = 0;
+		subWindowMinimum = Double.MAX_VALUE;
+		double minimum = Double.MAX_VALUE;
+		for (double value : subWindowMinima) {
+			minimum = Math.min(minimum, value);
+		}
+		noiseFloor = minimum;
+	}
+
+	@Override
+	public void reset() {
+		Arrays.fill(subWindowMinima, INITIAL_NOISE_FLOOR);
+		subWindow = 0;
+		subWindowFrames = 0;
+		subWindowMinimum = Double.MAX_VALUE;
+		noiseFloor = INITIAL_NOISE_FLOOR;
+	}
+}
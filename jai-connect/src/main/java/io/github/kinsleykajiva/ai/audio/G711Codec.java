@@ -0,0 +1,262 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Objects;
+
+/**
+ * Table-driven G.711 codec for μ-law ({@link AudioFormats#PCMU}) and A-law
+ * ({@link AudioFormats#PCMA}) audio.
+ * <p>
+ * Decoding uses a 256-entry table per law and encoding uses a 16K-entry table
+ * indexed by the top 14 bits of the linear sample, so every conversion is a
+ * single array lookup with no per-sample branching. All bulk methods work on
+ * caller-supplied arrays or buffers and never allocate.
+ * <p>
+ * Linear samples are signed 16-bit PCM. The {@code Pcm16le} variants read or
+ * write little-endian byte pairs, which is the layout used by
+ * {@link AudioFormats#PCM_24KHZ_MONO} on the wire.
+ */
+public final class G711Codec {
+
+	private static final int ENCODE_TABLE_SIZE = 1 << 14;
+	private static final int ULAW_BIAS = 0x84;
+	private static final int ULAW_CLIP = 8159;
+	private static final int[] ULAW_SEGMENT_END = { 0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF, 0x1FFF };
+	private static final int[] ALAW_SEGMENT_END = { 0x1F, 0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF };
+
+	/**
+	 * G.711 μ-law codec.
+	 */
+	public static final G711Codec MU_LAW = new G711Codec(AudioFormats.PCMU);
+
+	/**
+	 * G.711 A-law codec.
+	 */
+	public static final G711Codec A_LAW = new G711Codec(AudioFormats.PCMA);
+
+	private final AudioFormats format;
+	private final short[] decodeTable = new short[256];
+	private final byte[] encodeTable = new byte[ENCODE_TABLE_SIZE];
+
+	private G711Codec(AudioFormats format) {
+		this.format = format;
+		boolean ulaw = format == AudioFormats.PCMU;
+		for (int i = 0; i < 256; i++) {
+			decodeTable[i] = (short) (ulaw ? ulawToLinear(i) : alawToLinear(i));
+		}
+		for (int i = 0; i < ENCODE_TABLE_SIZE; i++) {
+			// Sign-extend the 14-bit index back to a 16-bit sample.
+			int sample = (i << 18) >> 16;
+			encodeTable[i] = (byte) (ulaw ? linearToUlaw(sample) : linearToAlaw(sample));
+		}
+	}
+
+	/**
+	 * Returns the codec for the given G.711 format.
+	 *
+	 * @param format {@link AudioFormats#PCMU} or {@link AudioFormats#PCMA}
+	 * @return the matching codec
+	 * @throws IllegalArgumentException if the format is not G.711
+	 */
+	public static G711Codec forFormat(AudioFormats format) {
+		Objects.requireNonNull(format, "Format cannot be null");
+		return switch (format) {
+			case PCMU -> MU_LAW;
+			case PCMA -> A_LAW;
+			default -> throw new IllegalArgumentException("Not a G.711 format: " + format);
+		};
+	}
+
+	/**
+	 * Returns whether the given format is one of the G.711 formats.
+	 */
+	public static boolean isG711(AudioFormats format) {
+		return format == AudioFormats.PCMU || format == AudioFormats.PCMA;
+	}
+
+	/**
+	 * Returns the audio format handled by this codec.
+	 */
+	public AudioFormats getFormat() {
+		return format;
+	}
+
+	/**
+	 * Decodes a single G.711 byte to a linear 16-bit sample.
+	 */
+	public short decode(byte encoded) {
+		return decodeTable[encoded & 0xFF];
+	}
+
+	/**
+	 * Encodes a single linear 16-bit sample to a G.711 byte.
+	 */
+	public byte encode(short sample) {
+		return encodeTable[(sample >> 2) & 0x3FFF];
+	}
+
+	/**
+	 * Decodes {@code length} G.711 bytes into linear samples.
+	 */
+	public void decode(byte[] src, int srcOffset, short[] dst, int dstOffset, int length) {
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		Objects.checkFromIndexSize(dstOffset, length, dst.length);
+		final short[] table = decodeTable;
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] = table[src[srcOffset + i] & 0xFF];
+		}
+	}
+
+	/**
+	 * Encodes {@code length} linear samples into G.711 bytes.
+	 */
+	public void encode(short[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		Objects.checkFromIndexSize(dstOffset, length, dst.length);
+		final byte[] table = encodeTable;
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] = table[(src[srcOffset + i] >> 2) & 0x3FFF];
+		}
+	}
+
+	/**
+	 * Decodes {@code length} G.711 bytes into little-endian PCM16, writing
+	 * {@code 2 * length} bytes to {@code dst}.
+	 */
+	public void decodeToPcm16le(byte[] src, int srcOffset, byte[] dst, int dstOffset, int length) {
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		Objects.checkFromIndexSize(dstOffset, length * 2, dst.length);
+		final short[] table = decodeTable;
+		for (int i = 0, j = dstOffset; i < length; i++, j += 2) {
+			short sample = table[src[srcOffset + i] & 0xFF];
+			dst[j] = (byte) sample;
+			dst[j + 1] = (byte) (sample >> 8);
+		}
+	}
+
+	/**
+	 * Encodes {@code samples} little-endian PCM16 samples (read from
+	 * {@code 2 * samples} bytes of {@code src}) into G.711 bytes.
+	 */
+	public void encodeFromPcm16le(byte[] src, int srcOffset, byte[] dst, int dstOffset, int samples) {
+		Objects.checkFromIndexSize(srcOffset, samples * 2, src.length);
+		Objects.checkFromIndexSize(dstOffset, samples, dst.length);
+		final byte[] table = encodeTable;
+		for (int i = 0, j = srcOffset; i < samples; i++, j += 2) {
+			int sample = (src[j] & 0xFF) | (src[j + 1] << 8);
+			dst[dstOffset + i] = table[(sample >> 2) & 0x3FFF];
+		}
+	}
+
+	/**
+	 * Decodes all remaining bytes of {@code src} into {@code dst}. Both buffers
+	 * may be heap or direct; positions are advanced by the number of samples
+	 * converted, which is the smaller of the two remaining counts.
+	 *
+	 * @return the number of samples decoded
+	 */
+	public int decode(ByteBuffer src, ShortBuffer dst) {
+		int length = Math.min(src.remaining(), dst.remaining());
+		final short[] table = decodeTable;
+		int srcPos = src.position();
+		int dstPos = dst.position();
+		for (int i = 0; i < length; i++) {
+			dst.put(dstPos + i, table[src.get(srcPos + i) & 0xFF]);
+		}
+		src.position(srcPos + length);
+		dst.position(dstPos + length);
+		return length;
+	}
+
+	/**
+	 * Encodes all remaining samples of {@code src} into {@code dst}. Both buffers
+	 * may be heap or direct; positions are advanced by the number of samples
+	 * converted, which is the smaller of the two remaining counts.
+	 *
+	 * @return the number of samples encoded
+	 */
+	public int encode(ShortBuffer src, ByteBuffer dst) {
+		int length = Math.min(src.remaining(), dst.remaining());
+		final byte[] table = encodeTable;
+		int srcPos = src.position();
+		int dstPos = dst.position();
+		for (int i = 0; i < length; i++) {
+			dst.put(dstPos + i, table[(src.get(srcPos + i) >> 2) & 0x3FFF]);
+		}
+		src.position(srcPos + length);
+		dst.position(dstPos + length);
+		return length;
+	}
+
+	private static int ulawToLinear(int ulaw) {
+		ulaw = ~ulaw;
+		int t = ((ulaw & 0x0F) << 3) + ULAW_BIAS;
+		t <<= (ulaw & 0x70) >> 4;
+		return (ulaw & 0x80) != 0 ? ULAW_BIAS - t : t - ULAW_BIAS;
+	}
+
+	private static int alawToLinear(int alaw) {
+		alaw ^= 0x55;
+		int t = (alaw & 0x0F) << 4;
+		int segment = (alaw & 0x70) >> 4;
+		switch (segment) {
+			case 0 -> t += 8;
+			case 1 -> t += 0x108;
+			default -> {
+				t += 0x108;
+				t <<= segment - 1;
+			}
+		}
+		return (alaw & 0x80) != 0 ? t : -t;
+	}
+
+	private static int linearToUlaw(int sample) {
+		int value = sample >> 2;
+		int mask;
+		if (value < 0) {
+			value = -value;
+			mask = 0x7F;
+		} else {
+			mask = 0xFF;
+		}
+		if (value > ULAW_CLIP) {
+			value = ULAW_CLIP;
+		}
+		value += ULAW_BIAS >> 2;
+		int segment = segment(value, ULAW_SEGMENT_END);
+		if (segment >= 8) {
+			return 0x7F ^ mask;
+		}
+		return ((segment << 4) | ((value >> (segment + 1)) & 0x0F)) ^ mask;
+	}
+
+	private static int linearToAlaw(int sample) {
+		int value = sample >> 3;
+		int mask;
+		if (value >= 0) {
+			mask = 0xD5;
+		} else {
+			mask = 0x55;
+			value = -value - 1;
+		}
+		int segment = segment(value, ALAW_SEGMENT_END);
+		if (segment >= 8) {
+			return 0x7F ^ mask;
+		}
+		int alaw = segment << 4;
+		alaw |= segment < 2 ? (value >> 1) & 0x0F : (value >> segment) & 0x0F;
+		return alaw ^ mask;
+	}
+
+	private static int segment(int value, int[] segmentEnds) {
+		for (int i = 0; i < segmentEnds.length; i++) {
+			if (value <= segmentEnds[i]) {
+				return i;
+			}
+		}
+		return segmentEnds.length;
+	}
+}
@@ -0,0 +1,305 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Per-sample DSP kernels for mono or interleaved PCM16 audio.
+ * <p>
+ * Each kernel has a scalar implementation and, when the
+ * {@code jdk.incubator.vector} module is present in the boot layer (run with
+ * {@code --add-modules jdk.incubator.vector}), a Vector API implementation.
+ * Integer kernels produce bit-identical results on both paths; only
+ * {@link #dot} may differ in the last float ulp because lanes are summed in a
+ * different order. Set {@code -Djai.audio.vector=false} to force the scalar
+ * path.
+ * <p>
+ * Gains are applied in 4.12 fixed point, so any gain in
+ * {@code (-16, 16)} is honoured to a resolution of 1/4096 and results are
+ * rounded to nearest and saturated to the 16-bit range.
+ */
+public final class PcmKernels {
+	private static final Logger logger = LoggerFactory.getLogger(PcmKernels.class);
+
+	static final int GAIN_SHIFT = 12;
+	static final int GAIN_ONE = 1 << GAIN_SHIFT;
+	static final int GAIN_ROUNDING = 1 << (GAIN_SHIFT - 1);
+	private static final float MAX_GAIN = 16f - 1f / GAIN_ONE;
+
+	private static final boolean VECTORIZED = detectVectorSupport();
+
+	private PcmKernels() {
+	}
+
+	/**
+	 * Returns whether the Vector API implementations are in use.
+	 */
+	public static boolean isVectorized() {
+		return VECTORIZED;
+	}
+
+	/**
+	 * Returns the exact sum of squared samples.
+	 */
+	public static long sumOfSquares(short[] pcm, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		if (VECTORIZED) {
+			return VectorPcmKernels.sumOfSquares(pcm, offset, length);
+		}
+		return scalarSumOfSquares(pcm, offset, length);
+	}
+
+	/**
+	 * Returns the root-mean-square level of the samples, or zero for an empty
+	 * range.
+	 */
+	public static double rms(short[] pcm, int offset, int length) {
+		return length == 0 ? 0 : Math.sqrt((double) sumOfSquares(pcm, offset, length) / length);
+	}
+
+	/**
+	 * Multiplies samples by {@code gain} in place, rounding and saturating.
+	 */
+	public static void applyGain(short[] pcm, int offset, int length, float gain) {
+		applyGain(pcm, offset, pcm, offset, length, gain);
+	}
+
+	/**
+	 * Writes {@code src * gain} to {@code dst}, rounding and saturating. The
+	 * ranges may be the same array region.
+	 */
+	public static void applyGain(short[] src, int srcOffset, short[] dst, int dstOffset, int length, float gain) {
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		Objects.checkFromIndexSize(dstOffset, length, dst.length);
+		int fixedGain = toFixedGain(gain);
+		if (VECTORIZED) {
+			VectorPcmKernels.applyGain(src, srcOffset, dst, dstOffset, length, fixedGain);
+			return;
+		}
+		scalarApplyGain(src, srcOffset, dst, dstOffset, length, fixedGain);
+	}
+
+	/**
+	 * Hard-limits samples in place to {@code [-limit, limit]}.
+	 */
+	public static void clip(short[] pcm, int offset, int length, short limit) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		if (limit < 0) {
+			throw new IllegalArgumentException("Limit must be non-negative");
+		}
+		if (VECTORIZED) {
+			VectorPcmKernels.clip(pcm, offset, length, limit);
+			return;
+		}
+		scalarClip(pcm, offset, length, limit);
+	}
+
+	/**
+	 * Adds {@code src} into {@code dst} with saturation.
+	 */
+	public static void mixInto(short[] dst, int dstOffset, short[] src, int srcOffset, int length) {
+		Objects.checkFromIndexSize(dstOffset, length, dst.length);
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		if (VECTORIZED) {
+			VectorPcmKernels.mixInto(dst, dstOffset, src, srcOffset, length);
+			return;
+		}
+		scalarMixInto(dst, dstOffset, src, srcOffset, length);
+	}
+
+	/**
+	 * Adds {@code src * gain} into a 32-bit accumulator, rounding each scaled
+	 * sample. Used to sum many streams with headroom before limiting with
+	 * {@link #softClip}.
+	 */
+	public static void accumulate(short[] src, int srcOffset, int[] acc, int accOffset, int length, float gain) {
+		Objects.checkFromIndexSize(srcOffset, length, src.length);
+		Objects.checkFromIndexSize(accOffset, length, acc.length);
+		int fixedGain = toFixedGain(gain);
+		if (VECTORIZED) {
+			VectorPcmKernels.accumulate(src, srcOffset, acc, accOffset, length, fixedGain);
+			return;
+		}
+		scalarAccumulate(src, srcOffset, acc, accOffset, length, fixedGain);
+	}
+
+	/**
+	 * Limits accumulated samples to PCM16. Values up to {@code knee} in magnitude
+	 * pass through unchanged; above it they are compressed along
+	 * {@code knee + r * e / (e + r)}, where {@code e} is the excess over the knee
+	 * and {@code r} the remaining headroom, which is continuous in value and
+	 * slope and approaches full scale without reaching it. A knee of
+	 * {@link Short#MAX_VALUE} hard-clips instead.
+	 */
+	public static void softClip(int[] acc, int accOffset, short[] dst, int dstOffset, int length, int knee) {
+		Objects.checkFromIndexSize(accOffset, length, acc.length);
+		Objects.checkFromIndexSize(dstOffset, length, dst.length);
+		if (knee <= 0 || knee > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Knee must be in (0, 32767]");
+		}
+		if (VECTORIZED) {
+			VectorPcmKernels.softClip(acc, accOffset, dst, dstOffset, length, knee);
+			return;
+		}
+		scalarSoftClip(acc, accOffset, dst, dstOffset, length, knee);
+	}
+
+	/**
+	 * Converts little-endian PCM16 bytes to samples.
+	 */
+	public static void pcm16leToShorts(byte[] src, int srcOffset, short[] dst, int dstOffset, int samples) {
+		Objects.checkFromIndexSize(srcOffset, samples * 2, src.length);
+		Objects.checkFromIndexSize(dstOffset, samples, dst.length);
+		if (VECTORIZED) {
+			VectorPcmKernels.pcm16leToShorts(src, srcOffset, dst, dstOffset, samples);
+			return;
+		}
+		scalarPcm16leToShorts(src, srcOffset, dst, dstOffset, samples);
+	}
+
+	/**
+	 * Converts samples to little-endian PCM16 bytes.
+	 */
+	public static void shortsToPcm16le(short[] src, int srcOffset, byte[] dst, int dstOffset, int samples) {
+		Objects.checkFromIndexSize(srcOffset, samples, src.length);
+		Objects.checkFromIndexSize(dstOffset, samples * 2, dst.length);
+		if (VECTORIZED) {
+			VectorPcmKernels.shortsToPcm16le(src, srcOffset, dst, dstOffset, samples);
+			return;
+		}
+		scalarShortsToPcm16le(src, srcOffset, dst, dstOffset, samples);
+	}
+
+	/**
+	 * Down-mixes interleaved stereo frames to mono by averaging the channels
+	 * (rounding towards negative infinity).
+	 */
+	public static void downmixStereo(short[] interleaved, int offset, short[] dst, int dstOffset, int frames) {
+		Objects.checkFromIndexSize(offset, frames * 2, interleaved.length);
+		Objects.checkFromIndexSize(dstOffset, frames, dst.length);
+		if (VECTORIZED) {
+			VectorPcmKernels.downmixStereo(interleaved, offset, dst, dstOffset, frames);
+			return;
+		}
+		scalarDownmixStereo(interleaved, offset, dst, dstOffset, frames);
+	}
+
+	/**
+	 * Returns the dot product of two float ranges, as used by FIR filters.
+	 */
+	public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+		if (VECTORIZED) {
+			return VectorPcmKernels.dot(a, aOffset, b, bOffset, length);
+		}
+		return scalarDot(a, aOffset, b, bOffset, length);
+	}
+
+	static int toFixedGain(float gain) {
+		if (Float.isNaN(gain)) {
+			throw new IllegalArgumentException("Gain cannot be NaN");
+		}
+		return Math.round(Math.max(-MAX_GAIN, Math.min(MAX_GAIN, gain)) * GAIN_ONE);
+	}
+
+	static short saturate(int value) {
+		return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+	}
+
+	// ---- Scalar implementations, also used for vector loop tails ----
+
+	static long scalarSumOfSquares(short[] pcm, int offset, int length) {
+		long sum = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			int sample = pcm[i];
+			sum += sample * sample;
+		}
+		return sum;
+	}
+
+	static void scalarApplyGain(short[] src, int srcOffset, short[] dst, int dstOffset, int length, int fixedGain) {
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] = saturate((src[srcOffset + i] * fixedGain + GAIN_ROUNDING) >> GAIN_SHIFT);
+		}
+	}
+
+	static void scalarClip(short[] pcm, int offset, int length, short limit) {
+		int low = -limit;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			pcm[i] = (short) Math.max(low, Math.min(limit, pcm[i]));
+		}
+	}
+
+	static void scalarMixInto(short[] dst, int dstOffset, short[] src, int srcOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] = saturate(dst[dstOffset + i] + src[srcOffset + i]);
+		}
+	}
+
+	static void scalarAccumulate(short[] src, int srcOffset, int[] acc, int accOffset, int length, int fixedGain) {
+		for (int i = 0; i < length; i++) {
+			acc[accOffset + i] += (src[srcOffset + i] * fixedGain + GAIN_ROUNDING) >> GAIN_SHIFT;
+		}
+	}
+
+	static void scalarSoftClip(int[] acc, int accOffset, short[] dst, int dstOffset, int length, int knee) {
+		long headroom = Short.MAX_VALUE - knee;
+		for (int i = 0; i < length; i++) {
+			int value = acc[accOffset + i];
+			int magnitude = Math.abs(value);
+			if (magnitude > knee) {
+				long excess = magnitude - (long) knee;
+				magnitude = headroom == 0 ? knee : (int) (knee + headroom * excess / (excess + headroom));
+				value = value < 0 ? -magnitude : magnitude;
+			}
+			dst[dstOffset + i] = (short) value;
+		}
+	}
+
+	static void scalarPcm16leToShorts(byte[] src, int srcOffset, short[] dst, int dstOffset, int samples) {
+		for (int i = 0, j = srcOffset; i < samples; i++, j += 2) {
+			dst[dstOffset + i] = (short) ((src[j] & 0xFF) | (src[j + 1] << 8));
+		}
+	}
+
+	static void scalarShortsToPcm16le(short[] src, int srcOffset, byte[] dst, int dstOffset, int samples) {
+		for (int i = 0, j = dstOffset; i < samples; i++, j += 2) {
+			short sample = src[srcOffset + i];
+			dst[j] = (byte) sample;
+			dst[j + 1] = (byte) (sample >> 8);
+		}
+	}
+
+	static void scalarDownmixStereo(short[] interleaved, int offset, short[] dst, int dstOffset, int frames) {
+		for (int i = 0, j = offset; i < frames; i++, j += 2) {
+			dst[dstOffset + i] = (short) ((interleaved[j] + interleaved[j + 1]) >> 1);
+		}
+	}
+
+	static float scalarDot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+		float acc = 0f;
+		for (int i = 0; i < length; i++) {
+			acc += a[aOffset + i] * b[bOffset + i];
+		}
+		return acc;
+	}
+
+	private static boolean detectVectorSupport() {
+		if (!Boolean.parseBoolean(System.getProperty("jai.audio.vector", "true"))) {
+			return false;
+		}
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return false;
+		}
+		try {
+			short[] probe = { 1, 2, 3 };
+			VectorPcmKernels.sumOfSquares(probe, 0, probe.length);
+			logger.debug("Using Vector API for PCM kernels");
+			return true;
+		} catch (Throwable t) {
+			logger.debug("Vector API unavailable, using scalar PCM kernels", t);
+			return false;
+		}
+	}
+}
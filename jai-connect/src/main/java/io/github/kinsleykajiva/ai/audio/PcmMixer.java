@@ -0,0 +1,413 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming N-input mixer for PCM16 audio at a single sample rate, for example
+ * to put the assistant's voice, hold music and call-progress tones onto one
+ * telephony leg.
+ * <p>
+ * Every input owns a fixed ring sized when it is added, so memory does not grow
+ * with call length or delta size. Rings are indexed by position on the mixer's
+ * timeline (samples mixed since creation): {@link Input#write} appends after
+ * whatever the input has queued, while {@link Input#writeAt} places audio at an
+ * absolute timeline position, padding gaps with silence and dropping anything
+ * that arrives after its slot has been mixed. Each input has one producer
+ * thread; {@link #mix} is called from a single consumer thread, typically the
+ * one pacing the outgoing leg.
+ * <p>
+ * Inputs are summed with per-input gain into a 32-bit accumulator and limited
+ * with {@link PcmKernels#softClip}, so a few loud inputs are compressed
+ * smoothly instead of wrapping or hard-clipping. Mixing allocates nothing.
+ */
+public final class PcmMixer {
+
+	/**
+	 * Default frame length produced by each {@link #mix} call.
+	 */
+	public static final int DEFAULT_FRAME_MS = 20;
+
+	/**
+	 * Default audio each input can queue ahead of the mix position.
+	 */
+	public static final int DEFAULT_INPUT_BUFFER_MS = 2000;
+
+	/**
+	 * Default soft clipping knee as a fraction of full scale.
+	 */
+	public static final float DEFAULT_SOFT_CLIP_THRESHOLD = 0.75f;
+
+	// Base64 characters decoded per step; a multiple of 4 decoding to an even number of bytes
+	private static final int BASE64_CHUNK = 4096;
+
+	private final int sampleRate;
+	private final int frameSamples;
+	private final int inputCapacity;
+	private final int[] accumulator;
+
+	private final Object inputsLock = new Object();
+	private volatile Input[] inputs = new Input[0];
+	private volatile int knee;
+	private volatile long position;
+
+	/**
+	 * Creates a mixer with the default frame length and input buffer size.
+	 */
+	public PcmMixer(int sampleRate) {
+		this(sampleRate, DEFAULT_FRAME_MS, DEFAULT_INPUT_BUFFER_MS);
+	}
+
+	/**
+	 * Creates a mixer.
+	 *
+	 * @param sampleRate    the PCM16 sample rate of all inputs and the output
+	 * @param frameMs       audio produced by each {@link #mix} call
+	 * @param inputBufferMs audio each input can queue ahead of the mix position;
+	 *                      rounded up to a power of two samples
+	 */
+	public PcmMixer(int sampleRate, int frameMs, int inputBufferMs) {
+		if (sampleRate <= 0 || frameMs <= 0 || inputBufferMs < frameMs) {
+			throw new IllegalArgumentException(
+					"Sample rate and frame length must be positive, input buffer at least one frame");
+		}
+		this.sampleRate = sampleRate;
+		this.frameSamples = Math.max(1, (int) ((long) sampleRate * frameMs / 1000));
+		this.inputCapacity = Integer.highestOneBit(Math.max(2, (int) ((long) sampleRate * inputBufferMs / 1000) - 1)) << 1;
+		this.accumulator = new int[frameSamples];
+		setSoftClipThreshold(DEFAULT_SOFT_CLIP_THRESHOLD);
+	}
+
+	/**
+	 * Returns the sample rate of the inputs and output.
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Returns the number of samples produced by each {@link #mix} call.
+	 */
+	public int getFrameSamples() {
+		return frameSamples;
+	}
+
+	/**
+	 * Returns the mix position: the number of samples mixed so far. Audio written
+	 * with {@link Input#writeAt} at this position is played by the next frame.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns the mix position in milliseconds.
+	 */
+	public long getPositionMs() {
+		return position * 1000 / sampleRate;
+	}
+
+	/**
+	 * Sets the level above which the mix is compressed, as a fraction of full
+	 * scale. A threshold of {@code 1} hard-clips instead.
+	 */
+	public void setSoftClipThreshold(float threshold) {
+		if (!(threshold > 0 && threshold <= 1)) {
+			throw new IllegalArgumentException("Soft clip threshold must be in (0, 1]");
+		}
+		this.knee = Math.max(1, Math.round(threshold * Short.MAX_VALUE));
+	}
+
+	/**
+	 * Adds an input at unity gain.
+	 */
+	public Input addInput(String name) {
+		return addInput(name, 1f);
+	}
+
+	/**
+	 * Adds an input. Its first appended audio plays from the current mix
+	 * position.
+	 *
+	 * @param name a label for logging and diagnostics
+	 * @param gain linear gain applied to the input
+	 */
+	public Input addInput(String name, float gain) {
+		Input input = new Input(Objects.requireNonNull(name, "Input name cannot be null"), gain);
+		synchronized (inputsLock) {
+			Input[] current = inputs;
+			Input[] updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = input;
+			inputs = updated;
+		}
+		return input;
+	}
+
+	/**
+	 * Removes an input. Audio it still has queued is discarded.
+	 */
+	public void removeInput(Input input) {
+		synchronized (inputsLock) {
+			Input[] current = inputs;
+			for (int i = 0; i < current.length; i++) {
+				if (current[i] == input) {
+					Input[] updated = new Input[current.length - 1];
+					System.arraycopy(current, 0, updated, 0, i);
+					System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+					inputs = updated;
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the current inputs.
+	 */
+	public List<Input> getInputs() {
+		return List.of(inputs);
+	}
+
+	/**
+	 * Mixes the next frame into {@code dst} and advances the mix position by
+	 * {@link #getFrameSamples()}. Inputs with nothing queued for the frame
+	 * contribute silence.
+	 *
+	 * @return the number of inputs that contributed audio
+	 */
+	public int mix(short[] dst, int offset) {
+		Objects.checkFromIndexSize(offset, frameSamples, dst.length);
+		long frameStart = position;
+		long frameEnd = frameStart + frameSamples;
+		Arrays.fill(accumulator, 0);
+		int contributing = 0;
+		for (Input input : inputs) {
+			if (input.mixInto(accumulator, frameStart, frameEnd)) {
+				contributing++;
+			}
+		}
+		PcmKernels.softClip(accumulator, 0, dst, offset, frameSamples, knee);
+		position = frameEnd;
+		return contributing;
+	}
+
+	/**
+	 * One source feeding the mixer. Writes and {@link #flush()} must come from a
+	 * single producer thread; gain and mute may be changed from any thread.
+	 */
+	public final class Input {
+		private final String name;
+		private final short[] ring = new short[inputCapacity];
+		private final int mask = inputCapacity - 1;
+
+		// Timeline positions: [readIndex, writeIndex) holds queued audio
+		private final AtomicLong writeIndex;
+		private final AtomicLong readIndex;
+		private final AtomicLong droppedSamples = new AtomicLong();
+
+		private volatile float gain;
+		private volatile boolean muted;
+
+		// Producer scratch for decoding base64 deltas, bounded by BASE64_CHUNK
+		private byte[] bytes;
+		private short[] samples;
+
+		private Input(String name, float gain) {
+			PcmKernels.toFixedGain(gain);
+			this.name = name;
+			this.gain = gain;
+			long start = position;
+			this.writeIndex = new AtomicLong(start);
+			this.readIndex = new AtomicLong(start);
+		}
+
+		/**
+		 * Returns the input label.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the sample rate of the mixer this input feeds.
+		 */
+		public int getSampleRate() {
+			return sampleRate;
+		}
+
+		/**
+		 * Returns the linear gain applied to this input.
+		 */
+		public float getGain() {
+			return gain;
+		}
+
+		/**
+		 * Sets the linear gain applied to this input, effective from the next frame.
+		 */
+		public void setGain(float gain) {
+			PcmKernels.toFixedGain(gain);
+			this.gain = gain;
+		}
+
+		/**
+		 * Returns whether the input is muted.
+		 */
+		public boolean isMuted() {
+			return muted;
+		}
+
+		/**
+		 * Mutes or unmutes the input. Muted audio keeps advancing with the
+		 * timeline, so unmuting resumes in sync.
+		 */
+		public void setMuted(boolean muted) {
+			this.muted = muted;
+		}
+
+		/**
+		 * Queues samples after the audio already queued for this input, or at the
+		 * mix position if the input has run dry.
+		 *
+		 * @return the number of samples queued
+		 */
+		public int write(short[] pcm, int offset, int length) {
+			return writeAt(Math.max(writeIndex.get(), readIndex.get()), pcm, offset, length);
+		}
+
+		/**
+		 * Queues samples to play at an absolute mixer timeline position (see
+		 * {@link PcmMixer#getPosition()}). A gap after already queued audio is
+		 * filled with silence. Samples overlapping queued audio or whose slot has
+		 * already been mixed are dropped, as are samples beyond the input buffer.
+		 *
+		 * @return the number of samples queued
+		 */
+		public int writeAt(long timelinePosition, short[] pcm, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, pcm.length);
+			long r = readIndex.get();
+			long w = writeIndex.get();
+			long queuedEnd = Math.max(w, r);
+			long start = timelinePosition;
+			int skip = (int) Math.min(length, Math.max(0, queuedEnd - start));
+			start += skip;
+			long end = Math.min(start + (length - skip), r + ring.length);
+			int writable = (int) Math.max(0, end - start);
+			long dropped = length - writable;
+			if (dropped > 0) {
+				droppedSamples.addAndGet(dropped);
+			}
+			if (writable == 0) {
+				return 0;
+			}
+			fill(queuedEnd, start);
+			int slot = (int) (start & mask);
+			int first = Math.min(writable, ring.length - slot);
+			System.arraycopy(pcm, offset + skip, ring, slot, first);
+			System.arraycopy(pcm, offset + skip + first, ring, 0, writable - first);
+			writeIndex.lazySet(end);
+			return writable;
+		}
+
+		/**
+		 * Decodes a base64 audio delta in the given wire format and appends it, as
+		 * with {@link #write}, using fixed scratch buffers.
+		 *
+		 * @return the number of samples queued
+		 */
+		public int writeBase64(CharSequence base64, AudioFormats format) {
+			Objects.requireNonNull(base64, "Audio data cannot be null");
+			if (format.getSampleRate() != sampleRate) {
+				throw new IllegalArgumentException("Audio format sample rate must match the mixer");
+			}
+			if (bytes == null) {
+				bytes = new byte[Base64Decoder.decodedLength(BASE64_CHUNK)];
+				samples = new short[bytes.length];
+			}
+			boolean g711 = G711Codec.isG711(format);
+			int length = Base64Decoder.unpaddedLength(base64);
+			int queued = 0;
+			for (int i = 0; i < length; i += BASE64_CHUNK) {
+				int n = Base64Decoder.decode(base64, i, Math.min(BASE64_CHUNK, length - i), bytes, 0);
+				int count;
+				if (g711) {
+					count = n;
+					G711Codec.forFormat(format).decode(bytes, 0, samples, 0, n);
+				} else {
+					count = n / 2;
+					PcmKernels.pcm16leToShorts(bytes, 0, samples, 0, count);
+				}
+				queued += write(samples, 0, count);
+			}
+			return queued;
+		}
+
+		/**
+		 * Discards queued audio so that the next write plays from the mix
+		 * position. Must be called from the producer thread.
+		 */
+		public void flush() {
+			long r = readIndex.get();
+			if (writeIndex.get() > r) {
+				writeIndex.lazySet(r);
+			}
+		}
+
+		/**
+		 * Returns the amount of audio queued ahead of the mix position.
+		 */
+		public int getDepthSamples() {
+			return (int) Math.max(0, writeIndex.get() - readIndex.get());
+		}
+
+		/**
+		 * Returns the amount of audio queued ahead of the mix position in
+		 * milliseconds.
+		 */
+		public long getDepthMs() {
+			return getDepthSamples() * 1000L / sampleRate;
+		}
+
+		/**
+		 * Returns the number of samples dropped because they arrived late,
+		 * overlapped queued audio or did not fit in the buffer.
+		 */
+		public long getDroppedSamples() {
+			return droppedSamples.get();
+		}
+
+		private void fill(long from, long to) {
+			for (long p = from; p < to; ) {
+				int slot = (int) (p & mask);
+				int n = (int) Math.min(to - p, ring.length - slot);
+				Arrays.fill(ring, slot, slot + n, (short) 0);
+				p += n;
+			}
+		}
+
+		private boolean mixInto(int[] acc, long frameStart, long frameEnd) {
+			long end = Math.min(writeIndex.get(), frameEnd);
+			boolean contributed = end > frameStart && !muted;
+			if (contributed) {
+				int length = (int) (end - frameStart);
+				int slot = (int) (frameStart & mask);
+				int first = Math.min(length, ring.length - slot);
+				float g = gain;
+				PcmKernels.accumulate(ring, slot, acc, 0, first, g);
+				PcmKernels.accumulate(ring, 0, acc, first, length - first, g);
+			}
+			// Published only after reading, so the producer cannot reuse these slots early
+			readIndex.lazySet(frameEnd);
+			return contributed;
+		}
+
+		@Override
+		public String toString() {
+			return "Input{" + name + ", gain=" + gain + ", depthMs=" + getDepthMs() + "}";
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package io.github.kinsleykajiva.ai.audio;
+
+/**
+ * Receives a slice of linear PCM16 samples. The array may be reused by the
+ * caller once the call returns.
+ */
+@FunctionalInterface
+public interface PcmSink {
+	void accept(short[] pcm, int offset, int length);
+}
@@ -0,0 +1,446 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-producer, single-consumer jitter buffer for output audio.
+ * <p>
+ * The producer (typically the thread handling {@code response.output_audio.delta}
+ * events) decodes audio straight into a preallocated PCM16 ring. The consumer
+ * (a {@code SourceDataLine} writer or a telephony timer) pulls fixed-size
+ * frames at real-time pace. Playback starts once the buffer holds the
+ * configured target depth and restarts with the same depth after an underrun,
+ * trading a little latency for fewer gaps when deltas arrive in bursts.
+ * <p>
+ * The consumer publishes which item is playing and how many of its samples have
+ * been played, so any thread can ask for a sample-accurate played position, for
+ * example to truncate a conversation item on barge-in. {@link #flush()} may also
+ * be called from any thread; the consumer drops everything queued on its next
+ * read and the producer discards further audio for the interrupted item.
+ * <p>
+ * Time is never read from the system clock: {@link #readDue} takes the current
+ * time as an argument, so pacing can be driven by a simulated clock in tests.
+ */
+public final class PlayoutBuffer {
+
+	/**
+	 * Snapshot of the consumer's position within the item currently playing.
+	 */
+	public record PlayoutPosition(String itemId, int contentIndex, long playedSamples, long playedMs) {
+	}
+
+	private static final int MAX_MARKERS = 64;
+
+	private final int sampleRate;
+	private final short[] ring;
+	private final int mask;
+	private final int targetDepth;
+
+	private final AtomicLong writeIndex = new AtomicLong();
+	private final AtomicLong readIndex = new AtomicLong();
+	private final AtomicLong flushRequest = new AtomicLong(-1);
+	private final AtomicReference<Runnable> flushCallback = new AtomicReference<>();
+	private final AtomicLong endOfStreamIndex = new AtomicLong();
+
+	// Item boundaries, published by the producer and consumed in order
+	private final String[] markerItem = new String[MAX_MARKERS];
+	private final int[] markerContent = new int[MAX_MARKERS];
+	private final long[] markerStart = new long[MAX_MARKERS];
+	private final long[] markerItemOffset = new long[MAX_MARKERS];
+	private final AtomicLong markerWrite = new AtomicLong();
+	private final AtomicLong markerRead = new AtomicLong();
+
+	// Producer state
+	private volatile String producerItem;
+	private int producerContent = -1;
+	private long producerItemSamples;
+	private boolean producerOverran;
+	private volatile String cancelledItem;
+	private byte[] scratch = new byte[0];
+
+	// Consumer state
+	private boolean buffering = true;
+	private String currentItem;
+	private int currentContent;
+	private long currentStart;
+	private long currentItemOffset;
+	private long pacingStartNanos = -1;
+	private long pacedSamples;
+
+	// Position published by the consumer under a sequence lock
+	private final AtomicLong positionVersion = new AtomicLong();
+	private String playedItem;
+	private int playedContent;
+	private long playedSamples;
+
+	private final AtomicLong underruns = new AtomicLong();
+	private final AtomicLong underrunSamples = new AtomicLong();
+	private final AtomicLong overrunSamples = new AtomicLong();
+
+	/**
+	 * Creates a playout buffer.
+	 *
+	 * @param sampleRate    the PCM16 sample rate of the audio being played
+	 * @param capacityMs    maximum audio that can be queued; rounded up to a power
+	 *                      of two samples
+	 * @param targetDepthMs audio to accumulate before starting or resuming playback
+	 */
+	public PlayoutBuffer(int sampleRate, int capacityMs, int targetDepthMs) {
+		if (sampleRate <= 0 || capacityMs <= 0 || targetDepthMs < 0) {
+			throw new IllegalArgumentException("Sample rate and capacity must be positive, target depth non-negative");
+		}
+		int capacity = Integer.highestOneBit(Math.max(2, (int) ((long) sampleRate * capacityMs / 1000) - 1)) << 1;
+		this.sampleRate = sampleRate;
+		this.ring = new short[capacity];
+		this.mask = capacity - 1;
+		this.targetDepth = Math.min(capacity, (int) ((long) sampleRate * targetDepthMs / 1000));
+	}
+
+	/**
+	 * Returns the sample rate of the buffered audio.
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Returns the ring capacity in samples.
+	 */
+	public int getCapacity() {
+		return ring.length;
+	}
+
+	// ---- Producer side ----
+
+	/**
+	 * Queues PCM16 samples belonging to an output item. Samples that do not fit
+	 * are dropped and counted as overrun.
+	 *
+	 * @return the number of samples queued
+	 */
+	public int write(String itemId, int contentIndex, short[] pcm, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		int writable = beginWrite(itemId, contentIndex, length);
+		if (writable <= 0) {
+			return 0;
+		}
+		long w = writeIndex.get();
+		int start = (int) (w & mask);
+		int first = Math.min(writable, ring.length - start);
+		System.arraycopy(pcm, offset, ring, start, first);
+		System.arraycopy(pcm, offset + first, ring, 0, writable - first);
+		writeIndex.lazySet(w + writable);
+		return writable;
+	}
+
+	/**
+	 * Decodes a base64 audio delta in the given wire format and queues it without
+	 * building intermediate strings or sample arrays.
+	 *
+	 * @return the number of samples queued
+	 */
+	public int writeBase64(String itemId, int contentIndex, CharSequence base64, AudioFormats format) {
+		Objects.requireNonNull(base64, "Audio data cannot be null");
+		int bytes = decodeBase64(base64);
+		boolean g711 = G711Codec.isG711(format);
+		int samples = g711 ? bytes : bytes / 2;
+		int writable = beginWrite(itemId, contentIndex, samples);
+		if (writable <= 0) {
+			return 0;
+		}
+		long w = writeIndex.get();
+		int start = (int) (w & mask);
+		int first = Math.min(writable, ring.length - start);
+		if (g711) {
+			G711Codec codec = G711Codec.forFormat(format);
+			codec.decode(scratch, 0, ring, start, first);
+			codec.decode(scratch, first, ring, 0, writable - first);
+		} else {
+			PcmKernels.pcm16leToShorts(scratch, 0, ring, start, first);
+			PcmKernels.pcm16leToShorts(scratch, first * 2, ring, 0, writable - first);
+		}
+		writeIndex.lazySet(w + writable);
+		return writable;
+	}
+
+	/**
+	 * Marks the current end of the queued audio as intentional, so the consumer
+	 * draining up to this point is not counted as an underrun.
+	 */
+	public void endOfStream() {
+		endOfStreamIndex.set(writeIndex.get());
+	}
+
+	private int beginWrite(String itemId, int contentIndex, int length) {
+		Objects.requireNonNull(itemId, "Item ID cannot be null");
+		if (itemId.equals(cancelledItem)) {
+			return 0;
+		}
+		if (!itemId.equals(producerItem) || contentIndex != producerContent) {
+			producerItem = itemId;
+			producerContent = contentIndex;
+			producerItemSamples = 0;
+			producerOverran = false;
+			publishMarker(itemId, contentIndex, writeIndex.get(), 0);
+		} else if (producerOverran) {
+			// Re-anchor so dropped samples still count towards the item's timeline.
+			producerOverran = false;
+			publishMarker(itemId, contentIndex, writeIndex.get(), producerItemSamples);
+		}
+		int free = ring.length - (int) (writeIndex.get() - readIndex.get());
+		int writable = Math.min(free, length);
+		if (writable < length) {
+			overrunSamples.addAndGet(length - writable);
+			producerOverran = true;
+		}
+		producerItemSamples += length;
+		return writable;
+	}
+
+	private void publishMarker(String itemId, int contentIndex, long start, long itemOffset) {
+		long m = markerWrite.get();
+		if (m - markerRead.get() >= MAX_MARKERS) {
+			// Consumer is far behind; its position is attributed to the previous item.
+			return;
+		}
+		int slot = (int) (m & (MAX_MARKERS - 1));
+		markerItem[slot] = itemId;
+		markerContent[slot] = contentIndex;
+		markerStart[slot] = start;
+		markerItemOffset[slot] = itemOffset;
+		markerWrite.lazySet(m + 1);
+	}
+
+	private int decodeBase64(CharSequence base64) {
+		int length = Base64Decoder.unpaddedLength(base64);
+		int bytes = Base64Decoder.decodedLength(length);
+		if (scratch.length < bytes) {
+			scratch = new byte[Math.max(bytes, scratch.length * 2)];
+		}
+		return Base64Decoder.decode(base64, 0, length, scratch, 0);
+	}
+
+	// ---- Consumer side ----
+
+	/**
+	 * Fills {@code length} samples of {@code dst}. Gaps (while buffering or on
+	 * underrun) are filled with silence.
+	 *
+	 * @return the number of samples that came from queued audio
+	 */
+	public int read(short[] dst, int offset, int length) {
+		Objects.checkFromIndexSize(offset, length, dst.length);
+		long r = readIndex.get();
+		long flushTo = flushRequest.getAndSet(-1);
+		if (flushTo >= 0) {
+			if (flushTo > r) {
+				r = Math.min(flushTo, writeIndex.get());
+				discardMarkersBefore(r);
+				buffering = true;
+			}
+			Runnable callback = flushCallback.getAndSet(null);
+			if (callback != null) {
+				callback.run();
+			}
+		}
+		long w = writeIndex.get();
+		int available = (int) (w - r);
+		if (buffering && available < targetDepth && endOfStreamIndex.get() < w) {
+			Arrays.fill(dst, offset, offset + length, (short) 0);
+			readIndex.lazySet(r);
+			return 0;
+		}
+		buffering = false;
+		int n = Math.min(available, length);
+		int start = (int) (r & mask);
+		int first = Math.min(n, ring.length - start);
+		System.arraycopy(ring, start, dst, offset, first);
+		System.arraycopy(ring, 0, dst, offset + first, n - first);
+		if (n < length) {
+			Arrays.fill(dst, offset + n, offset + length, (short) 0);
+			if (endOfStreamIndex.get() < w) {
+				underruns.incrementAndGet();
+				underrunSamples.addAndGet(length - n);
+			}
+			buffering = true;
+		}
+		r += n;
+		publishPosition(r);
+		readIndex.lazySet(r);
+		return n;
+	}
+
+	/**
+	 * Reads the samples that are due at {@code nowNanos} given real-time playback
+	 * from the first call, up to {@code maxLength}. If the caller falls more than
+	 * {@code maxLength} samples behind, pacing is re-anchored rather than bursting.
+	 *
+	 * @return the number of samples written to {@code dst} (audio or silence)
+	 */
+	public int readDue(long nowNanos, short[] dst, int offset, int maxLength) {
+		if (pacingStartNanos < 0) {
+			pacingStartNanos = nowNanos;
+			pacedSamples = 0;
+		}
+		long due = (nowNanos - pacingStartNanos) * sampleRate / 1_000_000_000L - pacedSamples;
+		if (due > maxLength) {
+			pacingStartNanos = nowNanos - (pacedSamples + maxLength) * 1_000_000_000L / sampleRate;
+			due = maxLength;
+		}
+		if (due <= 0) {
+			return 0;
+		}
+		int n = (int) due;
+		read(dst, offset, n);
+		pacedSamples += n;
+		return n;
+	}
+
+	/**
+	 * Skips item markers for flushed audio. The published position keeps pointing
+	 * at what was actually played until the next item starts.
+	 */
+	private void discardMarkersBefore(long r) {
+		long available = markerWrite.get();
+		long m = markerRead.get();
+		while (m < available && markerStart[(int) (m & (MAX_MARKERS - 1))] < r) {
+			m++;
+		}
+		markerRead.lazySet(m);
+		currentItem = null;
+	}
+
+	private void publishPosition(long r) {
+		long available = markerWrite.get();
+		long m = markerRead.get();
+		boolean changed = false;
+		while (m < available) {
+			int slot = (int) (m & (MAX_MARKERS - 1));
+			if (markerStart[slot] > r || (markerStart[slot] == r && currentItem != null)) {
+				break;
+			}
+			currentItem = markerItem[slot];
+			currentContent = markerContent[slot];
+			currentStart = markerStart[slot];
+			currentItemOffset = markerItemOffset[slot];
+			m++;
+			changed = true;
+		}
+		markerRead.lazySet(m);
+		if (currentItem == null) {
+			return;
+		}
+		long version = positionVersion.get();
+		positionVersion.set(version + 1);
+		// Keep the field writes below from moving ahead of the odd version
+		VarHandle.storeStoreFence();
+		if (changed) {
+			playedItem = currentItem;
+			playedContent = currentContent;
+		}
+		playedSamples = Math.max(0, r - currentStart) + currentItemOffset;
+		positionVersion.set(version + 2);
+	}
+
+	// ---- Any thread ----
+
+	/**
+	 * Drops all queued audio. The consumer skips to the current write position on
+	 * its next read, and the producer ignores further audio for the item that was
+	 * being written when the flush was requested.
+	 */
+	public void flush() {
+		flush(null);
+	}
+
+	/**
+	 * Like {@link #flush()}, additionally running {@code onSilenced} on the
+	 * consumer thread once the flush has taken effect, i.e. when the consumer has
+	 * stopped emitting the flushed audio.
+	 */
+	public void flush(Runnable onSilenced) {
+		cancelledItem = producerItem;
+		flushCallback.set(onSilenced);
+		flushRequest.set(writeIndex.get());
+	}
+
+	/**
+	 * Allows audio for a previously flushed item to be queued again.
+	 */
+	public void clearCancellation() {
+		cancelledItem = null;
+	}
+
+	/**
+	 * Returns the position within the item currently playing, or {@code null} if
+	 * nothing has been played yet.
+	 */
+	public PlayoutPosition getPlayedPosition() {
+		while (true) {
+			long before = positionVersion.get();
+			if ((before & 1) != 0) {
+				Thread.onSpinWait();
+				continue;
+			}
+			String item = playedItem;
+			int content = playedContent;
+			long samples = playedSamples;
+			// Keep the field reads above from moving past the re-check
+			VarHandle.acquireFence();
+			if (positionVersion.get() == before) {
+				return item == null ? null
+						: new PlayoutPosition(item, content, samples, samples * 1000 / sampleRate);
+			}
+		}
+	}
+
+	/**
+	 * Returns how many milliseconds of the given item have been played, or
+	 * {@code -1} if it is not the item currently playing.
+	 */
+	public long getPlayedMs(String itemId) {
+		PlayoutPosition position = getPlayedPosition();
+		return position != null && position.itemId().equals(itemId) ? position.playedMs() : -1;
+	}
+
+	/**
+	 * Returns the number of queued samples not yet played.
+	 */
+	public int getDepthSamples() {
+		return (int) (writeIndex.get() - readIndex.get());
+	}
+
+	/**
+	 * Returns the queued audio not yet played in milliseconds.
+	 */
+	public long getDepthMs() {
+		return (long) getDepthSamples() * 1000 / sampleRate;
+	}
+
+	/**
+	 * Returns the number of times playback ran dry before the end of the stream.
+	 */
+	public long getUnderruns() {
+		return underruns.get();
+	}
+
+	/**
+	 * Returns the total silence inserted because of underruns, in samples.
+	 */
+	public long getUnderrunSamples() {
+		return underrunSamples.get();
+	}
+
+	/**
+	 * Returns the number of samples dropped because the ring was full.
+	 */
+	public long getOverrunSamples() {
+		return overrunSamples.get();
+	}
+}
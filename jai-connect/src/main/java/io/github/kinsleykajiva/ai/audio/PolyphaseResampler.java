@@ -0,0 +1,212 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Streaming polyphase FIR resampler for mono PCM16 audio.
+ * <p>
+ * Converts between any pair of integer sample rates by a rational factor
+ * {@code L/M} (for example 8 kHz, 16 kHz, 44.1 kHz or 48 kHz to and from the
+ * 24 kHz {@code PCM_24KHZ_MONO} format). A Kaiser-windowed sinc low-pass filter
+ * is split into {@code L} phases so each output sample costs a single
+ * {@code tapsPerPhase}-long dot product.
+ * <p>
+ * The resampler is stateful: filter history and the fractional read position
+ * are carried across calls, so audio may be fed in arbitrary chunk sizes
+ * without discontinuities at chunk boundaries. All working memory is allocated
+ * up front. Instances are not thread-safe.
+ */
+public final class PolyphaseResampler {
+
+	/**
+	 * Default number of filter taps per polyphase branch.
+	 */
+	public static final int DEFAULT_TAPS_PER_PHASE = 32;
+
+	private static final int MAX_PHASES = 1024;
+	private static final int BLOCK_SIZE = 1024;
+	private static final double KAISER_BETA = 8.6;
+	private static final double PASSBAND = 0.92;
+
+	private final int inputRate;
+	private final int outputRate;
+	private final int interpolation;
+	private final int decimation;
+	private final int taps;
+	private final float[] coefficients;
+	private final float[] history;
+	private int count;
+	private int position;
+
+	/**
+	 * Creates a resampler with {@link #DEFAULT_TAPS_PER_PHASE} taps per phase.
+	 *
+	 * @param inputRate  the input sample rate in Hz
+	 * @param outputRate the output sample rate in Hz
+	 */
+	public PolyphaseResampler(int inputRate, int outputRate) {
+		this(inputRate, outputRate, DEFAULT_TAPS_PER_PHASE);
+	}
+
+	/**
+	 * Creates a resampler.
+	 *
+	 * @param inputRate    the input sample rate in Hz
+	 * @param outputRate   the output sample rate in Hz
+	 * @param tapsPerPhase filter taps per polyphase branch; higher values give a
+	 *                     sharper transition band at proportionally higher cost
+	 */
+	public PolyphaseResampler(int inputRate, int outputRate, int tapsPerPhase) {
+		if (inputRate <= 0 || outputRate <= 0) {
+			throw new IllegalArgumentException("Sample rates must be positive");
+		}
+		if (tapsPerPhase < 2) {
+			throw new IllegalArgumentException("At least two taps per phase are required");
+		}
+		int gcd = gcd(inputRate, outputRate);
+		this.inputRate = inputRate;
+		this.outputRate = outputRate;
+		this.interpolation = outputRate / gcd;
+		this.decimation = inputRate / gcd;
+		if (interpolation > MAX_PHASES) {
+			throw new IllegalArgumentException(
+					"Unsupported rate ratio " + inputRate + " -> " + outputRate + " (more than " + MAX_PHASES + " phases)");
+		}
+		this.taps = tapsPerPhase;
+		this.coefficients = designFilter(interpolation, decimation, tapsPerPhase);
+		this.history = new float[tapsPerPhase - 1 + BLOCK_SIZE];
+		reset();
+	}
+
+	/**
+	 * Returns the input sample rate in Hz.
+	 */
+	public int getInputRate() {
+		return inputRate;
+	}
+
+	/**
+	 * Returns the output sample rate in Hz.
+	 */
+	public int getOutputRate() {
+		return outputRate;
+	}
+
+	/**
+	 * Returns an upper bound on the number of samples {@link #process} can produce
+	 * for the given number of input samples.
+	 */
+	public int maxOutputSamples(int inputSamples) {
+		return (int) (((long) inputSamples * interpolation + decimation - 1) / decimation) + 1;
+	}
+
+	/**
+	 * Discards all filter history, as if the resampler had just been created.
+	 */
+	public void reset() {
+		Arrays.fill(history, 0f);
+		count = taps - 1;
+		position = (taps - 1) * interpolation;
+	}
+
+	/**
+	 * Resamples {@code length} input samples and writes the result to
+	 * {@code out}, which must have room for at least
+	 * {@link #maxOutputSamples(int) maxOutputSamples(length)} samples.
+	 *
+	 * @return the number of output samples written
+	 */
+	public int process(short[] in, int offset, int length, short[] out, int outOffset) {
+		Objects.checkFromIndexSize(offset, length, in.length);
+		final int keep = taps - 1;
+		int written = 0;
+		while (length > 0) {
+			int n = Math.min(length, BLOCK_SIZE);
+			for (int j = 0; j < n; j++) {
+				history[count + j] = in[offset + j];
+			}
+			count += n;
+			offset += n;
+			length -= n;
+
+			int index;
+			while ((index = position / interpolation) < count) {
+				int phase = position - index * interpolation;
+				float acc = PcmKernels.dot(coefficients, phase * taps, history, index - keep, taps);
+				out[outOffset + written++] = clamp(acc);
+				position += decimation;
+			}
+
+			int drop = count - keep;
+			System.arraycopy(history, drop, history, 0, keep);
+			count = keep;
+			position -= drop * interpolation;
+		}
+		return written;
+	}
+
+	private static short clamp(float sample) {
+		int rounded = Math.round(sample);
+		if (rounded > Short.MAX_VALUE) {
+			return Short.MAX_VALUE;
+		}
+		if (rounded < Short.MIN_VALUE) {
+			return Short.MIN_VALUE;
+		}
+		return (short) rounded;
+	}
+
+	/**
+	 * Designs the prototype low-pass filter at the upsampled rate and lays it out
+	 * phase by phase, each phase reversed so it can be applied as a forward dot
+	 * product against the history buffer.
+	 */
+	private static float[] designFilter(int interpolation, int decimation, int taps) {
+		int length = interpolation * taps;
+		double cutoff = 0.5 * PASSBAND / Math.max(interpolation, decimation);
+		double center = (length - 1) / 2.0;
+		double[] prototype = new double[length];
+		double sum = 0;
+		double i0Beta = besselI0(KAISER_BETA);
+		for (int n = 0; n < length; n++) {
+			double x = n - center;
+			double sinc = x == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+			double ratio = 2.0 * n / (length - 1) - 1.0;
+			double window = besselI0(KAISER_BETA * Math.sqrt(Math.max(0, 1 - ratio * ratio))) / i0Beta;
+			prototype[n] = sinc * window;
+			sum += prototype[n];
+		}
+		double gain = interpolation / sum;
+		float[] polyphase = new float[length];
+		for (int phase = 0; phase < interpolation; phase++) {
+			for (int k = 0; k < taps; k++) {
+				polyphase[phase * taps + (taps - 1 - k)] = (float) (prototype[phase + k * interpolation] * gain);
+			}
+		}
+		return polyphase;
+	}
+
+	private static double besselI0(double x) {
+		double sum = 1;
+		double term = 1;
+		double halfX = x / 2;
+		for (int k = 1; k < 50; k++) {
+			term *= (halfX / k) * (halfX / k);
+			sum += term;
+			if (term < sum * 1e-12) {
+				break;
+			}
+		}
+		return sum;
+	}
+
+	private static int gcd(int a, int b) {
+		while (b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+}
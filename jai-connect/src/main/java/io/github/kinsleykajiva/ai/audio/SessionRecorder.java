@@ -0,0 +1,495 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Records both directions of a session to PCM16 WAV files without blocking the
+ * threads that produce the audio.
+ * <p>
+ * The {@code record*} methods only enqueue the chunk (base64 deltas are queued
+ * as-is, without decoding) on a lock-free queue and return. A dedicated writer
+ * thread decodes, converts G.711 and resamples to the recording rate, places
+ * each chunk on a wall-clock timeline and writes through a {@link FileChannel}.
+ * When the queue is full, chunks are dropped and counted rather than making the
+ * caller wait.
+ * <p>
+ * Input and output are written as the left and right channel of a stereo file
+ * ({@link Layout#STEREO}) or summed into one channel ({@link Layout#MIXED}).
+ * Audio for a direction is laid down contiguously and only re-anchored to its
+ * arrival time after a gap, so jitter does not introduce clicks while pauses
+ * and turn-taking are preserved. Each file starts with a 44-byte header whose
+ * sizes are patched when the file is rotated or the recorder closed. Files are
+ * rotated once they reach a size or duration limit.
+ */
+public final class SessionRecorder implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(SessionRecorder.class);
+
+	/**
+	 * How the two directions are arranged in the output file.
+	 */
+	public enum Layout {
+		/**
+		 * Two channels: input on the left, output on the right.
+		 */
+		STEREO(2),
+		/**
+		 * One channel with both directions summed.
+		 */
+		MIXED(1);
+
+		private final int channels;
+
+		Layout(int channels) {
+			this.channels = channels;
+		}
+
+		public int getChannels() {
+			return channels;
+		}
+	}
+
+	/**
+	 * Default number of chunks that may wait for the writer before new ones are
+	 * dropped.
+	 */
+	public static final int DEFAULT_MAX_QUEUED_CHUNKS = 4096;
+
+	/**
+	 * Largest file a WAV header can describe; files are always rotated before
+	 * reaching it.
+	 */
+	public static final long MAX_WAV_FILE_BYTES = 0xFFFFFFFFL;
+
+	private static final int STAGE_SECONDS = 10;
+	// Audio held back for a direction that may still deliver late chunks
+	private static final int MAX_LAG_MS = 2000;
+	// A direction further behind its arrival time than this is re-anchored
+	private static final int RESYNC_MS = 200;
+	private static final int MIN_COMMIT_MS = 200;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private record Chunk(boolean output, CharSequence base64, AudioFormats format, short[] pcm, int sampleRate,
+			long arrivalNanos) {
+	}
+
+	private final Path directory;
+	private final String baseName;
+	private final int sampleRate;
+	private final Layout layout;
+	private final long maxFileBytes;
+	private final long maxFileFrames;
+	private final int maxQueuedChunks;
+	private final LongSupplier nanoClock;
+	private final long startNanos;
+
+	private final ConcurrentLinkedQueue<Chunk> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queuedChunks = new AtomicInteger();
+	private final LongAccumulator maxQueued = new LongAccumulator(Math::max, 0);
+	private final AtomicLong droppedChunks = new AtomicLong();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private final AtomicLong writeErrors = new AtomicLong();
+	private final LatencyHistogram writeLatency = new LatencyHistogram("recorder-write");
+	private final List<Path> files = new CopyOnWriteArrayList<>();
+	private final Thread writer;
+	private volatile boolean running = true;
+
+	// Writer thread state
+	private final short[] stage;
+	private final int stageFrames;
+	private final byte[] encoded;
+	private final long[] cursor = new long[2];
+	private final Map<Integer, PolyphaseResampler> inputResamplers = new HashMap<>();
+	private final Map<Integer, PolyphaseResampler> outputResamplers = new HashMap<>();
+	private long committed;
+	private byte[] decodedBytes = new byte[0];
+	private short[] decoded = new short[0];
+	private short[] resampled = new short[0];
+	private FileChannel channel;
+	private long fileFrames;
+	private long fileDataBytes;
+
+	/**
+	 * Creates a stereo recorder that rotates only at the WAV size limit.
+	 */
+	public SessionRecorder(Path directory, String baseName, int sampleRate) {
+		this(directory, baseName, sampleRate, Layout.STEREO, MAX_WAV_FILE_BYTES, 0);
+	}
+
+	/**
+	 * Creates a recorder and starts its writer thread.
+	 *
+	 * @param directory      directory the WAV files are created in
+	 * @param baseName       file name prefix; files are named
+	 *                       {@code <baseName>-<n>.wav}
+	 * @param sampleRate     recording sample rate; audio at other rates is
+	 *                       resampled
+	 * @param layout         how input and output are arranged
+	 * @param maxFileBytes   rotate once a file would exceed this size; capped
+	 *                       at {@link #MAX_WAV_FILE_BYTES}
+	 * @param maxFileSeconds rotate once a file holds this much audio, or
+	 *                       {@code 0} for no limit
+	 */
+	public SessionRecorder(Path directory, String baseName, int sampleRate, Layout layout, long maxFileBytes,
+			int maxFileSeconds) {
+		this(directory, baseName, sampleRate, layout, maxFileBytes, maxFileSeconds, System::nanoTime);
+	}
+
+	// Arrival times are read from nanoClock, so tests can lay out long sessions quickly
+	SessionRecorder(Path directory, String baseName, int sampleRate, Layout layout, long maxFileBytes,
+			int maxFileSeconds, LongSupplier nanoClock) {
+		this.directory = Objects.requireNonNull(directory, "Directory cannot be null");
+		this.baseName = Objects.requireNonNull(baseName, "Base name cannot be null");
+		this.layout = Objects.requireNonNull(layout, "Layout cannot be null");
+		if (sampleRate <= 0 || maxFileSeconds < 0) {
+			throw new IllegalArgumentException("Sample rate must be positive, max file duration non-negative");
+		}
+		long frameBytes = 2L * layout.getChannels();
+		if (maxFileBytes < WavFile.HEADER_BYTES + (long) sampleRate * frameBytes) {
+			throw new IllegalArgumentException("Max file size must hold at least one second of audio");
+		}
+		this.sampleRate = sampleRate;
+		this.maxFileBytes = Math.min(maxFileBytes, MAX_WAV_FILE_BYTES);
+		this.maxFileFrames = maxFileSeconds == 0 ? Long.MAX_VALUE : (long) maxFileSeconds * sampleRate;
+		this.maxQueuedChunks = DEFAULT_MAX_QUEUED_CHUNKS;
+		this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+		this.startNanos = nanoClock.getAsLong();
+		this.stageFrames = sampleRate * STAGE_SECONDS;
+		this.stage = new short[stageFrames * layout.getChannels()];
+		this.encoded = new byte[stage.length * 2];
+		this.writer = new Thread(this::runWriter, "jai-session-recorder-" + baseName);
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	// ---- Producer side ----
+
+	/**
+	 * Queues a base64 input (user) audio chunk in the given wire format.
+	 *
+	 * @return {@code false} if the chunk was dropped
+	 */
+	public boolean recordInput(CharSequence base64, AudioFormats format) {
+		return offer(new Chunk(false, Objects.requireNonNull(base64, "Audio data cannot be null"),
+				Objects.requireNonNull(format, "Format cannot be null"), null, format.getSampleRate(),
+				nanoClock.getAsLong()));
+	}
+
+	/**
+	 * Queues a base64 output (assistant) audio delta in the given wire format.
+	 *
+	 * @return {@code false} if the chunk was dropped
+	 */
+	public boolean recordOutput(CharSequence base64, AudioFormats format) {
+		return offer(new Chunk(true, Objects.requireNonNull(base64, "Audio data cannot be null"),
+				Objects.requireNonNull(format, "Format cannot be null"), null, format.getSampleRate(),
+				nanoClock.getAsLong()));
+	}
+
+	/**
+	 * Queues a copy of PCM16 input (user) audio.
+	 *
+	 * @return {@code false} if the chunk was dropped
+	 */
+	public boolean recordInput(short[] pcm, int offset, int length, int sampleRate) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		return offer(new Chunk(false, null, null, Arrays.copyOfRange(pcm, offset, offset + length),
+				sampleRate, nanoClock.getAsLong()));
+	}
+
+	/**
+	 * Queues a copy of PCM16 output (assistant) audio.
+	 *
+	 * @return {@code false} if the chunk was dropped
+	 */
+	public boolean recordOutput(short[] pcm, int offset, int length, int sampleRate) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		return offer(new Chunk(true, null, null, Arrays.copyOfRange(pcm, offset, offset + length),
+				sampleRate, nanoClock.getAsLong()));
+	}
+
+	private boolean offer(Chunk chunk) {
+		if (!running) {
+			return false;
+		}
+		int depth = queuedChunks.incrementAndGet();
+		if (depth > maxQueuedChunks) {
+			queuedChunks.decrementAndGet();
+			droppedChunks.incrementAndGet();
+			return false;
+		}
+		maxQueued.accumulate(depth);
+		queue.offer(chunk);
+		return true;
+	}
+
+	// ---- Metrics ----
+
+	/**
+	 * Returns the number of chunks waiting for the writer.
+	 */
+	public int getQueuedChunks() {
+		return queuedChunks.get();
+	}
+
+	/**
+	 * Returns the highest number of chunks that have waited for the writer at
+	 * once.
+	 */
+	public long getMaxQueuedChunks() {
+		return maxQueued.get();
+	}
+
+	/**
+	 * Returns the number of chunks dropped because the writer fell behind or the
+	 * recorder was closed.
+	 */
+	public long getDroppedChunks() {
+		return droppedChunks.get();
+	}
+
+	/**
+	 * Returns the number of audio bytes written across all files.
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	/**
+	 * Returns the number of failed file operations.
+	 */
+	public long getWriteErrors() {
+		return writeErrors.get();
+	}
+
+	/**
+	 * Returns the latency histogram of individual file writes.
+	 */
+	public LatencyHistogram getWriteLatency() {
+		return writeLatency;
+	}
+
+	/**
+	 * Returns the files created so far, oldest first.
+	 */
+	public List<Path> getFiles() {
+		return List.copyOf(files);
+	}
+
+	/**
+	 * Stops accepting audio, writes everything queued, patches the last file's
+	 * header and waits for the writer thread to finish.
+	 */
+	@Override
+	public void close() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writer);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// ---- Writer thread ----
+
+	private void runWriter() {
+		while (true) {
+			Chunk chunk = queue.poll();
+			if (chunk == null && !running && queue.isEmpty()) {
+				break;
+			}
+			try {
+				if (chunk == null) {
+					commitDue(nanoClock.getAsLong());
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+					continue;
+				}
+				queuedChunks.decrementAndGet();
+				place(chunk);
+				commitDue(chunk.arrivalNanos());
+			} catch (IOException | RuntimeException e) {
+				writeErrors.incrementAndGet();
+				logger.error("Failed to record session audio", e);
+			}
+		}
+		try {
+			commit(Math.max(cursor[0], cursor[1]));
+			closeFile();
+		} catch (IOException e) {
+			writeErrors.incrementAndGet();
+			logger.error("Failed to finish recording", e);
+		}
+		logger.info("Session recording finished: {} files, {} bytes, {} chunks dropped", files.size(),
+				bytesWritten.get(), droppedChunks.get());
+	}
+
+	private void place(Chunk chunk) throws IOException {
+		int length = decode(chunk);
+		short[] pcm = decoded;
+		if (chunk.sampleRate() != sampleRate) {
+			Map<Integer, PolyphaseResampler> resamplers = chunk.output() ? outputResamplers : inputResamplers;
+			PolyphaseResampler resampler = resamplers.computeIfAbsent(chunk.sampleRate(),
+					rate -> new PolyphaseResampler(rate, sampleRate));
+			int capacity = resampler.maxOutputSamples(length);
+			if (resampled.length < capacity) {
+				resampled = new short[capacity];
+			}
+			length = resampler.process(pcm, 0, length, resampled, 0);
+			pcm = resampled;
+		}
+		int ch = chunk.output() ? 1 : 0;
+		long arrival = toFrames(chunk.arrivalNanos() - startNanos);
+		// Input arrives once captured, output before it is played
+		long anchor = chunk.output() ? arrival : arrival - length;
+		long start = cursor[ch];
+		if (anchor - start > (long) sampleRate * RESYNC_MS / 1000) {
+			start = anchor;
+		}
+		start = Math.max(start, committed);
+		for (int done = 0; done < length; ) {
+			int n = Math.min(length - done, stageFrames / 2);
+			long end = start + done + n;
+			if (end > committed + stageFrames) {
+				commit(end - stageFrames);
+			}
+			int frame = (int) (start + done - committed);
+			if (layout == Layout.MIXED) {
+				PcmKernels.mixInto(stage, frame, pcm, done, n);
+			} else {
+				for (int i = 0, j = frame * 2 + ch; i < n; i++, j += 2) {
+					stage[j] = pcm[done + i];
+				}
+			}
+			done += n;
+			cursor[ch] = start + done;
+		}
+	}
+
+	private int decode(Chunk chunk) {
+		if (chunk.pcm() != null) {
+			decoded = chunk.pcm();
+			return decoded.length;
+		}
+		int chars = Base64Decoder.unpaddedLength(chunk.base64());
+		int bytes = Base64Decoder.decodedLength(chars);
+		if (decodedBytes.length < bytes) {
+			decodedBytes = new byte[bytes];
+		}
+		bytes = Base64Decoder.decode(chunk.base64(), 0, chars, decodedBytes, 0);
+		boolean g711 = G711Codec.isG711(chunk.format());
+		int samples = g711 ? bytes : bytes / 2;
+		if (decoded.length < samples) {
+			decoded = new short[samples];
+		}
+		if (g711) {
+			G711Codec.forFormat(chunk.format()).decode(decodedBytes, 0, decoded, 0, samples);
+		} else {
+			PcmKernels.pcm16leToShorts(decodedBytes, 0, decoded, 0, samples);
+		}
+		return samples;
+	}
+
+	/**
+	 * Writes out audio neither direction can still add to: up to where both have
+	 * delivered, or up to {@code MAX_LAG_MS} before now for a direction that has
+	 * gone quiet.
+	 */
+	private void commitDue(long nowNanos) throws IOException {
+		long latest = Math.max(cursor[0], cursor[1]);
+		long settled = toFrames(nowNanos - startNanos) - (long) sampleRate * MAX_LAG_MS / 1000;
+		long target = Math.max(Math.min(cursor[0], cursor[1]), Math.min(latest, settled));
+		if (target - committed >= (long) sampleRate * MIN_COMMIT_MS / 1000) {
+			commit(target);
+		}
+	}
+
+	private void commit(long upTo) throws IOException {
+		int channels = layout.getChannels();
+		long frameBytes = 2L * channels;
+		long occupied = Math.max(cursor[0], cursor[1]) - committed;
+		while (committed < upTo) {
+			if (channel == null) {
+				openFile();
+			}
+			long room = Math.min((maxFileBytes - WavFile.HEADER_BYTES - fileDataBytes) / frameBytes, maxFileFrames - fileFrames);
+			if (room <= 0) {
+				closeFile();
+				continue;
+			}
+			// Never more than the stage holds: past what was placed it is silence, e.g. a long pause
+			int frames = (int) Math.min(Math.min(upTo - committed, room), stageFrames);
+			int samples = frames * channels;
+			PcmKernels.shortsToPcm16le(stage, 0, encoded, 0, samples);
+			ByteBuffer buffer = ByteBuffer.wrap(encoded, 0, samples * 2);
+			long writeStart = System.nanoTime();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			writeLatency.recordSince(writeStart);
+			fileFrames += frames;
+			fileDataBytes += samples * 2L;
+			bytesWritten.addAndGet(samples * 2L);
+
+			int remaining = (int) Math.max(0, occupied - frames) * channels;
+			System.arraycopy(stage, samples, stage, 0, remaining);
+			Arrays.fill(stage, remaining, Math.min(stage.length, remaining + samples), (short) 0);
+			occupied -= frames;
+			committed += frames;
+		}
+	}
+
+	private void openFile() throws IOException {
+		Files.createDirectories(directory);
+		Path path = directory.resolve(String.format("%s-%03d.wav", baseName, files.size() + 1));
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		channel.write(WavFile.header(sampleRate, layout.getChannels(), 16, 0), 0);
+		channel.position(WavFile.HEADER_BYTES);
+		files.add(path);
+		fileFrames = 0;
+		fileDataBytes = 0;
+		logger.debug("Recording session audio to {}", path);
+	}
+
+	private void closeFile() throws IOException {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.write(WavFile.header(sampleRate, layout.getChannels(), 16, fileDataBytes), 0);
+		} finally {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	private long toFrames(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)) * sampleRate / TimeUnit.SECONDS.toMicros(1);
+	}
+}
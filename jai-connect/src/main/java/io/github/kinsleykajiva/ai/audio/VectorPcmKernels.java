@@ -0,0 +1,170 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteOrder;
+
+/**
+ * Vector API implementations of {@link PcmKernels}. Only loaded once the
+ * incubator module has been found, so the library still links without it.
+ * Loop tails fall back to the scalar code so results match exactly.
+ */
+final class VectorPcmKernels {
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Byte> BYTES = VectorSpecies.of(byte.class, SHORTS.vectorShape());
+	// Byte reinterpretation follows native lane order, which must match the wire order
+	private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+	// Short species with one lane per int lane, for widening conversions. A short
+	// species per long lane would need a 32-bit shape on 128-bit hardware, which
+	// does not exist, so S2L widens a full short vector part by part instead.
+	private static final VectorSpecies<Short> SHORTS_PER_INT = VectorSpecies.of(short.class,
+			VectorShape.forBitSize(INTS.vectorBitSize() / 2));
+	private static final int LONG_PARTS = SHORTS.length() / LONGS.length();
+	// Swaps the channels of each interleaved stereo pair, and selects the left lanes
+	private static final VectorShuffle<Short> SWAP_PAIRS = VectorShuffle.fromOp(SHORTS, lane -> lane ^ 1);
+	private static final VectorMask<Short> LEFT_LANES = VectorMask.fromLong(SHORTS, 0x5555_5555_5555_5555L);
+	private static final VectorMask<Short> LOWER_HALF = SHORTS.indexInRange(0, SHORTS.length() / 2);
+
+	private VectorPcmKernels() {
+	}
+
+	static long sumOfSquares(short[] pcm, int offset, int length) {
+		LongVector acc = LongVector.zero(LONGS);
+		int i = 0;
+		int bound = SHORTS.loopBound(length);
+		for (; i < bound; i += SHORTS.length()) {
+			ShortVector shorts = ShortVector.fromArray(SHORTS, pcm, offset + i);
+			for (int part = 0; part < LONG_PARTS; part++) {
+				LongVector v = (LongVector) shorts.convertShape(VectorOperators.S2L, LONGS, part);
+				acc = acc.add(v.mul(v));
+			}
+		}
+		return acc.reduceLanes(VectorOperators.ADD) + PcmKernels.scalarSumOfSquares(pcm, offset + i, length - i);
+	}
+
+	static void applyGain(short[] src, int srcOffset, short[] dst, int dstOffset, int length, int fixedGain) {
+		int i = 0;
+		int bound = SHORTS_PER_INT.loopBound(length);
+		for (; i < bound; i += SHORTS_PER_INT.length()) {
+			IntVector v = (IntVector) ShortVector.fromArray(SHORTS_PER_INT, src, srcOffset + i)
+					.convertShape(VectorOperators.S2I, INTS, 0);
+			IntVector scaled = v.mul(fixedGain).add(PcmKernels.GAIN_ROUNDING)
+					.lanewise(VectorOperators.ASHR, PcmKernels.GAIN_SHIFT)
+					.max(Short.MIN_VALUE).min(Short.MAX_VALUE);
+			scaled.convertShape(VectorOperators.I2S, SHORTS_PER_INT, 0)
+					.reinterpretAsShorts().intoArray(dst, dstOffset + i);
+		}
+		PcmKernels.scalarApplyGain(src, srcOffset + i, dst, dstOffset + i, length - i, fixedGain);
+	}
+
+	static void clip(short[] pcm, int offset, int length, short limit) {
+		short low = (short) -limit;
+		int i = 0;
+		int bound = SHORTS.loopBound(length);
+		for (; i < bound; i += SHORTS.length()) {
+			ShortVector.fromArray(SHORTS, pcm, offset + i).max(low).min(limit).intoArray(pcm, offset + i);
+		}
+		PcmKernels.scalarClip(pcm, offset + i, length - i, limit);
+	}
+
+	static void mixInto(short[] dst, int dstOffset, short[] src, int srcOffset, int length) {
+		int i = 0;
+		int bound = SHORTS.loopBound(length);
+		for (; i < bound; i += SHORTS.length()) {
+			ShortVector a = ShortVector.fromArray(SHORTS, dst, dstOffset + i);
+			ShortVector b = ShortVector.fromArray(SHORTS, src, srcOffset + i);
+			ShortVector sum = a.add(b);
+			// Overflow iff both inputs share a sign that the wrapped sum does not.
+			VectorMask<Short> overflow = a.lanewise(VectorOperators.XOR, sum)
+					.lanewise(VectorOperators.AND, b.lanewise(VectorOperators.XOR, sum))
+					.compare(VectorOperators.LT, (short) 0);
+			ShortVector saturated = a.lanewise(VectorOperators.ASHR, 15).lanewise(VectorOperators.XOR, Short.MAX_VALUE);
+			sum.blend(saturated, overflow).intoArray(dst, dstOffset + i);
+		}
+		PcmKernels.scalarMixInto(dst, dstOffset + i, src, srcOffset + i, length - i);
+	}
+
+	static void accumulate(short[] src, int srcOffset, int[] acc, int accOffset, int length, int fixedGain) {
+		int i = 0;
+		int bound = SHORTS_PER_INT.loopBound(length);
+		for (; i < bound; i += SHORTS_PER_INT.length()) {
+			IntVector v = (IntVector) ShortVector.fromArray(SHORTS_PER_INT, src, srcOffset + i)
+					.convertShape(VectorOperators.S2I, INTS, 0);
+			v.mul(fixedGain).add(PcmKernels.GAIN_ROUNDING).lanewise(VectorOperators.ASHR, PcmKernels.GAIN_SHIFT)
+					.add(IntVector.fromArray(INTS, acc, accOffset + i)).intoArray(acc, accOffset + i);
+		}
+		PcmKernels.scalarAccumulate(src, srcOffset + i, acc, accOffset + i, length - i, fixedGain);
+	}
+
+	static void softClip(int[] acc, int accOffset, short[] dst, int dstOffset, int length, int knee) {
+		int i = 0;
+		int bound = INTS.loopBound(length);
+		for (; i < bound; i += INTS.length()) {
+			IntVector v = IntVector.fromArray(INTS, acc, accOffset + i);
+			// The curve needs a division per sample, so only blocks above the knee leave the vector path.
+			if (v.compare(VectorOperators.GT, knee).or(v.compare(VectorOperators.LT, -knee)).anyTrue()) {
+				PcmKernels.scalarSoftClip(acc, accOffset + i, dst, dstOffset + i, INTS.length(), knee);
+				continue;
+			}
+			v.convertShape(VectorOperators.I2S, SHORTS_PER_INT, 0).reinterpretAsShorts().intoArray(dst, dstOffset + i);
+		}
+		PcmKernels.scalarSoftClip(acc, accOffset + i, dst, dstOffset + i, length - i, knee);
+	}
+
+	static void pcm16leToShorts(byte[] src, int srcOffset, short[] dst, int dstOffset, int samples) {
+		int i = 0;
+		int bound = LITTLE_ENDIAN ? SHORTS.loopBound(samples) : 0;
+		for (; i < bound; i += SHORTS.length()) {
+			ByteVector.fromArray(BYTES, src, srcOffset + i * 2).reinterpretAsShorts()
+					.intoArray(dst, dstOffset + i);
+		}
+		PcmKernels.scalarPcm16leToShorts(src, srcOffset + i * 2, dst, dstOffset + i, samples - i);
+	}
+
+	static void shortsToPcm16le(short[] src, int srcOffset, byte[] dst, int dstOffset, int samples) {
+		int i = 0;
+		int bound = LITTLE_ENDIAN ? SHORTS.loopBound(samples) : 0;
+		for (; i < bound; i += SHORTS.length()) {
+			ShortVector.fromArray(SHORTS, src, srcOffset + i).reinterpretAsBytes()
+					.intoArray(dst, dstOffset + i * 2);
+		}
+		PcmKernels.scalarShortsToPcm16le(src, srcOffset + i, dst, dstOffset + i * 2, samples - i);
+	}
+
+	static void downmixStereo(short[] interleaved, int offset, short[] dst, int dstOffset, int frames) {
+		int framesPerVector = SHORTS.length() / 2;
+		int i = 0;
+		for (; i + framesPerVector <= frames; i += framesPerVector) {
+			ShortVector frame = ShortVector.fromArray(SHORTS, interleaved, offset + i * 2);
+			ShortVector swapped = frame.rearrange(SWAP_PAIRS);
+			// floor((l + r) / 2) without widening: (l & r) + ((l ^ r) >> 1)
+			frame.and(swapped).add(frame.lanewise(VectorOperators.XOR, swapped).lanewise(VectorOperators.ASHR, 1))
+					.compress(LEFT_LANES).intoArray(dst, dstOffset + i, LOWER_HALF);
+		}
+		PcmKernels.scalarDownmixStereo(interleaved, offset + i * 2, dst, dstOffset + i, frames - i);
+	}
+
+	static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+		FloatVector acc = FloatVector.zero(FLOATS);
+		int i = 0;
+		int bound = FLOATS.loopBound(length);
+		for (; i < bound; i += FLOATS.length()) {
+			FloatVector va = FloatVector.fromArray(FLOATS, a, aOffset + i);
+			FloatVector vb = FloatVector.fromArray(FLOATS, b, bOffset + i);
+			acc = va.fma(vb, acc);
+		}
+		return acc.reduceLanes(VectorOperators.ADD) + PcmKernels.scalarDot(a, aOffset + i, b, bOffset + i, length - i);
+	}
+}
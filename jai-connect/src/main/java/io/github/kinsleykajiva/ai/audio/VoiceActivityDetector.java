@@ -0,0 +1,20 @@
+package io.github.kinsleykajiva.ai.audio;
+
+/**
+ * Classifies chunks of linear PCM16 audio as speech or non-speech.
+ * Implementations may keep state between calls (noise floor estimates and the
+ * like) and are not required to be thread-safe.
+ */
+public interface VoiceActivityDetector {
+
+	/**
+	 * Returns whether the given chunk contains speech.
+	 */
+	boolean isSpeech(short[] pcm, int offset, int length);
+
+	/**
+	 * Clears any adaptive state.
+	 */
+	default void reset() {
+	}
+}
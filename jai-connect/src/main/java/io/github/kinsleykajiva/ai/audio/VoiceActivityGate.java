@@ -0,0 +1,162 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.util.Objects;
+
+/**
+ * Drops non-speech audio before it is encoded and sent.
+ * <p>
+ * Chunks classified as speech by the {@link VoiceActivityDetector} are passed
+ * through. After speech ends the gate stays open for a hangover period, so
+ * trailing syllables and the silence a server-side VAD needs to detect the end
+ * of a turn are still delivered. While closed, the most recent audio is kept
+ * in a pre-roll ring and flushed ahead of the next speech chunk so onsets are
+ * not clipped.
+ * <p>
+ * When the server performs turn detection, the hangover must be longer than
+ * the session's {@code silence_duration_ms}. Instances are not thread-safe.
+ */
+public final class VoiceActivityGate {
+
+	/**
+	 * Default pre-roll kept while the gate is closed.
+	 */
+	public static final int DEFAULT_PRE_ROLL_MS = 300;
+
+	/**
+	 * Default time the gate stays open after the last speech chunk.
+	 */
+	public static final int DEFAULT_HANGOVER_MS = 800;
+
+	private final VoiceActivityDetector detector;
+	private final int hangoverSamples;
+	private final short[] preRoll;
+	private int preRollStart;
+	private int preRollLength;
+	private int hangoverRemaining;
+	private boolean open;
+
+	private volatile long samplesIn;
+	private volatile long samplesDropped;
+
+	/**
+	 * Creates a gate with an {@link EnergyVoiceActivityDetector} and default
+	 * pre-roll and hangover.
+	 */
+	public VoiceActivityGate(int sampleRate) {
+		this(new EnergyVoiceActivityDetector(sampleRate), sampleRate, DEFAULT_PRE_ROLL_MS, DEFAULT_HANGOVER_MS);
+	}
+
+	/**
+	 * Creates a gate.
+	 *
+	 * @param detector   the detector used to classify chunks
+	 * @param sampleRate the sample rate of the audio passing through the gate
+	 * @param preRollMs  audio retained while closed and replayed on speech onset
+	 * @param hangoverMs time the gate stays open after the last speech chunk
+	 */
+	public VoiceActivityGate(VoiceActivityDetector detector, int sampleRate, int preRollMs, int hangoverMs) {
+		this.detector = Objects.requireNonNull(detector, "Detector cannot be null");
+		if (sampleRate <= 0 || preRollMs < 0 || hangoverMs < 0) {
+			throw new IllegalArgumentException("Sample rate must be positive and durations non-negative");
+		}
+		this.preRoll = new short[(int) ((long) sampleRate * preRollMs / 1000)];
+		this.hangoverSamples = (int) ((long) sampleRate * hangoverMs / 1000);
+	}
+
+	/**
+	 * Classifies a chunk and forwards whatever should be sent to {@code sink}:
+	 * nothing, the chunk itself, or the buffered pre-roll followed by the chunk.
+	 */
+	public void process(short[] pcm, int offset, int length, PcmSink sink) {
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		samplesIn += length;
+		boolean speech = detector.isSpeech(pcm, offset, length);
+		if (speech) {
+			if (!open) {
+				flushPreRoll(sink);
+				open = true;
+			}
+			hangoverRemaining = hangoverSamples;
+			sink.accept(pcm, offset, length);
+		} else if (open && hangoverRemaining > 0) {
+			hangoverRemaining -= length;
+			sink.accept(pcm, offset, length);
+		} else {
+			open = false;
+			samplesDropped += length;
+			retain(pcm, offset, length);
+		}
+	}
+
+	/**
+	 * Returns whether the gate is currently passing audio.
+	 */
+	public boolean isOpen() {
+		return open;
+	}
+
+	/**
+	 * Returns the total number of samples offered to the gate.
+	 */
+	public long getSamplesIn() {
+		return samplesIn;
+	}
+
+	/**
+	 * Returns the number of samples that were never forwarded. Samples that were
+	 * held as pre-roll and later flushed are not counted.
+	 */
+	public long getSamplesDropped() {
+		return samplesDropped;
+	}
+
+	/**
+	 * Closes the gate and discards pre-roll and detector state. Counters are
+	 * kept.
+	 */
+	public void reset() {
+		open = false;
+		hangoverRemaining = 0;
+		preRollStart = 0;
+		preRollLength = 0;
+		detector.reset();
+	}
+
+	private void retain(short[] pcm, int offset, int length) {
+		int capacity = preRoll.length;
+		if (capacity == 0) {
+			return;
+		}
+		if (length >= capacity) {
+			System.arraycopy(pcm, offset + length - capacity, preRoll, 0, capacity);
+			preRollStart = 0;
+			preRollLength = capacity;
+			return;
+		}
+		int writeAt = (preRollStart + preRollLength) % capacity;
+		int first = Math.min(length, capacity - writeAt);
+		System.arraycopy(pcm, offset, preRoll, writeAt, first);
+		System.arraycopy(pcm, offset + first, preRoll, 0, length - first);
+		int overflow = preRollLength + length - capacity;
+		if (overflow > 0) {
+			preRollStart = (preRollStart + overflow) % capacity;
+			preRollLength = capacity;
+		} else {
+			preRollLength += length;
+		}
+	}
+
+	private void flushPreRoll(PcmSink sink) {
+		if (preRollLength == 0) {
+			return;
+		}
+		samplesDropped -= preRollLength;
+		int first = Math.min(preRollLength, preRoll.length - preRollStart);
+		sink.accept(preRoll, preRollStart, first);
+		if (preRollLength > first) {
+			sink.accept(preRoll, 0, preRollLength - first);
+		}
+		preRollStart = 0;
+		preRollLength = 0;
+	}
+}
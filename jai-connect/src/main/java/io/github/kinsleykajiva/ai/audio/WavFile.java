@@ -0,0 +1,172 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Location and format of the sample data in a PCM WAV file.
+ * <p>
+ * Only the RIFF chunk headers are read, so the samples can be streamed or
+ * memory-mapped from {@link #getDataOffset()} without loading the file.
+ */
+public final class WavFile {
+	/**
+	 * Size of the header written by {@link #header}.
+	 */
+	public static final int HEADER_BYTES = 44;
+
+	private static final int PCM = 1;
+	private static final int EXTENSIBLE = 0xFFFE;
+
+	private final int sampleRate;
+	private final int channels;
+	private final int bitsPerSample;
+	private final long dataOffset;
+	private final long dataLength;
+
+	private WavFile(int sampleRate, int channels, int bitsPerSample, long dataOffset, long dataLength) {
+		this.sampleRate = sampleRate;
+		this.channels = channels;
+		this.bitsPerSample = bitsPerSample;
+		this.dataOffset = dataOffset;
+		this.dataLength = dataLength;
+	}
+
+	/**
+	 * Reads the header of a WAV file.
+	 *
+	 * @throws IOException if the file is not a PCM WAV file
+	 */
+	public static WavFile read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return read(channel);
+		}
+	}
+
+	/**
+	 * Reads the header of a WAV file from an open channel, without changing its
+	 * position.
+	 *
+	 * @throws IOException if the file is not a PCM WAV file
+	 */
+	public static WavFile read(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, header, 0);
+		if (!"RIFF".equals(fourCc(header, 0)) || !"WAVE".equals(fourCc(header, 8))) {
+			throw new IOException("Not a WAV file");
+		}
+		long size = channel.size();
+		long position = 12;
+		int format = -1;
+		int sampleRate = 0;
+		int channels = 0;
+		int bitsPerSample = 0;
+		ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		while (position + 8 <= size) {
+			chunk.clear();
+			readFully(channel, chunk, position);
+			String id = fourCc(chunk, 0);
+			long length = chunk.getInt(4) & 0xFFFFFFFFL;
+			long body = position + 8;
+			if ("fmt ".equals(id)) {
+				ByteBuffer fmt = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+				readFully(channel, fmt, body);
+				format = fmt.getShort(0) & 0xFFFF;
+				channels = fmt.getShort(2) & 0xFFFF;
+				sampleRate = fmt.getInt(4);
+				bitsPerSample = fmt.getShort(14) & 0xFFFF;
+			} else if ("data".equals(id)) {
+				if (format != PCM && format != EXTENSIBLE) {
+					throw new IOException("Unsupported WAV encoding: " + format);
+				}
+				// Streaming writers leave the size unset; the data then runs to the end
+				long available = size - body;
+				long dataLength = length == 0 || length == 0xFFFFFFFFL ? available : Math.min(length, available);
+				return new WavFile(sampleRate, channels, bitsPerSample, body, dataLength);
+			}
+			position = body + length + (length & 1);
+		}
+		throw new IOException("WAV file has no data chunk");
+	}
+
+	/**
+	 * Returns a 44-byte PCM WAV header for {@code dataBytes} bytes of samples.
+	 */
+	public static ByteBuffer header(int sampleRate, int channels, int bitsPerSample, long dataBytes) {
+		int size = (int) Math.min(dataBytes, 0xFFFFFFFFL - 36);
+		int blockAlign = channels * bitsPerSample / 8;
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + size)
+				.put("WAVE".getBytes(StandardCharsets.US_ASCII))
+				.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16)
+				.putShort((short) PCM)
+				.putShort((short) channels)
+				.putInt(sampleRate)
+				.putInt(sampleRate * blockAlign)
+				.putShort((short) blockAlign)
+				.putShort((short) bitsPerSample)
+				.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(size);
+		return header.flip();
+	}
+
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	public int getChannels() {
+		return channels;
+	}
+
+	public int getBitsPerSample() {
+		return bitsPerSample;
+	}
+
+	/**
+	 * Returns the size of one frame (a sample for every channel) in bytes.
+	 */
+	public int getBlockAlign() {
+		return channels * bitsPerSample / 8;
+	}
+
+	/**
+	 * Returns the file offset of the first sample.
+	 */
+	public long getDataOffset() {
+		return dataOffset;
+	}
+
+	/**
+	 * Returns the length of the sample data in bytes.
+	 */
+	public long getDataLength() {
+		return dataLength;
+	}
+
+	/**
+	 * Returns the duration of the audio in seconds.
+	 */
+	public double getDurationSeconds() {
+		return (double) (dataLength / getBlockAlign()) / sampleRate;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of WAV file");
+			}
+		}
+		buffer.flip();
+	}
+
+	private static String fourCc(ByteBuffer buffer, int offset) {
+		byte[] id = new byte[4];
+		buffer.get(offset, id);
+		return new String(id, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,138 @@
+package io.github.kinsleykajiva.ai.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RealtimeMetrics} kept in {@link LongAdder} counters and
+ * {@link LatencyHistogram}s, for logging, tests and scraping by hand.
+ * <p>
+ * Per-type counters are created on the first event of each type; afterwards
+ * recording is a map lookup and an uncontended add.
+ */
+public final class CountingRealtimeMetrics implements RealtimeMetrics {
+
+	private final ConcurrentHashMap<String, LongAdder> eventsReceived = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> eventsSent = new ConcurrentHashMap<>();
+	private final LongAdder bytesReceived = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	private final LongAccumulator maxSendQueueDepth = new LongAccumulator(Math::max, 0);
+	private final LongAdder bufferPoolHits = new LongAdder();
+	private final LongAdder bufferPoolMisses = new LongAdder();
+	private final LatencyHistogram handlerTime = new LatencyHistogram("handler_time");
+	private final LongAdder executorRejections = new LongAdder();
+	private final LongAdder reconnects = new LongAdder();
+	private volatile int sendQueueDepth;
+
+	@Override
+	public void eventReceived(String type, int length) {
+		eventsReceived.computeIfAbsent(type, key -> new LongAdder()).increment();
+		bytesReceived.add(length);
+	}
+
+	@Override
+	public void eventSent(String type, int bytes) {
+		eventsSent.computeIfAbsent(type, key -> new LongAdder()).increment();
+		bytesSent.add(bytes);
+	}
+
+	@Override
+	public void sendQueued(int depth) {
+		sendQueueDepth = depth;
+		maxSendQueueDepth.accumulate(depth);
+	}
+
+	@Override
+	public void bufferBorrowed(boolean pooled) {
+		(pooled ? bufferPoolHits : bufferPoolMisses).increment();
+	}
+
+	@Override
+	public void handlerExecuted(String type, long nanos) {
+		handlerTime.recordNanos(nanos);
+	}
+
+	@Override
+	public void executorRejected() {
+		executorRejections.increment();
+	}
+
+	@Override
+	public void reconnected() {
+		reconnects.increment();
+	}
+
+	/**
+	 * Returns the events received by type, sorted by type.
+	 */
+	public Map<String, Long> getEventsReceived() {
+		return snapshot(eventsReceived);
+	}
+
+	/**
+	 * Returns the events sent by type, sorted by type.
+	 */
+	public Map<String, Long> getEventsSent() {
+		return snapshot(eventsSent);
+	}
+
+	public long getBytesReceived() {
+		return bytesReceived.sum();
+	}
+
+	public long getBytesSent() {
+		return bytesSent.sum();
+	}
+
+	/**
+	 * Returns the send queue depth when an event was last queued.
+	 */
+	public int getSendQueueDepth() {
+		return sendQueueDepth;
+	}
+
+	public long getMaxSendQueueDepth() {
+		return maxSendQueueDepth.get();
+	}
+
+	public long getBufferPoolHits() {
+		return bufferPoolHits.sum();
+	}
+
+	public long getBufferPoolMisses() {
+		return bufferPoolMisses.sum();
+	}
+
+	/**
+	 * Returns the execution time of registered event handlers.
+	 */
+	public LatencyHistogram getHandlerTime() {
+		return handlerTime;
+	}
+
+	public long getExecutorRejections() {
+		return executorRejections.sum();
+	}
+
+	public long getReconnects() {
+		return reconnects.sum();
+	}
+
+	private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+		Map<String, Long> snapshot = new TreeMap<>();
+		counters.forEach((type, counter) -> snapshot.put(type, counter.sum()));
+		return Collections.unmodifiableMap(snapshot);
+	}
+
+	@Override
+	public String toString() {
+		return "RealtimeMetrics{received=" + getEventsReceived() + ", sent=" + getEventsSent() + ", bytesIn="
+				+ getBytesReceived() + ", bytesOut=" + getBytesSent() + ", maxSendQueue=" + getMaxSendQueueDepth()
+				+ ", poolHits=" + getBufferPoolHits() + ", poolMisses=" + getBufferPoolMisses() + ", " + handlerTime
+				+ ", rejections=" + getExecutorRejections() + ", reconnects=" + getReconnects() + "}";
+	}
+}
@@ -0,0 +1,152 @@
+package io.github.kinsleykajiva.ai.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in the style of HdrHistogram.
+ * <p>
+ * Values are recorded in nanoseconds. Each power of two is split into 32
+ * linear sub-buckets, so any recorded value is reported within about 3% of its
+ * true value across the whole {@code long} range, using a fixed 15 KB of
+ * counters. Recording is a single atomic increment and never allocates, so it
+ * is safe to call from I/O and audio threads.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Creates an empty histogram.
+	 *
+	 * @param name a label used by {@link #toString()} and exporters
+	 */
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the histogram label.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Records a latency in nanoseconds. Negative values are recorded as zero.
+	 */
+	public void recordNanos(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucketIndex(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Records the time elapsed since {@code startNanos}, as returned by
+	 * {@link System#nanoTime()}.
+	 */
+	public void recordSince(long startNanos) {
+		recordNanos(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the largest recorded value in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the mean of the recorded values in nanoseconds.
+	 */
+	public double getMeanNanos() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * Returns the value at the given percentile (0-100) in nanoseconds, reported
+	 * as the upper bound of the bucket containing it.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(bucketUpperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Clears all recorded values. Values recorded concurrently with a reset may be
+	 * partially lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{count=%d, p50=%.1fms, p90=%.1fms, p99=%.1fms, max=%.1fms}",
+				name, getCount(), toMillis(getValueAtPercentile(50)), toMillis(getValueAtPercentile(90)),
+				toMillis(getValueAtPercentile(99)), toMillis(getMaxNanos()));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return SUB_COUNT + (exponent - SUB_BITS) * SUB_COUNT + sub;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int exponent = (index - SUB_COUNT) / SUB_COUNT + SUB_BITS;
+		int sub = (index - SUB_COUNT) % SUB_COUNT;
+		int shift = exponent - SUB_BITS;
+		long lower = (long) (SUB_COUNT + sub) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
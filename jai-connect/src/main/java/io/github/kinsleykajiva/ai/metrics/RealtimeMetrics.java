@@ -0,0 +1,79 @@
+package io.github.kinsleykajiva.ai.metrics;
+
+/**
+ * Receives measurements from the internals of a realtime client: events in
+ * and out, send queue depth, buffer pool use, handler execution and
+ * connection churn.
+ * <p>
+ * Methods are called on I/O and handler threads, often once per audio chunk,
+ * so implementations must be thread-safe, must not block and should not
+ * allocate. Every method defaults to doing nothing and {@link #NOOP}, the
+ * default, overrides none of them, so the calls compile down to nothing once
+ * inlined. {@link CountingRealtimeMetrics} keeps in-process counters; to
+ * publish to Micrometer, Prometheus or similar, implement this interface
+ * over the registry's own counters, gauges and timers.
+ */
+public interface RealtimeMetrics {
+
+	/**
+	 * Metrics that are discarded.
+	 */
+	RealtimeMetrics NOOP = new RealtimeMetrics() {
+	};
+
+	/**
+	 * An event was received.
+	 *
+	 * @param type   the event type
+	 * @param length the length of the text frame in characters, which is its
+	 *               size in bytes for ASCII JSON
+	 */
+	default void eventReceived(String type, int length) {
+	}
+
+	/**
+	 * An event was written to the socket.
+	 *
+	 * @param type  the event type
+	 * @param bytes the encoded size of the event
+	 */
+	default void eventSent(String type, int bytes) {
+	}
+
+	/**
+	 * An event was queued for sending.
+	 *
+	 * @param depth the events waiting to be written, including this one
+	 */
+	default void sendQueued(int depth) {
+	}
+
+	/**
+	 * A send buffer was taken from the pool, or allocated because the pool was
+	 * empty.
+	 */
+	default void bufferBorrowed(boolean pooled) {
+	}
+
+	/**
+	 * A registered event handler ran.
+	 *
+	 * @param type  the event type
+	 * @param nanos the time the handler took
+	 */
+	default void handlerExecuted(String type, long nanos) {
+	}
+
+	/**
+	 * A task was rejected by the full handler executor and ran on the
+	 * submitting thread instead.
+	 */
+	default void executorRejected() {
+	}
+
+	/**
+	 * A connection was opened by a client that had been connected before.
+	 */
+	default void reconnected() {
+	}
+}
@@ -0,0 +1,26 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+import java.util.Objects;
+
+/**
+ * A chunk of mono 16-bit PCM audio.
+ *
+ * @param samples    the samples; owned by the frame
+ * @param sampleRate sample rate in Hz
+ */
+public record AudioFrame(short[] samples, int sampleRate) implements Frame {
+
+	public AudioFrame {
+		Objects.requireNonNull(samples, "Samples cannot be null");
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException("Sample rate must be positive");
+		}
+	}
+
+	/**
+	 * Returns the duration of the audio in milliseconds.
+	 */
+	public double durationMs() {
+		return samples.length * 1000.0 / sampleRate;
+	}
+}
@@ -0,0 +1,14 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+/**
+ * Marks the start and end of a pipeline's stream. Processors see these in
+ * order with data frames; after {@link Type#END} a processor stops.
+ */
+public record ControlFrame(Type type) implements Frame {
+	public static final ControlFrame START = new ControlFrame(Type.START);
+	public static final ControlFrame END = new ControlFrame(Type.END);
+
+	public enum Type {
+		START, END
+	}
+}
@@ -0,0 +1,11 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+/**
+ * A unit of data or control flowing through a {@link Pipeline}.
+ * <p>
+ * Frames are immutable once pushed: a processor must not modify a frame, or
+ * an array it carries, after handing it downstream. Applications may define
+ * their own frame types; processors forward frames they do not handle.
+ */
+public interface Frame {
+}
@@ -0,0 +1,266 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A stage of a {@link Pipeline}.
+ * <p>
+ * Each processor owns a bounded input queue and runs on its own thread,
+ * taking frames in order and handing results to the next stage with
+ * {@link #push}. A full queue blocks the stage feeding it, so a slow stage
+ * slows the stages before it instead of buffering without limit.
+ * <p>
+ * An interrupt reaching a processor clears its queue at once and starts a new
+ * generation: frames pushed afterwards by the processor thread while it is
+ * still handling a frame taken before the interrupt are dropped, so stale
+ * audio stops within one push. {@link #onInterrupt} is called on the
+ * interrupting thread to cancel work in progress.
+ */
+public abstract class FrameProcessor {
+	private static final Logger logger = LoggerFactory.getLogger(FrameProcessor.class);
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+	private static final long PUSH_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	private final String name;
+	private final LinkedBlockingDeque<Frame> queue;
+	private final AtomicLong generation = new AtomicLong();
+	private final LongAdder processed = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	private volatile FrameProcessor next;
+	private volatile Consumer<Frame> sink;
+	private volatile Thread thread;
+	private long frameGeneration;
+
+	protected FrameProcessor(String name) {
+		this(name, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * @param name          name used for the processor thread and logs
+	 * @param queueCapacity frames queued before upstream stages block
+	 */
+	protected FrameProcessor(String name, int queueCapacity) {
+		this.name = Objects.requireNonNull(name, "Name cannot be null");
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		}
+		this.queue = new LinkedBlockingDeque<>(queueCapacity);
+	}
+
+	/**
+	 * Handles a frame taken from the queue. Frames the processor does not
+	 * handle should be passed on with {@link #push}.
+	 */
+	protected abstract void processFrame(Frame frame) throws Exception;
+
+	/**
+	 * Called on the processor thread before the first frame.
+	 */
+	protected void onStart() throws Exception {
+	}
+
+	/**
+	 * Called on the processor thread after the last frame.
+	 */
+	protected void onStop() {
+	}
+
+	/**
+	 * Called on the interrupting thread after the queue has been cleared, to
+	 * cancel work in progress. Must be thread-safe.
+	 */
+	protected void onInterrupt() {
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the frames waiting in the input queue.
+	 */
+	public int getQueuedFrames() {
+		return queue.size();
+	}
+
+	public long getProcessedFrames() {
+		return processed.sum();
+	}
+
+	/**
+	 * Returns the frames discarded by interrupts, queued or stale.
+	 */
+	public long getDroppedFrames() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Returns the current generation, which each interrupt advances. Work
+	 * finishing on other threads can compare it with the generation it started
+	 * in to notice it has been interrupted.
+	 */
+	protected final long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Passes a frame to the next stage, blocking while its queue is full. May
+	 * be called from any thread; on the processor thread the frame is dropped
+	 * if an interrupt arrived since the current frame was taken. Control frames
+	 * are never dropped.
+	 *
+	 * @return whether the frame was passed on
+	 */
+	protected final boolean push(Frame frame) throws InterruptedException {
+		return push(frame, Thread.currentThread() == thread ? frameGeneration : -1);
+	}
+
+	/**
+	 * Passes a frame to the next stage unless an interrupt has arrived since
+	 * {@code generation}, also while blocked on a full queue. For output
+	 * produced on other threads, e.g. streaming callbacks, with the generation
+	 * read when the work began. Control frames are passed on regardless, so an
+	 * interrupt cannot lose the end of the stream.
+	 *
+	 * @param generation from {@link #getGeneration()}, or -1 to always pass
+	 *                   the frame on
+	 * @return whether the frame was passed on
+	 */
+	protected final boolean push(Frame frame, long generation) throws InterruptedException {
+		Objects.requireNonNull(frame, "Frame cannot be null");
+		if (frame instanceof InterruptFrame interrupt) {
+			pushInterrupt(interrupt);
+			return true;
+		}
+		FrameProcessor target = next;
+		boolean control = frame instanceof ControlFrame;
+		while (true) {
+			if (!control && generation >= 0 && generation != this.generation.get()) {
+				dropped.increment();
+				return false;
+			}
+			if (target == null) {
+				Consumer<Frame> output = sink;
+				if (output != null) {
+					output.accept(frame);
+				}
+				return true;
+			}
+			if (target.queue.offer(frame, PUSH_POLL_NANOS, TimeUnit.NANOSECONDS)) {
+				// An interrupt may have flushed the queue while the offer waited for room
+				if (!control && generation >= 0 && generation != this.generation.get()
+						&& target.queue.removeLastOccurrence(frame)) {
+					dropped.increment();
+					return false;
+				}
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Sends an interrupt to every stage after this one and to the pipeline
+	 * output, overtaking queued frames. This stage's queue is kept, but its
+	 * generation advances, so output it is still producing for earlier frames
+	 * is dropped as well.
+	 */
+	protected final void pushInterrupt(InterruptFrame frame) {
+		Objects.requireNonNull(frame, "Frame cannot be null");
+		generation.incrementAndGet();
+		FrameProcessor stage = next;
+		Consumer<Frame> output = sink;
+		while (stage != null) {
+			stage.interrupt();
+			output = stage.sink;
+			stage = stage.next;
+		}
+		if (output != null) {
+			output.accept(frame);
+		}
+	}
+
+	void link(FrameProcessor next, Consumer<Frame> sink) {
+		this.next = next;
+		this.sink = next == null ? sink : null;
+	}
+
+	void enqueue(Frame frame) throws InterruptedException {
+		queue.put(frame);
+	}
+
+	boolean offer(Frame frame) {
+		return queue.offer(frame);
+	}
+
+	void interrupt() {
+		generation.incrementAndGet();
+		List<Frame> queued = new ArrayList<>(queue.size());
+		queue.drainTo(queued);
+		for (int i = queued.size() - 1; i >= 0; i--) {
+			// Control frames survive so the pipeline can still stop
+			if (queued.get(i) instanceof ControlFrame && queue.offerFirst(queued.get(i))) {
+				queued.remove(i);
+			}
+		}
+		dropped.add(queued.size());
+		try {
+			onInterrupt();
+		} catch (RuntimeException e) {
+			logger.error("Interrupt handler of {} failed", name, e);
+		}
+	}
+
+	void run() {
+		thread = Thread.currentThread();
+		try {
+			onStart();
+		} catch (Exception e) {
+			logger.error("Processor {} failed to start", name, e);
+		}
+		try {
+			while (true) {
+				Frame frame = queue.take();
+				frameGeneration = generation.get();
+				if (frame instanceof ControlFrame control && control.type() == ControlFrame.Type.END) {
+					push(frame);
+					break;
+				}
+				try {
+					processFrame(frame);
+				} catch (InterruptedException e) {
+					throw e;
+				} catch (Exception e) {
+					logger.error("Processor {} failed on {}", name, frame.getClass().getSimpleName(), e);
+				}
+				processed.increment();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			try {
+				onStop();
+			} finally {
+				thread = null;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + "{queued=" + queue.size() + ", processed=" + processed.sum() + ", dropped=" + dropped.sum()
+				+ "}";
+	}
+}
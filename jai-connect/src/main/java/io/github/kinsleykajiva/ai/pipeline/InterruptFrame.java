@@ -0,0 +1,13 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+/**
+ * Signals that the user interrupted, e.g. by starting to speak over the bot.
+ * <p>
+ * Interrupts are not queued: they overtake every queued frame, flushing the
+ * queues of the processors they reach and discarding output those processors
+ * are still producing for earlier frames.
+ *
+ * @param reason short description for logs
+ */
+public record InterruptFrame(String reason) implements Frame {
+}
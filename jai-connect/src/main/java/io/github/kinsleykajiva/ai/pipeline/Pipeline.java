@@ -0,0 +1,176 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A chain of {@link FrameProcessor}s, e.g. transport input, speech-to-speech
+ * model, text-to-speech, transport output.
+ * <p>
+ * Frames queued into the pipeline pass through the processors in order; what
+ * the last processor pushes goes to the output consumer. Every processor runs
+ * on its own thread, by default a virtual thread, and stages are connected by
+ * their bounded input queues, so {@link #queue} blocks when the pipeline is
+ * saturated. {@link #interrupt} flushes every stage at once.
+ */
+public final class Pipeline implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(Pipeline.class);
+
+	private final List<FrameProcessor> processors;
+	private final Consumer<Frame> output;
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final AtomicBoolean started = new AtomicBoolean(false);
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+	private CompletableFuture<Void> done;
+
+	/**
+	 * Creates a pipeline that runs its processors on virtual threads.
+	 *
+	 * @param processors the stages, in order
+	 * @param output     receives the frames pushed by the last stage, on its
+	 *                   thread, or {@code null} to discard them
+	 */
+	public Pipeline(List<FrameProcessor> processors, Consumer<Frame> output) {
+		this(processors, output, null);
+	}
+
+	/**
+	 * @param processors the stages, in order
+	 * @param output     receives the frames pushed by the last stage, or
+	 *                   {@code null} to discard them
+	 * @param executor   runs the stages, one long-running task each; if
+	 *                   {@code null} a virtual thread per stage is used
+	 */
+	public Pipeline(List<FrameProcessor> processors, Consumer<Frame> output, ExecutorService executor) {
+		Objects.requireNonNull(processors, "Processors cannot be null");
+		if (processors.isEmpty()) {
+			throw new IllegalArgumentException("A pipeline needs at least one processor");
+		}
+		this.processors = List.copyOf(processors);
+		this.output = output;
+		this.ownsExecutor = executor == null;
+		this.executor = executor != null ? executor
+				: Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Pipeline-", 0).factory());
+		for (int i = 0; i < this.processors.size(); i++) {
+			FrameProcessor next = i + 1 < this.processors.size() ? this.processors.get(i + 1) : null;
+			this.processors.get(i).link(next, output);
+		}
+	}
+
+	/**
+	 * Starts every stage and sends {@link ControlFrame#START} through the
+	 * pipeline.
+	 */
+	public void start() {
+		if (!started.compareAndSet(false, true)) {
+			throw new IllegalStateException("Pipeline already started");
+		}
+		CompletableFuture<?>[] stages = new CompletableFuture<?>[processors.size()];
+		for (int i = 0; i < stages.length; i++) {
+			FrameProcessor processor = processors.get(i);
+			stages[i] = CompletableFuture.runAsync(() -> {
+				if (ownsExecutor) {
+					Thread.currentThread().setName(processor.getName());
+				}
+				processor.run();
+			}, executor);
+		}
+		done = CompletableFuture.allOf(stages);
+		if (!processors.get(0).offer(ControlFrame.START)) {
+			throw new IllegalStateException("Pipeline input queue is full");
+		}
+		logger.debug("Pipeline started with {} processors", processors.size());
+	}
+
+	/**
+	 * Queues a frame at the start of the pipeline, blocking while the first
+	 * stage's queue is full. Interrupt frames are applied immediately.
+	 */
+	public void queue(Frame frame) throws InterruptedException {
+		Objects.requireNonNull(frame, "Frame cannot be null");
+		if (frame instanceof InterruptFrame interrupt) {
+			interrupt(interrupt);
+			return;
+		}
+		processors.get(0).enqueue(frame);
+	}
+
+	/**
+	 * Queues a frame without blocking.
+	 *
+	 * @return {@code false} if the first stage's queue is full
+	 */
+	public boolean offer(Frame frame) {
+		Objects.requireNonNull(frame, "Frame cannot be null");
+		if (frame instanceof InterruptFrame interrupt) {
+			interrupt(interrupt);
+			return true;
+		}
+		return processors.get(0).offer(frame);
+	}
+
+	/**
+	 * Flushes every stage and discards output still being produced for
+	 * earlier frames, then passes the interrupt to the output.
+	 */
+	public void interrupt(InterruptFrame frame) {
+		Objects.requireNonNull(frame, "Frame cannot be null");
+		for (FrameProcessor processor : processors) {
+			processor.interrupt();
+		}
+		if (output != null) {
+			output.accept(frame);
+		}
+		logger.debug("Pipeline interrupted: {}", frame.reason());
+	}
+
+	/**
+	 * Sends {@link ControlFrame#END} after the queued frames.
+	 *
+	 * @return a future completing when every stage has stopped
+	 */
+	public CompletableFuture<Void> stop() throws InterruptedException {
+		if (!started.get()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		processors.get(0).enqueue(ControlFrame.END);
+		return done;
+	}
+
+	public List<FrameProcessor> getProcessors() {
+		return processors;
+	}
+
+	/**
+	 * Stops the stages without waiting for queued frames.
+	 */
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+		if (ownsExecutor) {
+			executor.shutdownNow();
+		} else if (done != null) {
+			// A shared executor is not ours to shut down: end the stages instead
+			for (FrameProcessor processor : processors) {
+				processor.interrupt();
+				processor.offer(ControlFrame.END);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Pipeline" + processors;
+	}
+}
@@ -0,0 +1,14 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+import java.util.Objects;
+
+/**
+ * Text to be spoken or sent to a model, e.g. a user message or a sentence of
+ * a reply.
+ */
+public record TextFrame(String text) implements Frame {
+
+	public TextFrame {
+		Objects.requireNonNull(text, "Text cannot be null");
+	}
+}
@@ -0,0 +1,11 @@
+package io.github.kinsleykajiva.ai.pipeline;
+
+/**
+ * Transcribed user speech.
+ *
+ * @param itemId  conversation item the speech belongs to
+ * @param text    a delta of the transcript, or the whole transcript when final
+ * @param isFinal whether this is the completed transcript of the item
+ */
+public record TranscriptionFrame(String itemId, String text, boolean isFinal) implements Frame {
+}
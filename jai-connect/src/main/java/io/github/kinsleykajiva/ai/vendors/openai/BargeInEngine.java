@@ -0,0 +1,139 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.audio.PlayoutBuffer;
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Interrupts the assistant when the user starts speaking.
+ * <p>
+ * Tracks the active response and the output item being received on the
+ * WebSocket listener thread. On {@code input_audio_buffer.speech_started} it
+ * flushes the local playout buffer, then hands the client a single prioritized
+ * burst of {@code response.cancel}, {@code output_audio_buffer.clear} and
+ * {@code conversation.item.truncate}, with {@code audio_end_ms} taken from the
+ * playout buffer's played position. Without a playout buffer the amount of
+ * audio received for the item is used instead, which overstates what was heard
+ * by however much the application had buffered.
+ */
+final class BargeInEngine {
+	private static final Logger logger = LoggerFactory.getLogger(BargeInEngine.class);
+
+	private final AudioFormats outputFormat;
+	private final Supplier<String> eventIds;
+	private final BiConsumer<List<JSONObject>, Runnable> burstSender;
+	private final LatencyHistogram interruptLatency = new LatencyHistogram("interrupt-to-silence");
+
+	// Written and read on the WebSocket listener thread only
+	private String activeResponseId;
+	private String audioItemId;
+	private int audioContentIndex;
+	private long audioReceivedBytes;
+	private volatile long interruptions;
+
+	/**
+	 * @param outputFormat the session output audio format
+	 * @param eventIds     supplies client event ids
+	 * @param burstSender  sends events ahead of the regular queue, running the
+	 *                     callback (if any) once the last one is on the wire
+	 */
+	BargeInEngine(AudioFormats outputFormat, Supplier<String> eventIds,
+			BiConsumer<List<JSONObject>, Runnable> burstSender) {
+		this.outputFormat = outputFormat;
+		this.eventIds = eventIds;
+		this.burstSender = burstSender;
+	}
+
+	LatencyHistogram getInterruptLatency() {
+		return interruptLatency;
+	}
+
+	long getInterruptions() {
+		return interruptions;
+	}
+
+	void onResponseCreated(String responseId) {
+		activeResponseId = responseId;
+	}
+
+	void onResponseDone(String responseId) {
+		if (responseId == null || responseId.equals(activeResponseId)) {
+			activeResponseId = null;
+		}
+	}
+
+	void onAudioDelta(String itemId, int contentIndex, String base64Audio) {
+		if (!itemId.equals(audioItemId) || contentIndex != audioContentIndex) {
+			audioItemId = itemId;
+			audioContentIndex = contentIndex;
+			audioReceivedBytes = 0;
+		}
+		int length = base64Audio.length();
+		int padding = length > 0 && base64Audio.charAt(length - 1) == '='
+				? (length > 1 && base64Audio.charAt(length - 2) == '=' ? 2 : 1)
+				: 0;
+		audioReceivedBytes += length / 4 * 3 - padding;
+	}
+
+	/**
+	 * @return whether an interruption was performed
+	 */
+	boolean onSpeechStarted(PlayoutBuffer playout) {
+		long startNanos = System.nanoTime();
+		String responseId = activeResponseId;
+		boolean playing = playout != null && playout.getDepthSamples() > 0;
+		if (responseId == null && !playing) {
+			return false;
+		}
+
+		String itemId = null;
+		int contentIndex = 0;
+		long audioEndMs = 0;
+		Runnable onSilenced = null;
+		if (playout != null) {
+			PlayoutBuffer.PlayoutPosition position = playout.getPlayedPosition();
+			playout.flush(() -> interruptLatency.recordSince(startNanos));
+			if (position != null && (playing || position.itemId().equals(audioItemId))) {
+				itemId = position.itemId();
+				contentIndex = position.contentIndex();
+				audioEndMs = position.playedMs();
+			}
+		} else if (audioItemId != null) {
+			itemId = audioItemId;
+			contentIndex = audioContentIndex;
+			audioEndMs = audioReceivedBytes / outputFormat.getBytesPerSample() * 1000 / outputFormat.getSampleRate();
+			onSilenced = () -> interruptLatency.recordSince(startNanos);
+		}
+
+		List<JSONObject> burst = new ArrayList<>(3);
+		if (responseId != null) {
+			burst.add(new JSONObject()
+					.put("type", "response.cancel")
+					.put("event_id", eventIds.get())
+					.put("response_id", responseId));
+			activeResponseId = null;
+		}
+		burst.add(new JSONObject()
+				.put("type", "output_audio_buffer.clear")
+				.put("event_id", eventIds.get()));
+		if (itemId != null) {
+			burst.add(new JSONObject()
+					.put("type", "conversation.item.truncate")
+					.put("event_id", eventIds.get())
+					.put("item_id", itemId)
+					.put("content_index", contentIndex)
+					.put("audio_end_ms", audioEndMs));
+		}
+		burstSender.accept(burst, onSilenced);
+		interruptions++;
+		logger.debug("Barge-in: cancelled {} and truncated {} at {}ms", responseId, itemId, audioEndMs);
+		return true;
+	}
+}
@@ -0,0 +1,169 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when a slow TTS request gets a second, identical hedge request.
+ * <p>
+ * A hedge is sent if the first request has not received response headers
+ * within the hedge delay. The delay is either fixed or adaptive: a percentile
+ * of the observed time to headers, so only the slowest requests are hedged.
+ * Hedges are rate limited by a budget that grows by {@code maxHedgeRatio} per
+ * request, so a slow backend cannot double the load. Whichever request
+ * receives headers first wins and the other is cancelled.
+ */
+public final class HedgingPolicy {
+    private static final long UNIT = 1000;
+    private static final int DEFAULT_BURST = 10;
+    private static final int MIN_SAMPLES = 20;
+
+    private final Duration fixedDelay;
+    private final double percentile;
+    private final Duration minDelay;
+    private final long creditPerRequest;
+    private final long maxCredit;
+
+    private final AtomicLong credit;
+    private final LatencyHistogram timeToHeaders = new LatencyHistogram("tts-time-to-headers");
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    private HedgingPolicy(Duration fixedDelay, double percentile, Duration minDelay, double maxHedgeRatio) {
+        if (maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("Max hedge ratio must be between 0 and 1");
+        }
+        this.fixedDelay = fixedDelay;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.creditPerRequest = Math.round(maxHedgeRatio * UNIT);
+        this.maxCredit = DEFAULT_BURST * UNIT;
+        this.credit = new AtomicLong(creditPerRequest == 0 ? 0 : UNIT);
+    }
+
+    /**
+     * Hedges requests that have not received headers after a fixed delay.
+     *
+     * @param delay         time to wait for headers before hedging
+     * @param maxHedgeRatio maximum fraction of requests that may be hedged
+     */
+    public static HedgingPolicy fixed(Duration delay, double maxHedgeRatio) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("Hedge delay must not be negative");
+        }
+        return new HedgingPolicy(delay, 0, delay, maxHedgeRatio);
+    }
+
+    /**
+     * Hedges requests slower than the given percentile of the observed time to
+     * headers, e.g. 95 to hedge the slowest 5%. Until enough requests have been
+     * observed, and whenever the percentile is lower, {@code minDelay} is used.
+     *
+     * @param percentile    percentile of time to headers (0-100)
+     * @param minDelay      lower bound of the hedge delay
+     * @param maxHedgeRatio maximum fraction of requests that may be hedged
+     */
+    public static HedgingPolicy adaptive(double percentile, Duration minDelay, double maxHedgeRatio) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("Minimum delay must not be negative");
+        }
+        return new HedgingPolicy(null, percentile, minDelay, maxHedgeRatio);
+    }
+
+    /**
+     * Returns how long to wait for headers before hedging.
+     */
+    public Duration getHedgeDelay() {
+        if (fixedDelay != null) {
+            return fixedDelay;
+        }
+        if (timeToHeaders.getCount() < MIN_SAMPLES) {
+            return minDelay;
+        }
+        long nanos = timeToHeaders.getValueAtPercentile(percentile);
+        return nanos > minDelay.toNanos() ? Duration.ofNanos(nanos) : minDelay;
+    }
+
+    void onRequest() {
+        requests.increment();
+        if (creditPerRequest > 0) {
+            credit.accumulateAndGet(creditPerRequest, (current, add) -> Math.min(maxCredit, current + add));
+        }
+    }
+
+    /**
+     * Takes one hedge from the budget, returning {@code false} if it is spent.
+     */
+    boolean tryHedge() {
+        long current;
+        do {
+            current = credit.get();
+            if (current < UNIT) {
+                suppressed.increment();
+                return false;
+            }
+        } while (!credit.compareAndSet(current, current - UNIT));
+        hedges.increment();
+        return true;
+    }
+
+    void onHeaders(long nanos, boolean hedgeWon) {
+        timeToHeaders.recordNanos(nanos);
+        if (hedgeWon) {
+            hedgeWins.increment();
+        }
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of hedges that received headers before the original
+     * request.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Returns the number of hedges skipped because the budget was spent.
+     */
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    /**
+     * Returns the fraction of requests that were hedged.
+     */
+    public double getHedgeRate() {
+        long total = requests.sum();
+        return total == 0 ? 0 : (double) hedges.sum() / total;
+    }
+
+    /**
+     * Returns the histogram of time to headers of the winning requests.
+     */
+    public LatencyHistogram getTimeToHeaders() {
+        return timeToHeaders;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HedgingPolicy{requests=%d, hedges=%d, hedgeWins=%d, suppressed=%d, delay=%dms, %s}",
+                getRequests(), getHedges(), getHedgeWins(), getSuppressed(), getHedgeDelay().toMillis(),
+                timeToHeaders);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Builds a {@code multipart/form-data} request body whose file parts are
+ * streamed from disk or a channel as the request is sent, so uploads never
+ * hold the audio in heap.
+ */
+final class MultipartBody {
+    private final String boundary = "jai-" + UUID.randomUUID().toString().replace("-", "");
+    private final List<HttpRequest.BodyPublisher> parts = new ArrayList<>();
+
+    String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    MultipartBody field(String name, String value) {
+        if (value != null) {
+            parts.add(text("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                    + value + "\r\n"));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a file part streamed from {@code length} bytes of {@code path}
+     * starting at {@code offset}, preceded by an optional prefix such as a
+     * rewritten WAV header.
+     */
+    MultipartBody file(String name, String fileName, String contentType, ByteBuffer prefix, Path path, long offset,
+            long length) {
+        parts.add(fileHeader(name, fileName, contentType));
+        if (prefix != null) {
+            byte[] bytes = new byte[prefix.remaining()];
+            prefix.duplicate().get(bytes);
+            parts.add(HttpRequest.BodyPublishers.ofByteArray(bytes));
+        }
+        Supplier<InputStream> stream = () -> regionStream(path, offset, length);
+        parts.add(HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(stream), length));
+        parts.add(text("\r\n"));
+        return this;
+    }
+
+    /**
+     * Adds a file part read from a channel of unknown length; the request is
+     * then sent with chunked transfer encoding. The channel can only be read
+     * once, so the request must not be retried.
+     */
+    MultipartBody file(String name, String fileName, String contentType, ReadableByteChannel channel) {
+        parts.add(fileHeader(name, fileName, contentType));
+        parts.add(HttpRequest.BodyPublishers.ofInputStream(() -> new FilterInputStream(Channels.newInputStream(channel)) {
+            @Override
+            public void close() {
+                // The caller owns the channel
+            }
+        }));
+        parts.add(text("\r\n"));
+        return this;
+    }
+
+    HttpRequest.BodyPublisher build() {
+        List<HttpRequest.BodyPublisher> all = new ArrayList<>(parts);
+        all.add(text("--" + boundary + "--\r\n"));
+        return HttpRequest.BodyPublishers.concat(all.toArray(HttpRequest.BodyPublisher[]::new));
+    }
+
+    private HttpRequest.BodyPublisher fileHeader(String name, String fileName, String contentType) {
+        return text("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                + fileName.replace("\"", "") + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+    }
+
+    private static HttpRequest.BodyPublisher text(String value) {
+        return HttpRequest.BodyPublishers.ofByteArray(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream regionStream(Path path, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            return new InputStream() {
+                private long remaining = length;
+
+                @Override
+                public int read() throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int b = in.read();
+                    if (b >= 0) {
+                        remaining--;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int read = in.read(buffer, off, (int) Math.min(len, remaining));
+                    if (read > 0) {
+                        remaining -= read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + path, e);
+        }
+    }
+}
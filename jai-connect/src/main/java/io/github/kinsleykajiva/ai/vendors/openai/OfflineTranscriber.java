@@ -0,0 +1,375 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.audio.EnergyVoiceActivityDetector;
+import io.github.kinsleykajiva.ai.audio.WavFile;
+import io.github.kinsleykajiva.ai.vendors.openai.models.InputAudioBufferCommittedEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.models.InputAudioTranscriptionCompletedEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.models.InputAudioTranscriptionFailedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transcribes recorded audio faster than real time over several realtime
+ * transcription sessions.
+ * <p>
+ * The WAV file is memory-mapped and scanned with an energy voice activity
+ * detector to cut it into segments at pauses, so no word is split between
+ * sessions. Each of the {@code sessions} connections, configured for manual
+ * turn detection, takes the next segment from a shared queue, appends its
+ * audio as fast as the socket drains rather than at capture pace, and commits
+ * it. Each committed item is transcribed by the server while the next segment
+ * is already uploading. Segments without speech are skipped. Transcripts are
+ * reassembled by their offset in the file.
+ */
+public final class OfflineTranscriber {
+    private static final Logger logger = LoggerFactory.getLogger(OfflineTranscriber.class);
+
+    private static final int FRAME_MS = 10;
+    private static final int MIN_SILENCE_MS = 300;
+    private static final int TARGET_SEGMENT_MS = 10_000;
+    private static final int MAX_SEGMENT_MS = 30_000;
+    private static final int MIN_SEGMENT_MS = 1_000;
+    // 500 ms of 24 kHz PCM16 keeps each append event inside the client's 64 KB send buffers
+    private static final int APPEND_MS = 500;
+    private static final int MAX_PENDING_SENDS = 8;
+    private static final long SCAN_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long TRANSCRIPT_TIMEOUT_SECONDS = 120;
+
+    private final OpenAIConfig config;
+    private final OpenAITransport transport;
+    private final int sessions;
+
+    /**
+     * @param config    API credentials and transcription model; the mode and
+     *                  turn detection are overridden
+     * @param transport transport the sessions connect through
+     * @param sessions  number of parallel realtime sessions
+     */
+    public OfflineTranscriber(OpenAIConfig config, OpenAITransport transport, int sessions) {
+        Objects.requireNonNull(config, "OpenAIConfig cannot be null");
+        this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+        if (sessions <= 0) {
+            throw new IllegalArgumentException("Session count must be positive");
+        }
+        this.config = new OpenAIConfig(config.tcpResourceLink(), config.apiKey(), AudioFormats.PCM_24KHZ_MONO,
+                AudioFormats.PCM_24KHZ_MONO, RealtimeMode.TRANSCRIPTION, config.transcriptionModel(),
+                TurnDetectionMode.MANUAL);
+        this.sessions = sessions;
+    }
+
+    /**
+     * Result of an offline transcription.
+     *
+     * @param text         the transcript in file order
+     * @param segments     transcribed segments with their position in the file
+     * @param audioSeconds duration of the audio
+     * @param wallTime     time taken to transcribe it
+     */
+    public record Result(String text, List<TranscriptSegment> segments, double audioSeconds, Duration wallTime) {
+
+        /**
+         * Returns how many times faster than real time the audio was
+         * transcribed.
+         */
+        public double speedUp() {
+            double seconds = wallTime.toNanos() / 1e9;
+            return seconds <= 0 ? 0 : audioSeconds / seconds;
+        }
+    }
+
+    /**
+     * Transcribes a 16-bit PCM WAV file of any rate and channel count. Runs on
+     * a thread per session; the future completes once every segment has been
+     * transcribed and fails if any segment fails.
+     */
+    public CompletableFuture<Result> transcribe(Path file) {
+        long startNanos = System.nanoTime();
+        WavFile wav;
+        List<Segment> segments;
+        try {
+            wav = WavFile.read(file);
+            if (wav.getBitsPerSample() != 16) {
+                throw new IOException("Only 16-bit PCM WAV files are supported");
+            }
+            segments = segment(file, wav);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read " + file, e));
+        }
+        int workers = Math.min(sessions, Math.max(1, segments.size()));
+        logger.info("Transcribing {} ({} s) as {} segments over {} sessions", file.getFileName(),
+                String.format("%.1f", wav.getDurationSeconds()), segments.size(), workers);
+
+        ConcurrentLinkedQueue<Segment> queue = new ConcurrentLinkedQueue<>(segments);
+        ExecutorService threads = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "OpenAI-OfflineTranscriber-" + System.nanoTime());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletableFuture<?>[] sessionsDone = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            sessionsDone[i] = CompletableFuture.runAsync(() -> runSession(file, wav, queue), threads);
+        }
+        return CompletableFuture.allOf(sessionsDone)
+                .thenApply(done -> {
+                    List<TranscriptSegment> transcript = new ArrayList<>();
+                    StringBuilder text = new StringBuilder();
+                    segments.sort(Comparator.comparingLong(segment -> segment.startFrame));
+                    for (Segment segment : segments) {
+                        String segmentText = segment.transcript.join().trim();
+                        if (segmentText.isEmpty()) {
+                            continue;
+                        }
+                        transcript.add(new TranscriptSegment(segment.startSeconds(wav), segment.endSeconds(wav),
+                                segmentText, null));
+                        if (text.length() > 0) {
+                            text.append(' ');
+                        }
+                        text.append(segmentText);
+                    }
+                    Result result = new Result(text.toString(), transcript, wav.getDurationSeconds(),
+                            Duration.ofNanos(System.nanoTime() - startNanos));
+                    logger.info("Transcribed {} s of audio in {} ms ({}x real time)",
+                            String.format("%.1f", result.audioSeconds()), result.wallTime().toMillis(),
+                            String.format("%.1f", result.speedUp()));
+                    return result;
+                })
+                .whenComplete((result, throwable) -> threads.shutdown());
+    }
+
+    private void runSession(Path file, WavFile wav, ConcurrentLinkedQueue<Segment> queue) {
+        Map<String, Segment> byItem = new ConcurrentHashMap<>();
+        List<Segment> mine = new ArrayList<>();
+        try (OpenAIRealtimeClient client = new OpenAIRealtimeClient(config, transport);
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CompletableFuture<?>[] committed = new CompletableFuture<?>[1];
+            Segment[] awaitingCommit = new Segment[1];
+            client.registerEventHandler("input_audio_buffer.committed", event -> {
+                Segment segment;
+                synchronized (awaitingCommit) {
+                    segment = awaitingCommit[0];
+                    awaitingCommit[0] = null;
+                }
+                new InputAudioBufferCommittedEvent(event.getRawEvent()).getItemId().ifPresent(itemId -> {
+                    if (segment != null) {
+                        byItem.put(itemId, segment);
+                        committed[0].complete(null);
+                    }
+                });
+            });
+            client.registerEventHandler("conversation.item.input_audio_transcription.completed", event -> {
+                InputAudioTranscriptionCompletedEvent completed = new InputAudioTranscriptionCompletedEvent(
+                        event.getRawEvent());
+                completed.getItemId().map(byItem::remove).ifPresent(
+                        segment -> segment.transcript.complete(completed.getTranscript().orElse("")));
+            });
+            client.registerEventHandler("conversation.item.input_audio_transcription.failed", event -> {
+                InputAudioTranscriptionFailedEvent failed = new InputAudioTranscriptionFailedEvent(
+                        event.getRawEvent());
+                failed.getItemId().map(byItem::remove).ifPresent(segment -> segment.transcript.completeExceptionally(
+                        new IllegalStateException("Transcription failed at " + segment.startSeconds(wav) + " s")));
+            });
+            client.connect().join();
+
+            short[] samples = new short[wav.getSampleRate() * APPEND_MS / 1000 * wav.getChannels()];
+            short[] mono = new short[wav.getSampleRate() * APPEND_MS / 1000];
+            Segment segment;
+            while ((segment = queue.poll()) != null) {
+                mine.add(segment);
+                if (segment.endSeconds(wav) - segment.startSeconds(wav) < 0.1) {
+                    // Too short to commit
+                    segment.transcript.complete("");
+                    continue;
+                }
+                appendSegment(client, channel, wav, segment, samples, mono);
+                // Only one commit is outstanding, so the next committed event belongs to this segment
+                CompletableFuture<Void> commit = new CompletableFuture<>();
+                synchronized (awaitingCommit) {
+                    awaitingCommit[0] = segment;
+                    committed[0] = commit;
+                }
+                client.getAudioBufferManager().commitBuffer().join();
+                commit.orTimeout(TRANSCRIPT_TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+            }
+            CompletableFuture.allOf(mine.stream().map(s -> s.transcript).toArray(CompletableFuture[]::new))
+                    .orTimeout(TRANSCRIPT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+        } catch (IOException e) {
+            fail(mine, queue, e);
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            fail(mine, queue, e);
+            throw e;
+        }
+    }
+
+    private static void fail(List<Segment> mine, ConcurrentLinkedQueue<Segment> queue, Throwable cause) {
+        mine.forEach(segment -> segment.transcript.completeExceptionally(cause));
+        // Leave the rest to the other sessions
+        logger.error("Offline transcription session failed with {} segments left in the queue", queue.size(), cause);
+    }
+
+    /**
+     * Streams a segment from the mapped file, pausing whenever the client's
+     * send queue backs up so audio goes out as fast as the socket drains.
+     */
+    private static void appendSegment(OpenAIRealtimeClient client, FileChannel channel, WavFile wav, Segment segment,
+            short[] samples, short[] mono) throws IOException {
+        int channels = wav.getChannels();
+        int blockAlign = wav.getBlockAlign();
+        long offset = wav.getDataOffset() + segment.startFrame * blockAlign;
+        long length = (segment.endFrame - segment.startFrame) * blockAlign;
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        ShortBuffer pcm = mapped.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        while (pcm.hasRemaining()) {
+            int frames = Math.min(mono.length, pcm.remaining() / channels);
+            if (frames == 0) {
+                break;
+            }
+            pcm.get(samples, 0, frames * channels);
+            short[] chunk = channels == 1 ? samples : downmix(samples, frames, channels, mono);
+            while (client.getPendingSendEvents() > MAX_PENDING_SENDS) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            client.getAudioBufferManager().appendPcm16(chunk, 0, frames, wav.getSampleRate()).join();
+        }
+    }
+
+    private static short[] downmix(short[] interleaved, int frames, int channels, short[] mono) {
+        for (int frame = 0, i = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int c = 0; c < channels; c++) {
+                sum += interleaved[i++];
+            }
+            mono[frame] = (short) (sum / channels);
+        }
+        return mono;
+    }
+
+    /**
+     * Cuts the file into segments at pauses: a segment ends in the middle of
+     * the first pause after the target length, or of the last pause before the
+     * maximum length, or at the maximum length if there is no pause.
+     */
+    private static List<Segment> segment(Path file, WavFile wav) throws IOException {
+        int rate = wav.getSampleRate();
+        int channels = wav.getChannels();
+        int blockAlign = wav.getBlockAlign();
+        int frameSamples = rate * FRAME_MS / 1000;
+        long totalSamples = wav.getDataLength() / blockAlign;
+        int frameCount = (int) ((totalSamples + frameSamples - 1) / frameSamples);
+
+        BitSet speech = new BitSet(frameCount);
+        EnergyVoiceActivityDetector detector = new EnergyVoiceActivityDetector(rate);
+        short[] interleaved = new short[frameSamples * channels];
+        short[] mono = new short[frameSamples];
+        long windowBytes = SCAN_WINDOW_BYTES / ((long) frameSamples * blockAlign) * frameSamples * blockAlign;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int frame = 0;
+            for (long position = 0; position < totalSamples * blockAlign; position += windowBytes) {
+                long length = Math.min(windowBytes, totalSamples * blockAlign - position);
+                ShortBuffer pcm = channel.map(FileChannel.MapMode.READ_ONLY, wav.getDataOffset() + position, length)
+                        .order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+                while (pcm.hasRemaining()) {
+                    int samples = Math.min(frameSamples, pcm.remaining() / channels);
+                    if (samples == 0) {
+                        break;
+                    }
+                    pcm.get(interleaved, 0, samples * channels);
+                    short[] frameAudio = channels == 1 ? interleaved : downmix(interleaved, samples, channels, mono);
+                    if (detector.isSpeech(frameAudio, 0, samples)) {
+                        speech.set(frame);
+                    }
+                    frame++;
+                }
+            }
+        }
+
+        List<Integer> cuts = new ArrayList<>();
+        int minSilence = MIN_SILENCE_MS / FRAME_MS;
+        for (int start = speech.nextClearBit(0); start < frameCount; ) {
+            int end = Math.min(frameCount, speech.nextSetBit(start) < 0 ? frameCount : speech.nextSetBit(start));
+            if (end - start >= minSilence) {
+                cuts.add((start + end) / 2);
+            }
+            start = end >= frameCount ? frameCount : speech.nextClearBit(end);
+        }
+
+        int target = TARGET_SEGMENT_MS / FRAME_MS;
+        int max = MAX_SEGMENT_MS / FRAME_MS;
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        int next = 0;
+        while (start < frameCount) {
+            int end = Math.min(frameCount, start + max);
+            int lastBefore = -1;
+            while (next < cuts.size() && cuts.get(next) <= start) {
+                next++;
+            }
+            for (int i = next; i < cuts.size() && cuts.get(i) <= start + max; i++) {
+                lastBefore = cuts.get(i);
+                if (cuts.get(i) >= start + target) {
+                    break;
+                }
+            }
+            if (end < frameCount && lastBefore > start) {
+                end = lastBefore;
+            }
+            int firstSpeech = speech.nextSetBit(start);
+            if (firstSpeech >= 0 && firstSpeech < end) {
+                long startSample = (long) start * frameSamples;
+                long endSample = Math.min(totalSamples, (long) end * frameSamples);
+                Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+                // The server rejects commits shorter than 100 ms, so fold short tails into the previous segment
+                if (end - start < MIN_SEGMENT_MS / FRAME_MS && last != null && last.endFrame == startSample) {
+                    segments.set(segments.size() - 1, new Segment(last.startFrame, endSample));
+                } else {
+                    segments.add(new Segment(startSample, endSample));
+                }
+            }
+            start = end;
+        }
+        return segments;
+    }
+
+    private static final class Segment {
+        private final long startFrame;
+        private final long endFrame;
+        private final CompletableFuture<String> transcript = new CompletableFuture<>();
+
+        Segment(long startFrame, long endFrame) {
+            this.startFrame = startFrame;
+            this.endFrame = endFrame;
+        }
+
+        double startSeconds(WavFile wav) {
+            return (double) startFrame / wav.getSampleRate();
+        }
+
+        double endSeconds(WavFile wav) {
+            return (double) endFrame / wav.getSampleRate();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Thrown when an OpenAI REST endpoint answers with a non-success status.
+ * Carries the status, the error body and any server-provided retry delay so
+ * callers can tell rate limiting and transient failures from bad requests.
+ */
+public class OpenAIApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final int statusCode;
+    private final String responseBody;
+    private final Duration retryAfter;
+
+    public OpenAIApiException(String message, int statusCode, String responseBody, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Creates an exception from a failed response, reading the retry delay from
+     * {@code Retry-After}, {@code retry-after-ms} or, for rate limits, the
+     * {@code x-ratelimit-reset-requests} header.
+     */
+    public static OpenAIApiException fromResponse(String message, int statusCode, HttpHeaders headers,
+            String responseBody) {
+        return new OpenAIApiException(message + ": " + responseBody, statusCode, responseBody, retryAfter(headers));
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Returns the delay the server asked for before retrying, if any.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    /**
+     * Returns whether the request may succeed if repeated: rate limiting
+     * (429), request timeout (408) or a server error.
+     */
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 408 || statusCode >= 500;
+    }
+
+    static Duration retryAfter(HttpHeaders headers) {
+        Optional<String> millis = headers.firstValue("retry-after-ms");
+        if (millis.isPresent()) {
+            try {
+                return Duration.ofMillis((long) Double.parseDouble(millis.get().trim()));
+            } catch (NumberFormatException ignored) {
+                // Fall through to the other headers
+            }
+        }
+        Optional<String> retryAfter = headers.firstValue("retry-after");
+        if (retryAfter.isPresent()) {
+            String value = retryAfter.get().trim();
+            try {
+                return Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration until = Duration.between(ZonedDateTime.now(),
+                            ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return until.isNegative() ? Duration.ZERO : until;
+                } catch (DateTimeParseException ignored) {
+                    // Fall through to the rate limit headers
+                }
+            }
+        }
+        return headers.firstValue("x-ratelimit-reset-requests")
+                .or(() -> headers.firstValue("x-ratelimit-reset-tokens"))
+                .map(OpenAIApiException::parseResetDuration)
+                .orElse(null);
+    }
+
+    /**
+     * Parses the compact durations used by the rate limit headers, e.g.
+     * {@code 20ms}, {@code 1s} or {@code 6m0.5s}.
+     */
+    static Duration parseResetDuration(String value) {
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double millis = 0;
+        boolean found = false;
+        while (matcher.find()) {
+            found = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1000;
+                default -> amount;
+            };
+        }
+        return found ? Duration.ofMillis((long) Math.ceil(millis)) : null;
+    }
+}
@@ -6,11 +6,25 @@ public record OpenAIConfig(
         AudioFormats inputAudioFormat,
         AudioFormats outputAudioFormat,
         RealtimeMode mode,
-        String transcriptionModel) {
+        String transcriptionModel,
+        TurnDetectionMode turnDetection) {
     public OpenAIConfig {
         if (mode == null)
             mode = RealtimeMode.CONVERSATION;
         if (transcriptionModel == null)
             transcriptionModel = OpenAIModels.WHISPER_1;
+        if (turnDetection == null)
+            turnDetection = TurnDetectionMode.SERVER_VAD;
+    }
+
+    public OpenAIConfig(
+            String tcpResourceLink,
+            String apiKey,
+            AudioFormats inputAudioFormat,
+            AudioFormats outputAudioFormat,
+            RealtimeMode mode,
+            String transcriptionModel) {
+        this(tcpResourceLink, apiKey, inputAudioFormat, outputAudioFormat, mode, transcriptionModel,
+                TurnDetectionMode.SERVER_VAD);
     }
 }
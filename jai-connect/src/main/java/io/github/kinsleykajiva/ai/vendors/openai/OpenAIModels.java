@@ -82,6 +82,27 @@ public final class OpenAIModels {
      */
     public static final String TTS_1_HD = "tts-1-hd";
 
+    /**
+     * Response formats accepted by the speech (TTS) endpoint.
+     */
+    public static final class SpeechFormats {
+        /** Default format for general use. */
+        public static final String MP3 = "mp3";
+        /** Low latency internet streaming and communication. */
+        public static final String OPUS = "opus";
+        /** Digital audio compression, preferred by YouTube, Android and iOS. */
+        public static final String AAC = "aac";
+        /** Lossless compression. */
+        public static final String FLAC = "flac";
+        /** Uncompressed WAV audio, suitable for low-latency applications. */
+        public static final String WAV = "wav";
+        /** Raw 24 kHz 16-bit signed little-endian mono samples, without a header. */
+        public static final String PCM = "pcm";
+
+        private SpeechFormats() {
+        }
+    }
+
     /**
      * Built-in voices for TTS and Realtime APIs.
      */
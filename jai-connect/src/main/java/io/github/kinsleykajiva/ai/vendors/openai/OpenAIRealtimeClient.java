@@ -1,25 +1,49 @@
 package io.github.kinsleykajiva.ai.vendors.openai;
 
+import io.github.kinsleykajiva.ai.audio.AudioDeltaDecoder;
+import io.github.kinsleykajiva.ai.audio.Endpointer;
+import io.github.kinsleykajiva.ai.audio.G711Codec;
+import io.github.kinsleykajiva.ai.audio.PcmKernels;
+import io.github.kinsleykajiva.ai.audio.PcmMixer;
+import io.github.kinsleykajiva.ai.audio.PlayoutBuffer;
+import io.github.kinsleykajiva.ai.audio.PolyphaseResampler;
+import io.github.kinsleykajiva.ai.audio.SessionRecorder;
+import io.github.kinsleykajiva.ai.audio.VoiceActivityGate;
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import io.github.kinsleykajiva.ai.metrics.RealtimeMetrics;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.BufferPoolExhaustedEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.ConnectEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.HandlerExecutionEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.InboundFrameEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.OutboundFrameQueuedEvent;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.OutboundFrameSentEvent;
 import io.github.kinsleykajiva.ai.vendors.openai.callbacks.AudioBufferManager;
 import io.github.kinsleykajiva.ai.vendors.openai.callbacks.AudioEventHandler;
+import io.github.kinsleykajiva.ai.vendors.openai.callbacks.Pcm16AudioHandler;
 import io.github.kinsleykajiva.ai.vendors.openai.callbacks.SessionManager;
+import io.github.kinsleykajiva.ai.vendors.openai.callbacks.SpeechChunkHandler;
 import io.github.kinsleykajiva.ai.vendors.openai.callbacks.TranscriptionEventHandler;
 import io.github.kinsleykajiva.ai.vendors.openai.models.*;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +58,8 @@ import org.slf4j.LoggerFactory;
 public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	private static final Logger logger = LoggerFactory.getLogger(OpenAIRealtimeClient.class);
 	private static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofSeconds(10);
+	// Model requested when no resource link is configured
+	private static final String DEFAULT_REALTIME_MODEL = OpenAIModels.GPT_REALTIME;
 	private final OpenAIConfig credentialsConfig;
 	private static final int BUFFER_SIZE = 64 * 1024; // 64KB buffers
 	// Audio constants
@@ -42,7 +68,7 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	private static final int CORE_POOL_SIZE = Math.min(4, Runtime.getRuntime().availableProcessors());
 	private static final int MAX_POOL_SIZE = 100; // Maximum number of buffers in pool
 
-	private final HttpClient httpClient;
+	private final OpenAITransport transport;
 	private final ThreadPoolExecutor executor;
 	private final AtomicReference<WebSocket> webSocketRef = new AtomicReference<>();
 	private final AtomicBoolean connected = new AtomicBoolean(false);
@@ -52,12 +78,48 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	private final ConcurrentHashMap<String, Consumer<RealtimeEvent>> eventHandlers = new ConcurrentHashMap<>();
 	private final BlockingQueue<ByteBuffer> bufferPool = new ArrayBlockingQueue<>(MAX_POOL_SIZE);
 	private final ConcurrentLinkedQueue<JSONObject> sendQueue = new ConcurrentLinkedQueue<>();
+	// Control events (e.g. barge-in) that must overtake queued audio
+	private final ConcurrentLinkedQueue<JSONObject> prioritySendQueue = new ConcurrentLinkedQueue<>();
+	private volatile JSONObject priorityTailEvent;
+	private volatile Runnable priorityTailCallback;
 	private final AtomicBoolean isSending = new AtomicBoolean(false);
+	// Events queued and not yet written to the socket or dropped
+	private final AtomicInteger pendingSendEvents = new AtomicInteger();
 	// Audio tracking
 	private final AtomicLong totalAudioDurationMs = new AtomicLong(0);
 	private static final String DEFAULT_INSTRUCTIONS = "You are a helpful assistant.";
 	private static final Duration MIN_AUDIO_DURATION = Duration.ofMillis(100);
 	private final Object durationLock = new Object();
+	// Resamplers for PCM16 input captured at a rate other than the session input rate
+	private final ConcurrentHashMap<Integer, PolyphaseResampler> inputResamplers = new ConcurrentHashMap<>();
+	// Optional client-side gate that drops silent PCM16 input before it is encoded
+	private volatile VoiceActivityGate inputVoiceGate;
+	private volatile TranscriptAssembler transcriptAssembler;
+	// Per-turn stage latencies, fed in arrival order from the WebSocket thread
+	private final TurnTracer turnTracer = new TurnTracer();
+	// Client-side end-of-turn detection used when turn detection is LOCAL
+	private volatile Endpointer localEndpointer;
+	// Output audio playout buffer, fed directly from the inbound WebSocket thread
+	private volatile PlayoutBuffer playoutBuffer;
+	// Mixer input fed with output audio from the inbound WebSocket thread
+	private volatile PcmMixer.Input outputMixerInput;
+	// Optional recorder tapped with both directions of audio
+	private volatile SessionRecorder sessionRecorder;
+	// Pipeline stage fed with output from the WebSocket listener thread
+	private volatile RealtimeOutputTap outputTap;
+	// Opt-in interruption handling, driven from the WebSocket listener thread
+	private volatile BargeInEngine bargeInEngine;
+	// speak() calls awaiting response.created, keyed by the response.create event id
+	private final ConcurrentHashMap<String, PendingSpeech> speechByEventId = new ConcurrentHashMap<>();
+	// speak() calls streaming audio, keyed by response id
+	private final ConcurrentHashMap<String, PendingSpeech> speechByResponseId = new ConcurrentHashMap<>();
+	private final LatencyHistogram speakTimeToFirstAudio = new LatencyHistogram("speak-time-to-first-audio");
+	private final RealtimeMetrics metrics;
+	// Skips reading the clock around handlers when metrics are discarded
+	private final boolean timeHandlers;
+	private static final String SPEAK_METADATA_KEY = "jai_speak_id";
+	private static final String SPEAK_INSTRUCTIONS =
+			"Read the input message aloud exactly as written. Do not add, omit or answer anything.";
 
 	private static final int MAX_POOL_SIZE_THREADS = Runtime.getRuntime().availableProcessors() * 2;
 
@@ -65,7 +127,28 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	private volatile Consumer<ConnectionCloseEvent> closeCallback;
 
 	public OpenAIRealtimeClient(final OpenAIConfig credentialsConfig) {
+		this(credentialsConfig, OpenAITransport.shared());
+	}
+
+	/**
+	 * Creates a client that connects through the given transport. If the config
+	 * has no resource link, the realtime endpoint under the transport's base URL
+	 * is used.
+	 */
+	public OpenAIRealtimeClient(final OpenAIConfig credentialsConfig, final OpenAITransport transport) {
+		this(credentialsConfig, transport, RealtimeMetrics.NOOP);
+	}
+
+	/**
+	 * Creates a client that reports its internals to the given metrics.
+	 */
+	public OpenAIRealtimeClient(final OpenAIConfig credentialsConfig, final OpenAITransport transport,
+			final RealtimeMetrics metrics) {
 		this.credentialsConfig = credentialsConfig;
+		this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+		this.metrics = Objects.requireNonNull(metrics, "Metrics cannot be null");
+		this.timeHandlers = metrics != RealtimeMetrics.NOOP;
+		ThreadPoolExecutor.CallerRunsPolicy callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
 
 		this.executor = new ThreadPoolExecutor(
 				CORE_POOL_SIZE,
@@ -79,17 +162,19 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 							(thread, ex) -> logger.error("Uncaught exception in thread {}", thread.getName(), ex));
 					return t;
 				},
-				new ThreadPoolExecutor.CallerRunsPolicy());
+				(task, pool) -> {
+					metrics.executorRejected();
+					callerRuns.rejectedExecution(task, pool);
+				});
 		this.scheduler = Executors.newScheduledThreadPool(2, r -> {
 			Thread t = new Thread(r, "OpenAI-Scheduler-" + System.nanoTime());
 			t.setDaemon(true);
 			return t;
 		});
-		this.httpClient = HttpClient.newBuilder()
-				.connectTimeout(DEFAULT_CONNECTION_TIMEOUT)
-				.build();
 		initializeBufferPool();
-
+		if (credentialsConfig.turnDetection() == TurnDetectionMode.LOCAL) {
+			this.localEndpointer = new Endpointer(credentialsConfig.inputAudioFormat().getSampleRate());
+		}
 	}
 
 	private void initializeBufferPool() {
@@ -104,6 +189,19 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		logger.debug("Initialized buffer pool with {} buffers of {} bytes each", MAX_POOL_SIZE, BUFFER_SIZE);
 	}
 
+	private URI resolveRealtimeUri() {
+		String resourceLink = this.credentialsConfig.tcpResourceLink();
+		if (resourceLink != null) {
+			return URI.create(resourceLink);
+		}
+		// The endpoint rejects connections that name no model
+		String query = "model=" + DEFAULT_REALTIME_MODEL;
+		if (this.credentialsConfig.mode() == RealtimeMode.TRANSCRIPTION) {
+			query += "&intent=transcription";
+		}
+		return transport.resolveWebSocket("realtime?" + query);
+	}
+
 	private JSONObject createSessionConfig() {
 		JSONObject session = new JSONObject();
 
@@ -128,6 +226,10 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 							.put("silence_duration_ms", 200)
 							.put("create_response", true));
 		}
+		if (this.credentialsConfig.turnDetection() != TurnDetectionMode.SERVER_VAD) {
+			// Turn boundaries are decided on the client; the server must not commit on its own.
+			session.put("turn_detection", JSONObject.NULL);
+		}
 		return session;
 	}
 
@@ -161,6 +263,13 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 					.ifPresent(contentIndex -> deltaEvent.getDelta()
 							.ifPresent(delta -> handler.onTranscriptionDelta(itemId, contentIndex, delta))));
 		});
+
+		registerEventHandler("conversation.item.input_audio_transcription.segment", event -> {
+			InputAudioTranscriptionSegmentEvent segmentEvent = new InputAudioTranscriptionSegmentEvent(
+					event.getRawEvent());
+			segmentEvent.getItemId().ifPresent(itemId -> handler.onTranscriptionSegment(itemId,
+					segmentEvent.getContentIndex().orElse(0), toTranscriptSegment(segmentEvent)));
+		});
 	}
 
 	/**
@@ -189,6 +298,90 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		});
 	}
 
+	/**
+	 * Register audio handler that receives output audio as linear PCM16,
+	 * expanding G.711 output formats transparently
+	 */
+	public void registerPcm16AudioHandler(Pcm16AudioHandler handler) {
+		Objects.requireNonNull(handler, "PCM16 audio handler cannot be null");
+		AudioFormats outputFormat = credentialsConfig.outputAudioFormat();
+		// Handlers run on pool threads, so each thread reuses its own buffers
+		ThreadLocal<AudioDeltaDecoder> decoders = ThreadLocal.withInitial(() -> new AudioDeltaDecoder(outputFormat));
+		registerEventHandler("response.output_audio.delta", event -> {
+			ResponseOutputAudioDeltaEvent audioEvent = new ResponseOutputAudioDeltaEvent(event.getRawEvent());
+			audioEvent.getItemId().ifPresent(itemId -> audioEvent.getContentIndex().ifPresent(contentIndex -> audioEvent
+					.getDelta().ifPresent(base64Audio -> {
+						AudioDeltaDecoder decoder = decoders.get();
+						int length = decoder.decode(base64Audio);
+						handler.onPcm16Audio(itemId, contentIndex, decoder.samples(), length);
+					})));
+		});
+	}
+
+	/**
+	 * Speaks the text over the connected session instead of a separate TTS
+	 * request, reusing the warm WebSocket. The text is sent as the input of an
+	 * out-of-band response, ahead of queued audio, so it is never added to the
+	 * session's conversation.
+	 *
+	 * @param text    the text to speak
+	 * @param handler receives the decoded output audio of this response only,
+	 *                in the session output format, on the WebSocket thread
+	 * @return a CompletableFuture completed with timing when the response is
+	 *         done; fails if the response fails, is cancelled or the connection
+	 *         closes
+	 */
+	public CompletableFuture<SpeechStreamResult> speak(String text, SpeechChunkHandler handler) {
+		return speak(text, SPEAK_INSTRUCTIONS, handler);
+	}
+
+	/**
+	 * Speaks the text with the given response instructions.
+	 *
+	 * @see #speak(String, SpeechChunkHandler)
+	 */
+	public CompletableFuture<SpeechStreamResult> speak(String text, String instructions, SpeechChunkHandler handler) {
+		Objects.requireNonNull(text, "Text cannot be null");
+		Objects.requireNonNull(handler, "Speech chunk handler cannot be null");
+		if (!connected.get()) {
+			return CompletableFuture.failedFuture(new IllegalStateException("WebSocket not connected"));
+		}
+		String responseEventId = generateEventId();
+		PendingSpeech speech = new PendingSpeech(handler);
+		speechByEventId.put(responseEventId, speech);
+
+		// Out-of-band: the text is the response's only input and nothing is added
+		// to the default conversation, so the session context is left untouched.
+		JSONObject response = new JSONObject()
+				.put("conversation", "none")
+				.put("output_modalities", new JSONArray().put("audio"))
+				.put("input", new JSONArray().put(new JSONObject()
+						.put("type", "message")
+						.put("role", "user")
+						.put("content", new JSONArray().put(new JSONObject()
+								.put("type", "input_text")
+								.put("text", text)))))
+				.put("metadata", new JSONObject().put(SPEAK_METADATA_KEY, responseEventId));
+		if (instructions != null && !instructions.isEmpty()) {
+			response.put("instructions", instructions);
+		}
+		JSONObject create = new JSONObject()
+				.put("type", "response.create")
+				.put("event_id", responseEventId)
+				.put("response", response);
+
+		logger.debug("Speaking {} characters over the realtime session", text.length());
+		sendPriorityBurst(List.of(create), null);
+		return speech.result;
+	}
+
+	/**
+	 * Returns the histogram of time from {@link #speak} to its first audio.
+	 */
+	public LatencyHistogram getSpeakTimeToFirstAudio() {
+		return speakTimeToFirstAudio;
+	}
+
 	/**
 	 * Register event handler for specific event types
 	 */
@@ -209,12 +402,19 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 		logger.info("Connecting to OpenAI Realtime API");
 
-		return httpClient.newWebSocketBuilder()
-				.header("Authorization", "Bearer " + this.credentialsConfig.apiKey())
-				.header("OpenAI-Beta", "realtime=v1")
-				.buildAsync(URI.create(this.credentialsConfig.tcpResourceLink()), this)
+		URI uri = resolveRealtimeUri();
+		Map<String, String> headers = Map.of(
+				"Authorization", "Bearer " + this.credentialsConfig.apiKey(),
+				"OpenAI-Beta", "realtime=v1");
+		ConnectEvent connectEvent = new ConnectEvent();
+		connectEvent.begin();
+		return transport.openWebSocket(uri, headers, this)
 				.thenAccept(ws -> {
-					webSocketRef.set(ws);
+					boolean reconnect = webSocketRef.getAndSet(ws) != null;
+					if (reconnect) {
+						metrics.reconnected();
+					}
+					commitConnectEvent(connectEvent, uri, reconnect, true);
 					connected.set(true);
 					logger.info("Successfully connected to OpenAI Realtime API");
 					initializeSession();
@@ -222,11 +422,22 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 				.orTimeout(DEFAULT_CONNECTION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
 				.exceptionally(throwable -> {
 					logger.error("Failed to connect to OpenAI Realtime API", throwable);
+					commitConnectEvent(connectEvent, uri, webSocketRef.get() != null, false);
 					notifyClose(new ConnectionCloseEvent(-1, "Connection failed", throwable));
 					throw new RuntimeException("Connection failed", throwable);
 				});
 	}
 
+	private static void commitConnectEvent(ConnectEvent event, URI uri, boolean reconnect, boolean succeeded) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.uri = uri.toString();
+			event.reconnect = reconnect;
+			event.succeeded = succeeded;
+			event.commit();
+		}
+	}
+
 	private long calculateAudioDuration(String base64Audio, AudioFormats format) {
 		try {
 			byte[] decodedAudio = Base64.getDecoder().decode(base64Audio);
@@ -238,11 +449,134 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		}
 	}
 
+	private static short[] decodeToPcm16(byte[] audio, AudioFormats format) {
+		if (G711Codec.isG711(format)) {
+			short[] pcm = new short[audio.length];
+			G711Codec.forFormat(format).decode(audio, 0, pcm, 0, audio.length);
+			return pcm;
+		}
+		short[] pcm = new short[audio.length / 2];
+		PcmKernels.pcm16leToShorts(audio, 0, pcm, 0, pcm.length);
+		return pcm;
+	}
+
+	private static byte[] encodeFromPcm16(short[] pcm, int offset, int length, AudioFormats format) {
+		if (G711Codec.isG711(format)) {
+			byte[] audio = new byte[length];
+			G711Codec.forFormat(format).encode(pcm, offset, audio, 0, length);
+			return audio;
+		}
+		byte[] audio = new byte[length * 2];
+		PcmKernels.shortsToPcm16le(pcm, offset, audio, 0, length);
+		return audio;
+	}
+
+	/**
+	 * Commits the input buffer and, in conversation mode, requests a response.
+	 * Both events are queued back to back so nothing can be sent between them.
+	 */
+	private void commitLocalTurn() {
+		synchronized (durationLock) {
+			long currentDuration = totalAudioDurationMs.get();
+			if (currentDuration < MIN_AUDIO_DURATION.toMillis()) {
+				logger.debug("Local end of turn ignored: only {}ms buffered", currentDuration);
+				return;
+			}
+			List<JSONObject> events = new ArrayList<>(2);
+			events.add(new JSONObject()
+					.put("type", "input_audio_buffer.commit")
+					.put("event_id", generateEventId()));
+			if (credentialsConfig.mode() == RealtimeMode.CONVERSATION) {
+				events.add(new JSONObject()
+						.put("type", "response.create")
+						.put("event_id", generateEventId()));
+			}
+			sendEvents(events);
+			totalAudioDurationMs.set(0);
+		}
+		logger.debug("Local end of turn: buffer committed");
+	}
+
+	private void resetLocalEndpointer() {
+		Endpointer endpointer = localEndpointer;
+		if (endpointer != null) {
+			synchronized (endpointer) {
+				endpointer.reset();
+			}
+		}
+	}
+
+	private void resetInputResamplers() {
+		inputResamplers.values().forEach(resampler -> {
+			synchronized (resampler) {
+				resampler.reset();
+			}
+		});
+	}
+
 	private void sendEvent(JSONObject event) {
+		int depth = pendingSendEvents.incrementAndGet();
+		metrics.sendQueued(depth);
+		commitQueuedEvent(event, depth, false);
 		sendQueue.offer(event);
 		processSendQueue();
 	}
 
+	/**
+	 * Queues events on the regular send queue. The queue links the whole batch
+	 * at once, so no event queued concurrently can land between them.
+	 */
+	private void sendEvents(List<JSONObject> events) {
+		int depth = pendingSendEvents.addAndGet(events.size());
+		metrics.sendQueued(depth);
+		for (JSONObject event : events) {
+			commitQueuedEvent(event, depth, false);
+		}
+		sendQueue.addAll(events);
+		processSendQueue();
+	}
+
+	/**
+	 * Queues events ahead of everything waiting in the regular send queue. The
+	 * events of one burst are sent back to back, in order.
+	 */
+	private void sendPriorityBurst(List<JSONObject> events, Runnable onSent) {
+		synchronized (prioritySendQueue) {
+			if (onSent != null && !events.isEmpty()) {
+				priorityTailCallback = onSent;
+				priorityTailEvent = events.get(events.size() - 1);
+			}
+			int depth = pendingSendEvents.addAndGet(events.size());
+			metrics.sendQueued(depth);
+			for (JSONObject event : events) {
+				commitQueuedEvent(event, depth, true);
+			}
+			prioritySendQueue.addAll(events);
+		}
+		processSendQueue();
+	}
+
+	private static void commitQueuedEvent(JSONObject event, int depth, boolean priority) {
+		OutboundFrameQueuedEvent queued = new OutboundFrameQueuedEvent();
+		if (queued.shouldCommit()) {
+			queued.eventType = event.optString("type");
+			queued.queueDepth = depth;
+			queued.priority = priority;
+			queued.commit();
+		}
+	}
+
+	private void onEventSent(JSONObject event) {
+		if (event == priorityTailEvent) {
+			Runnable callback = priorityTailCallback;
+			priorityTailEvent = null;
+			priorityTailCallback = null;
+			if (callback != null) {
+				callback.run();
+			}
+		}
+	}
+
 	private void processSendQueue() {
 		if (isSending.compareAndSet(false, true)) {
 			sendNextEvent();
@@ -250,10 +584,11 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	}
 
 	private void sendNextEvent() {
-		JSONObject event = sendQueue.peek();
+		ConcurrentLinkedQueue<JSONObject> queue = prioritySendQueue.isEmpty() ? sendQueue : prioritySendQueue;
+		JSONObject event = queue.peek();
 		if (event == null) {
 			isSending.set(false);
-			if (!sendQueue.isEmpty()) {
+			if (!sendQueue.isEmpty() || !prioritySendQueue.isEmpty()) {
 				processSendQueue();
 			}
 			return;
@@ -262,7 +597,8 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		WebSocket ws = webSocketRef.get();
 		if (ws == null || !connected.get()) {
 			logger.error("Cannot send event: WebSocket not connected");
-			sendQueue.poll();
+			queue.poll();
+			pendingSendEvents.decrementAndGet();
 			isSending.set(false);
 			return;
 		}
@@ -274,19 +610,33 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 			if (eventBytes.length > buffer.capacity()) {
 				logger.error("Event too large for buffer: {} bytes", eventBytes.length);
-				sendQueue.poll();
+				queue.poll();
+				pendingSendEvents.decrementAndGet();
 				returnBuffer(buffer);
 				sendNextEvent();
 				return;
 			}
 
-			sendQueue.poll();
+			queue.poll();
 
+			OutboundFrameSentEvent sent = new OutboundFrameSentEvent();
+			sent.begin();
 			ws.sendText(eventStr, true)
 					.handle((result, throwable) -> {
+						sent.end();
+						if (sent.shouldCommit()) {
+							sent.eventType = event.optString("type");
+							sent.size = eventBytes.length;
+							sent.succeeded = throwable == null;
+							sent.commit();
+						}
 						returnBuffer(buffer);
+						pendingSendEvents.decrementAndGet();
 						if (throwable != null) {
 							logger.error("Failed to send WebSocket message", throwable);
+						} else {
+							metrics.eventSent(event.optString("type"), eventBytes.length);
+							onEventSent(event);
 						}
 						sendNextEvent();
 						return null;
@@ -295,14 +645,21 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		} catch (Exception e) {
 			returnBuffer(buffer);
 			logger.error("Error prepairing event for send", e);
-			sendQueue.poll(); // Ensure we don't get stuck on bad event
+			queue.poll(); // Ensure we don't get stuck on bad event
+			pendingSendEvents.decrementAndGet();
 			sendNextEvent();
 		}
 	}
 
 	private ByteBuffer borrowBuffer() {
 		ByteBuffer buffer = bufferPool.poll();
+		metrics.bufferBorrowed(buffer != null);
 		if (buffer == null) {
+			BufferPoolExhaustedEvent exhausted = new BufferPoolExhaustedEvent();
+			if (exhausted.shouldCommit()) {
+				exhausted.bufferSize = BUFFER_SIZE;
+				exhausted.commit();
+			}
 			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
 			logger.debug("Created new buffer (pool exhausted)");
 		}
@@ -331,10 +688,20 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	@Override
 	public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
 		try {
+			long receivedNanos = System.nanoTime();
+			InboundFrameEvent frame = new InboundFrameEvent();
+			frame.begin();
 			JSONObject eventJson = new JSONObject(data.toString());
 			RealtimeEvent event = createEvent(eventJson);
+			frame.end();
+			if (frame.shouldCommit()) {
+				frame.eventType = event.getType();
+				frame.size = data.length();
+				frame.commit();
+			}
 
 			logger.debug("Received event: {}", event.getType());
+			metrics.eventReceived(event.getType(), data.length());
 
 			// 1. Internal state & logging handling
 			switch (event.getType()) {
@@ -405,11 +772,14 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 				case "rate_limits.updated" -> handleRateLimitsUpdated((RateLimitsUpdatedEvent) event);
 				default -> logger.trace("Unhandled event type: {}", event.getType());
 			}
+			turnTracer.onEvent(event.getType(), eventJson, receivedNanos);
 
 			// 2. Delegate to registered handlers (always run these)
 			Consumer<RealtimeEvent> handler = eventHandlers.get(event.getType());
 			if (handler != null) {
-				CompletableFuture.runAsync(() -> handler.accept(event), executor)
+				HandlerExecutionEvent execution = new HandlerExecutionEvent();
+				execution.begin();
+				CompletableFuture.runAsync(() -> runHandler(handler, event, execution), executor)
 						.exceptionally(throwable -> {
 							logger.error("Error in event handler for {}", event.getType(), throwable);
 							return null;
@@ -424,6 +794,34 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		return WebSocket.Listener.super.onText(webSocket, data, last);
 	}
 
+	private void runHandler(Consumer<RealtimeEvent> handler, RealtimeEvent event, HandlerExecutionEvent execution) {
+		boolean traced = execution.isEnabled();
+		if (!timeHandlers && !traced) {
+			handler.accept(event);
+			return;
+		}
+		long start = System.nanoTime();
+		boolean succeeded = false;
+		try {
+			handler.accept(event);
+			succeeded = true;
+		} finally {
+			long nanos = System.nanoTime() - start;
+			if (timeHandlers) {
+				metrics.handlerExecuted(event.getType(), nanos);
+			}
+			if (traced) {
+				execution.end();
+				if (execution.shouldCommit()) {
+					execution.eventType = event.getType();
+					execution.executionTime = nanos;
+					execution.succeeded = succeeded;
+					execution.commit();
+				}
+			}
+		}
+	}
+
 	private RealtimeEvent createEvent(JSONObject eventJson) {
 		return switch (eventJson.getString("type")) {
 			case "error" -> new ErrorEvent(eventJson);
@@ -479,11 +877,18 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 			String message = error.optString("message", "Unknown error");
 			String code = error.optString("code", "unknown");
 			logger.error("Server error [{}]: {}", code, message);
+			String failedEventId = error.optString("event_id", null);
+			PendingSpeech speech = failedEventId == null ? null : speechByEventId.remove(failedEventId);
+			if (speech != null) {
+				speech.result.completeExceptionally(
+						new IllegalStateException("Speak request failed [" + code + "]: " + message));
+			}
 		});
 	}
 
 	private void handleSessionCreated(SessionCreatedEvent event) {
 		logger.info("Session created successfully");
+		event.getSession().ifPresent(session -> turnTracer.setSessionId(session.optString("id", null)));
 	}
 
 	private void handleSessionUpdated(SessionUpdatedEvent event) {
@@ -504,21 +909,51 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 	private void handleInputAudioTranscriptionCompleted(InputAudioTranscriptionCompletedEvent event) {
 		event.getTranscript().ifPresent(transcript -> logger.debug("Transcription completed: {}", transcript));
+		TranscriptAssembler assembler = transcriptAssembler;
+		if (assembler != null) {
+			event.getItemId().ifPresent(itemId -> assembler.onCompleted(itemId, event.getTranscript().orElse(null)));
+		}
+		RealtimeOutputTap tap = outputTap;
+		if (tap != null) {
+			event.getItemId().ifPresent(itemId -> event.getTranscript()
+					.ifPresent(transcript -> tap.onInputTranscription(itemId, transcript, true)));
+		}
 	}
 
 	private void handleInputAudioTranscriptionDelta(InputAudioTranscriptionDeltaEvent event) {
 		event.getDelta().ifPresent(delta -> {
 			logger.debug("Transcription delta: {}", delta);
 			// Registered handlers will be called by delegate in onText
+			TranscriptAssembler assembler = transcriptAssembler;
+			if (assembler != null) {
+				event.getItemId().ifPresent(itemId -> assembler.onDelta(itemId, delta));
+			}
+			RealtimeOutputTap tap = outputTap;
+			if (tap != null) {
+				event.getItemId().ifPresent(itemId -> tap.onInputTranscription(itemId, delta, false));
+			}
 		});
 	}
 
 	private void handleInputAudioTranscriptionSegment(InputAudioTranscriptionSegmentEvent event) {
 		event.getText().ifPresent(text -> logger.debug("Transcription segment: {}", text));
+		TranscriptAssembler assembler = transcriptAssembler;
+		if (assembler != null) {
+			event.getItemId().ifPresent(itemId -> assembler.onSegment(itemId, toTranscriptSegment(event)));
+		}
+	}
+
+	private static TranscriptSegment toTranscriptSegment(InputAudioTranscriptionSegmentEvent event) {
+		return new TranscriptSegment(event.getStart().orElse(0.0), event.getEnd().orElse(0.0),
+				event.getText().orElse(""), event.getSpeaker().orElse(null));
 	}
 
 	private void handleInputAudioTranscriptionFailed(InputAudioTranscriptionFailedEvent event) {
 		event.getError().ifPresent(error -> logger.error("Transcription failed: {}", error.optString("message")));
+		TranscriptAssembler assembler = transcriptAssembler;
+		if (assembler != null) {
+			event.getItemId().ifPresent(assembler::onFailed);
+		}
 	}
 
 	private void handleConversationItemTruncated(ConversationItemTruncatedEvent event) {
@@ -545,6 +980,17 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 	private void handleInputAudioBufferSpeechStarted(InputAudioBufferSpeechStartedEvent event) {
 		event.getItemId().ifPresent(itemId -> logger.debug("Speech started: {}", itemId));
+		RealtimeOutputTap tap = outputTap;
+		if (tap != null) {
+			tap.onSpeechStarted();
+		}
+		BargeInEngine engine = bargeInEngine;
+		if (engine != null && engine.onSpeechStarted(playoutBuffer)) {
+			PcmMixer.Input mixerInput = outputMixerInput;
+			if (mixerInput != null) {
+				mixerInput.flush();
+			}
+		}
 	}
 
 	private void handleInputAudioBufferSpeechStopped(InputAudioBufferSpeechStoppedEvent event) {
@@ -557,10 +1003,36 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 	private void handleResponseCreated(ResponseCreatedEvent event) {
 		event.getResponse().ifPresent(response -> logger.debug("Response created: {}", response.optString("id")));
+		event.getResponse().ifPresent(response -> {
+			JSONObject metadata = response.optJSONObject("metadata");
+			String speakId = metadata == null ? null : metadata.optString(SPEAK_METADATA_KEY, null);
+			PendingSpeech speech = speakId == null ? null : speechByEventId.remove(speakId);
+			if (speech != null) {
+				speechByResponseId.put(response.optString("id"), speech);
+			}
+		});
+		RealtimeOutputTap tap = outputTap;
+		if (tap != null) {
+			tap.onResponseCreated(event.getResponse().map(response -> response.optString("id", null)).orElse(null));
+		}
+		BargeInEngine engine = bargeInEngine;
+		if (engine != null) {
+			event.getResponse().ifPresent(response -> engine.onResponseCreated(response.optString("id", null)));
+		}
 	}
 
 	private void handleResponseDone(ResponseDoneEvent event) {
 		event.getResponse().ifPresent(response -> logger.debug("Response done: {}", response.optString("id")));
+		event.getResponse().ifPresent(response -> {
+			PendingSpeech speech = speechByResponseId.remove(response.optString("id"));
+			if (speech != null) {
+				speech.done(response.optString("status", "completed"));
+			}
+		});
+		BargeInEngine engine = bargeInEngine;
+		if (engine != null) {
+			engine.onResponseDone(event.getResponse().map(response -> response.optString("id", null)).orElse(null));
+		}
 	}
 
 	private void handleResponseOutputItemAdded(ResponseOutputItemAddedEvent event) {
@@ -597,10 +1069,43 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 
 	private void handleResponseOutputAudioDelta(ResponseOutputAudioDeltaEvent event) {
 		event.getDelta().ifPresent(delta -> logger.debug("Audio delta received"));
+		if (!speechByResponseId.isEmpty()) {
+			PendingSpeech speech = event.getResponseId().map(speechByResponseId::get).orElse(null);
+			if (speech != null) {
+				event.getDelta().ifPresent(speech::deliver);
+			}
+		}
+		PlayoutBuffer buffer = playoutBuffer;
+		if (buffer != null) {
+			event.getItemId().ifPresent(itemId -> event.getDelta().ifPresent(delta -> buffer.writeBase64(itemId,
+					event.getContentIndex().orElse(0), delta, credentialsConfig.outputAudioFormat())));
+		}
+		SessionRecorder recorder = sessionRecorder;
+		if (recorder != null) {
+			event.getDelta().ifPresent(delta -> recorder.recordOutput(delta, credentialsConfig.outputAudioFormat()));
+		}
+		PcmMixer.Input mixerInput = outputMixerInput;
+		if (mixerInput != null) {
+			event.getDelta().ifPresent(delta -> mixerInput.writeBase64(delta, credentialsConfig.outputAudioFormat()));
+		}
+		RealtimeOutputTap tap = outputTap;
+		if (tap != null) {
+			event.getDelta().ifPresent(delta -> tap.onOutputAudio(
+					decodeToPcm16(Base64.getDecoder().decode(delta), credentialsConfig.outputAudioFormat())));
+		}
+		BargeInEngine engine = bargeInEngine;
+		if (engine != null) {
+			event.getItemId().ifPresent(itemId -> event.getDelta().ifPresent(
+					delta -> engine.onAudioDelta(itemId, event.getContentIndex().orElse(0), delta)));
+		}
 	}
 
 	private void handleResponseOutputAudioDone(ResponseOutputAudioDoneEvent event) {
 		event.getItemId().ifPresent(itemId -> logger.debug("Audio done: {}", itemId));
+		PlayoutBuffer buffer = playoutBuffer;
+		if (buffer != null) {
+			buffer.endOfStream();
+		}
 	}
 
 	private void handleResponseFunctionCallArgumentsDelta(ResponseFunctionCallArgumentsDeltaEvent event) {
@@ -651,6 +1156,7 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
 		connected.set(false);
 		logger.info("WebSocket closed: {} - {}", statusCode, reason);
+		failPendingSpeech(new IllegalStateException("WebSocket closed: " + statusCode + " " + reason));
 		notifyClose(new ConnectionCloseEvent(statusCode, reason));
 		return WebSocket.Listener.super.onClose(webSocket, statusCode, reason);
 	}
@@ -659,9 +1165,17 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	public void onError(WebSocket webSocket, Throwable error) {
 		connected.set(false);
 		logger.error("WebSocket error", error);
+		failPendingSpeech(error);
 		notifyClose(new ConnectionCloseEvent(-1, "WebSocket error", error));
 	}
 
+	private void failPendingSpeech(Throwable cause) {
+		speechByEventId.values().forEach(speech -> speech.result.completeExceptionally(cause));
+		speechByEventId.clear();
+		speechByResponseId.values().forEach(speech -> speech.result.completeExceptionally(cause));
+		speechByResponseId.clear();
+	}
+
 	private void notifyClose(ConnectionCloseEvent closeEvent) {
 		Consumer<ConnectionCloseEvent> callback = closeCallback;
 		if (callback != null) {
@@ -706,6 +1220,37 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		return connected.get();
 	}
 
+	/**
+	 * Returns the number of events queued for sending that have not yet been
+	 * written to the socket. Producers that are not paced by real time, such as
+	 * file transcription, can keep this small to send only as fast as the
+	 * connection drains.
+	 */
+	public int getPendingSendEvents() {
+		return pendingSendEvents.get();
+	}
+
+	/**
+	 * Returns the metrics the client reports to.
+	 */
+	public RealtimeMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the transport the WebSocket is opened through.
+	 */
+	public OpenAITransport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Get the configuration the session was created with
+	 */
+	public OpenAIConfig getConfig() {
+		return credentialsConfig;
+	}
+
 	/**
 	 * Check if the client is closed
 	 */
@@ -713,6 +1258,152 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		return closed.get();
 	}
 
+	/**
+	 * Set a voice activity gate applied to PCM16 input appended through
+	 * {@link AudioBufferManager#appendPcm16}. Silent chunks are dropped before
+	 * encoding. The gate must be configured for the session input sample rate;
+	 * pass {@code null} to disable gating.
+	 */
+	public void setInputVoiceActivityGate(VoiceActivityGate gate) {
+		this.inputVoiceGate = gate;
+	}
+
+	/**
+	 * Get the tracer breaking each turn's voice-to-voice latency down by stage.
+	 * Report playout of the first response audio with
+	 * {@link TurnTracer#onFirstAudioPlayed()} to include it in the breakdown.
+	 */
+	public TurnTracer getTurnTracer() {
+		return turnTracer;
+	}
+
+	/**
+	 * Set an exporter receiving each finished turn and the session summary on
+	 * close; pass {@code null} to remove it.
+	 */
+	public void setTurnTraceExporter(TurnTracer.Exporter exporter) {
+		turnTracer.setExporter(exporter);
+	}
+
+	/**
+	 * Set an assembler fed with input audio transcription events on the
+	 * WebSocket thread, in arrival order; pass {@code null} to detach it.
+	 */
+	public void setTranscriptAssembler(TranscriptAssembler assembler) {
+		this.transcriptAssembler = assembler;
+	}
+
+	/**
+	 * Replace the endpointer used in {@link TurnDetectionMode#LOCAL} mode, for
+	 * example to tune silence and minimum speech durations or to attach a
+	 * {@link Endpointer.Listener} for latency measurements. The endpointer must be
+	 * configured for the session input sample rate.
+	 */
+	public void setLocalEndpointer(Endpointer endpointer) {
+		if (credentialsConfig.turnDetection() != TurnDetectionMode.LOCAL) {
+			throw new IllegalStateException("Local endpointing requires TurnDetectionMode.LOCAL");
+		}
+		this.localEndpointer = Objects.requireNonNull(endpointer, "Endpointer cannot be null");
+	}
+
+	/**
+	 * Set a playout buffer to receive output audio. Deltas are decoded into it on
+	 * the WebSocket listener thread, which is its single producer; the
+	 * application drains it from its own playback thread. Pass {@code null} to
+	 * detach.
+	 */
+	public void setPlayoutBuffer(PlayoutBuffer buffer) {
+		if (buffer != null && buffer.getSampleRate() != credentialsConfig.outputAudioFormat().getSampleRate()) {
+			throw new IllegalArgumentException("Playout buffer sample rate must match the output audio format");
+		}
+		this.playoutBuffer = buffer;
+	}
+
+	/**
+	 * Get the playout buffer receiving output audio, if any
+	 */
+	public PlayoutBuffer getPlayoutBuffer() {
+		return playoutBuffer;
+	}
+
+	/**
+	 * Set a mixer input to receive output audio, for example to mix the
+	 * assistant with hold music or other call legs. Deltas are decoded into it on
+	 * the WebSocket listener thread, which becomes its producer, and it is
+	 * flushed on barge-in. Pass {@code null} to detach.
+	 */
+	public void setOutputMixerInput(PcmMixer.Input input) {
+		if (input != null && input.getSampleRate() != credentialsConfig.outputAudioFormat().getSampleRate()) {
+			throw new IllegalArgumentException("Mixer sample rate must match the output audio format");
+		}
+		this.outputMixerInput = input;
+	}
+
+	/**
+	 * Set the tap receiving output audio, input transcription and speech starts
+	 * on the WebSocket listener thread, in arrival order; pass {@code null} to
+	 * detach it.
+	 */
+	void setOutputTap(RealtimeOutputTap tap) {
+		this.outputTap = tap;
+	}
+
+	/**
+	 * Set a recorder to capture input audio as it is appended and output audio as
+	 * deltas arrive. Recording only enqueues the audio, so neither path waits on
+	 * disk. The recorder is owned by the caller, who must close it. Pass
+	 * {@code null} to stop recording.
+	 */
+	public void setSessionRecorder(SessionRecorder recorder) {
+		this.sessionRecorder = recorder;
+	}
+
+	/**
+	 * Enable or disable automatic barge-in. When enabled, an
+	 * {@code input_audio_buffer.speech_started} event received while a response
+	 * is active or audio is still playing flushes the playout buffer and sends
+	 * {@code response.cancel}, {@code output_audio_buffer.clear} and
+	 * {@code conversation.item.truncate} ahead of any queued events. The
+	 * truncation point is the playout buffer's played position when one is
+	 * attached with {@link #setPlayoutBuffer}.
+	 */
+	public void setBargeInEnabled(boolean enabled) {
+		if (enabled && bargeInEngine == null) {
+			bargeInEngine = new BargeInEngine(credentialsConfig.outputAudioFormat(), this::generateEventId,
+					this::sendPriorityBurst);
+		} else if (!enabled) {
+			bargeInEngine = null;
+		}
+	}
+
+	/**
+	 * Get the interrupt-to-silence latency histogram: from receipt of
+	 * {@code speech_started} until the playout buffer stopped emitting audio, or
+	 * until the interruption burst was sent when no playout buffer is attached.
+	 * Returns {@code null} if barge-in is not enabled.
+	 */
+	public LatencyHistogram getInterruptLatencyHistogram() {
+		BargeInEngine engine = bargeInEngine;
+		return engine == null ? null : engine.getInterruptLatency();
+	}
+
+	/**
+	 * Get the number of barge-in interruptions performed
+	 */
+	public long getInterruptionCount() {
+		BargeInEngine engine = bargeInEngine;
+		return engine == null ? 0 : engine.getInterruptions();
+	}
+
+	/**
+	 * Get the number of input audio bytes the voice activity gate has kept off
+	 * the wire (before base64 encoding)
+	 */
+	public long getSuppressedInputAudioBytes() {
+		VoiceActivityGate gate = inputVoiceGate;
+		return gate == null ? 0 : gate.getSamplesDropped() * credentialsConfig.inputAudioFormat().getBytesPerSample();
+	}
+
 	/**
 	 * Get current audio buffer duration in milliseconds
 	 */
@@ -739,6 +1430,16 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 	private void cleanup() {
 		totalAudioDurationMs.set(0);
 
+		turnTracer.close();
+
+		VoiceActivityGate gate = inputVoiceGate;
+		if (gate != null) {
+			logger.info("Voice activity gate suppressed {} of {} input samples ({} bytes)",
+					gate.getSamplesDropped(), gate.getSamplesIn(), getSuppressedInputAudioBytes());
+		}
+
+		failPendingSpeech(new IllegalStateException("Client is closed"));
+
 		// Clear buffer pool
 		bufferPool.clear();
 
@@ -749,29 +1450,183 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 		logger.info("OpenAI Realtime client cleanup completed");
 	}
 
+	/**
+	 * Output of one {@link #speak} call. Deltas arrive in order on the
+	 * WebSocket listener thread.
+	 */
+	private final class PendingSpeech {
+		private final SpeechChunkHandler handler;
+		private final long startNanos = System.nanoTime();
+		private final CompletableFuture<SpeechStreamResult> result = new CompletableFuture<>();
+		private long firstAudioNanos = -1;
+		private long bytes;
+
+		PendingSpeech(SpeechChunkHandler handler) {
+			this.handler = handler;
+		}
+
+		void deliver(String base64Audio) {
+			if (result.isDone()) {
+				return;
+			}
+			byte[] audio = Base64.getDecoder().decode(base64Audio);
+			if (audio.length == 0) {
+				return;
+			}
+			if (firstAudioNanos < 0) {
+				firstAudioNanos = System.nanoTime();
+				speakTimeToFirstAudio.recordNanos(firstAudioNanos - startNanos);
+				logger.debug("Speak first audio after {} ms", (firstAudioNanos - startNanos) / 1_000_000);
+			}
+			bytes += audio.length;
+			try {
+				handler.onSpeechChunk(ByteBuffer.wrap(audio));
+			} catch (RuntimeException e) {
+				logger.error("Speech chunk handler failed", e);
+				result.completeExceptionally(e);
+			}
+		}
+
+		void done(String status) {
+			switch (status) {
+				case "cancelled" -> result.completeExceptionally(new CancellationException("Speak response cancelled"));
+				case "failed" -> result.completeExceptionally(new IllegalStateException("Speak response failed"));
+				default -> result.complete(new SpeechStreamResult(bytes,
+						Duration.ofNanos(firstAudioNanos < 0 ? 0 : firstAudioNanos - startNanos),
+						Duration.ofNanos(System.nanoTime() - startNanos)));
+			}
+		}
+	}
+
 	private class AudioBufferManagerImpl implements AudioBufferManager {
+		@Override
+		public AudioFormats getInputFormat() {
+			return credentialsConfig.inputAudioFormat();
+		}
+
+		// Decodes base64 appends for local endpointing; appends may come from any thread
+		private final ThreadLocal<AudioDeltaDecoder> inputDecoders =
+				ThreadLocal.withInitial(() -> new AudioDeltaDecoder(credentialsConfig.inputAudioFormat()));
+
 		@Override
 		public CompletableFuture<Void> appendAudio(String base64Audio) {
 			Objects.requireNonNull(base64Audio, "Audio data cannot be null");
-
-			return CompletableFuture.runAsync(() -> {
-				if (!connected.get()) {
-					throw new IllegalStateException("WebSocket not connected");
+			SessionRecorder recorder = sessionRecorder;
+			if (recorder != null) {
+				recorder.recordInput(base64Audio, credentialsConfig.inputAudioFormat());
+			}
+			boolean endOfTurn = false;
+			Endpointer endpointer = localEndpointer;
+			if (endpointer != null) {
+				AudioDeltaDecoder decoder = inputDecoders.get();
+				int samples = decoder.decode(base64Audio);
+				synchronized (endpointer) {
+					endOfTurn = endpointer.process(decoder.samples(), 0, samples);
 				}
+			}
+			CompletableFuture<Void> appended = queueAppend(base64Audio,
+					calculateAudioDuration(base64Audio, credentialsConfig.inputAudioFormat()));
+			if (endOfTurn && !appended.isCompletedExceptionally()) {
+				commitLocalTurn();
+			}
+			return appended;
+		}
 
-				long durationMs = calculateAudioDuration(base64Audio, credentialsConfig.inputAudioFormat());
-				JSONObject event = new JSONObject()
-						.put("type", "input_audio_buffer.append")
-						.put("event_id", generateEventId())
-						.put("audio", base64Audio);
+		/**
+		 * Queues the append on the calling thread rather than the shared pool, so
+		 * appends reach the wire in the order they were made.
+		 */
+		private CompletableFuture<Void> queueAppend(String base64Audio, long durationMs) {
+			if (!connected.get()) {
+				return CompletableFuture.failedFuture(new IllegalStateException("WebSocket not connected"));
+			}
+			JSONObject event = new JSONObject()
+					.put("type", "input_audio_buffer.append")
+					.put("event_id", generateEventId())
+					.put("audio", base64Audio);
 
-				logger.debug("Appending audio: {}ms, size: {} bytes", durationMs, base64Audio.length());
+			logger.debug("Appending audio: {}ms, size: {} bytes", durationMs, base64Audio.length());
+			synchronized (durationLock) {
 				sendEvent(event);
+				totalAudioDurationMs.addAndGet(durationMs);
+			}
+			return CompletableFuture.completedFuture(null);
+		}
 
-				synchronized (durationLock) {
-					totalAudioDurationMs.addAndGet(durationMs);
+		@Override
+		public CompletableFuture<Void> appendPcm16(short[] pcm, int offset, int length) {
+			Objects.requireNonNull(pcm, "Audio data cannot be null");
+			Objects.checkFromIndexSize(offset, length, pcm.length);
+			boolean endOfTurn = false;
+			Endpointer endpointer = localEndpointer;
+			if (endpointer != null) {
+				synchronized (endpointer) {
+					endOfTurn = endpointer.process(pcm, offset, length);
 				}
-			}, executor);
+			}
+			CompletableFuture<Void> appended = appendGated(pcm, offset, length);
+			if (endOfTurn && !appended.isCompletedExceptionally()) {
+				// The audio that ended the turn is already queued, so the commit follows it.
+				commitLocalTurn();
+			}
+			return appended;
+		}
+
+		private CompletableFuture<Void> appendGated(short[] pcm, int offset, int length) {
+			VoiceActivityGate gate = inputVoiceGate;
+			if (gate == null) {
+				return appendEncoded(pcm, offset, length);
+			}
+			List<short[]> slices = new ArrayList<>(2);
+			synchronized (gate) {
+				gate.process(pcm, offset, length, (slice, sliceOffset, sliceLength) -> slices
+						.add(Arrays.copyOfRange(slice, sliceOffset, sliceOffset + sliceLength)));
+			}
+			if (slices.isEmpty()) {
+				return CompletableFuture.completedFuture(null);
+			}
+			// The pre-roll and the onset go out as one append, so nothing can land between them
+			short[] joined = slices.get(0);
+			for (int i = 1; i < slices.size(); i++) {
+				short[] next = slices.get(i);
+				int joinedLength = joined.length;
+				joined = Arrays.copyOf(joined, joinedLength + next.length);
+				System.arraycopy(next, 0, joined, joinedLength, next.length);
+			}
+			return appendEncoded(joined, 0, joined.length);
+		}
+
+		private CompletableFuture<Void> appendEncoded(short[] pcm, int offset, int length) {
+			// Encode on the caller thread so the caller can reuse its array immediately.
+			AudioFormats format = credentialsConfig.inputAudioFormat();
+			String base64Audio = Base64.getEncoder().encodeToString(encodeFromPcm16(pcm, offset, length, format));
+			SessionRecorder recorder = sessionRecorder;
+			if (recorder != null) {
+				recorder.recordInput(pcm, offset, length, format.getSampleRate());
+			}
+			return queueAppend(base64Audio, length * 1000L / format.getSampleRate());
+		}
+
+		@Override
+		public CompletableFuture<Void> appendPcm16(short[] pcm, int offset, int length, int sampleRate) {
+			Objects.requireNonNull(pcm, "Audio data cannot be null");
+			Objects.checkFromIndexSize(offset, length, pcm.length);
+			int targetRate = credentialsConfig.inputAudioFormat().getSampleRate();
+			if (sampleRate == targetRate) {
+				return appendPcm16(pcm, offset, length);
+			}
+			PolyphaseResampler resampler = inputResamplers.computeIfAbsent(sampleRate,
+					rate -> new PolyphaseResampler(rate, targetRate));
+			short[] resampled;
+			int resampledLength;
+			synchronized (resampler) {
+				resampled = new short[resampler.maxOutputSamples(length)];
+				resampledLength = resampler.process(pcm, offset, length, resampled, 0);
+			}
+			if (resampledLength == 0) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return appendPcm16(resampled, 0, resampledLength);
 		}
 
 		@Override
@@ -861,6 +1716,8 @@ public class OpenAIRealtimeClient implements WebSocket.Listener, AutoCloseable {
 						.put("event_id", generateEventId());
 				sendEvent(event);
 				totalAudioDurationMs.set(0);
+				resetInputResamplers();
+				resetLocalEndpointer();
 			}, executor);
 		}
 
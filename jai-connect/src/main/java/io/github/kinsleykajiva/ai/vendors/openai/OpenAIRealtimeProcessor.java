@@ -0,0 +1,133 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.pipeline.AudioFrame;
+import io.github.kinsleykajiva.ai.pipeline.Frame;
+import io.github.kinsleykajiva.ai.pipeline.FrameProcessor;
+import io.github.kinsleykajiva.ai.pipeline.InterruptFrame;
+import io.github.kinsleykajiva.ai.pipeline.TextFrame;
+import io.github.kinsleykajiva.ai.pipeline.TranscriptionFrame;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline stage wrapping a connected {@link OpenAIRealtimeClient}.
+ * <p>
+ * Input {@link AudioFrame}s are appended to the session's input buffer, pacing
+ * on the client's send queue, and {@link TextFrame}s are sent as user messages
+ * followed by a response request. The session's output audio is pushed
+ * downstream as {@link AudioFrame}s at the output sample rate and its input
+ * transcription as {@link TranscriptionFrame}s. When the server detects the
+ * user starting to speak, an {@link InterruptFrame} flushes the stages after
+ * this one. Other frames are passed on.
+ * <p>
+ * Output is taken from the client's WebSocket thread in arrival order and
+ * handed to an output thread, so a full downstream queue never holds up the
+ * events that interrupt it. Audio carries the generation current when its
+ * response was created: once an interrupt arrives, the rest of that response
+ * is dropped. The stage attaches to the client when it starts and detaches
+ * when it stops.
+ */
+public class OpenAIRealtimeProcessor extends FrameProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIRealtimeProcessor.class);
+    private static final int MAX_PENDING_SENDS = 16;
+
+    private record Output(Frame frame, long generation) {
+    }
+
+    private final OpenAIRealtimeClient client;
+    private final LinkedBlockingQueue<Output> output = new LinkedBlockingQueue<>();
+    private volatile long responseGeneration;
+    private volatile Thread outputThread;
+
+    public OpenAIRealtimeProcessor(OpenAIRealtimeClient client) {
+        super("OpenAI-Realtime");
+        this.client = Objects.requireNonNull(client, "Realtime client cannot be null");
+    }
+
+    @Override
+    protected void onStart() {
+        int outputRate = client.getConfig().outputAudioFormat().getSampleRate();
+        responseGeneration = getGeneration();
+        outputThread = Thread.ofVirtual().name(getName() + "-output").start(this::emitOutput);
+        client.setOutputTap(new RealtimeOutputTap() {
+            @Override
+            public void onResponseCreated(String responseId) {
+                responseGeneration = getGeneration();
+            }
+
+            @Override
+            public void onOutputAudio(short[] pcm) {
+                output.add(new Output(new AudioFrame(pcm, outputRate), responseGeneration));
+            }
+
+            @Override
+            public void onInputTranscription(String itemId, String text, boolean isFinal) {
+                output.add(new Output(new TranscriptionFrame(itemId, text, isFinal), getGeneration()));
+            }
+
+            @Override
+            public void onSpeechStarted() {
+                // Advances this stage's generation too, so the response being cut off is dropped
+                pushInterrupt(new InterruptFrame("speech_started"));
+                output.clear();
+            }
+        });
+    }
+
+    @Override
+    protected void onStop() {
+        client.setOutputTap(null);
+        Thread thread = outputThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    protected void onInterrupt() {
+        output.clear();
+    }
+
+    @Override
+    protected void processFrame(Frame frame) throws InterruptedException {
+        if (frame instanceof AudioFrame audio) {
+            while (client.getPendingSendEvents() > MAX_PENDING_SENDS) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            client.getAudioBufferManager().appendPcm16(audio.samples(), 0, audio.samples().length,
+                    audio.sampleRate());
+        } else if (frame instanceof TextFrame text) {
+            JSONObject item = new JSONObject()
+                    .put("type", "message")
+                    .put("role", "user")
+                    .put("content", new JSONArray().put(new JSONObject()
+                            .put("type", "input_text")
+                            .put("text", text.text())));
+            client.getSessionManager().createConversationItem(item, null);
+            client.getSessionManager().createResponse(null);
+        } else {
+            push(frame);
+        }
+    }
+
+    private void emitOutput() {
+        try {
+            while (true) {
+                Output next = output.take();
+                push(next.frame(), next.generation());
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Output of {} stopped with {} frames pending", getName(), output.size());
+        }
+    }
+}
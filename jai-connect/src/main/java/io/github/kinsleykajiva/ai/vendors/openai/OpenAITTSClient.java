@@ -1,21 +1,35 @@
 package io.github.kinsleykajiva.ai.vendors.openai;
 
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import io.github.kinsleykajiva.ai.vendors.openai.callbacks.SpeechChunkHandler;
+import io.github.kinsleykajiva.ai.vendors.openai.jfr.TtsRequestEvent;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Client for OpenAI's Text-to-Speech (TTS) REST API.
@@ -23,17 +37,54 @@ import java.util.concurrent.CompletableFuture;
  */
 public class OpenAITTSClient {
     private static final Logger logger = LoggerFactory.getLogger(OpenAITTSClient.class);
-    private static final String API_URL = "https://api.openai.com/v1/audio/speech";
+    private static final String SPEECH_PATH = "audio/speech";
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
 
     private final OpenAIConfig config;
-    private final HttpClient httpClient;
+    private final OpenAITransport transport;
+    private final URI endpoint;
+    private volatile SpeechCache speechCache;
+    private volatile HedgingPolicy hedgingPolicy;
+    private final LatencyHistogram timeToFirstByte = new LatencyHistogram("tts-time-to-first-byte");
 
     public OpenAITTSClient(OpenAIConfig config) {
+        this(config, OpenAITransport.shared());
+    }
+
+    /**
+     * Creates a client that sends requests through the given transport, to the
+     * speech endpoint under its base URL.
+     */
+    public OpenAITTSClient(OpenAIConfig config, OpenAITransport transport) {
+        this(config, transport, Objects.requireNonNull(transport, "Transport cannot be null").resolve(SPEECH_PATH));
+    }
+
+    /**
+     * Creates a client that sends requests to the given speech endpoint instead
+     * of the public API, e.g. a proxy or a local stand-in.
+     */
+    public OpenAITTSClient(OpenAIConfig config, URI endpoint) {
+        this(config, OpenAITransport.shared(), endpoint);
+    }
+
+    private OpenAITTSClient(OpenAIConfig config, OpenAITransport transport, URI endpoint) {
         this.config = Objects.requireNonNull(config, "OpenAIConfig cannot be null");
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(DEFAULT_TIMEOUT)
-                .build();
+        this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+        this.endpoint = Objects.requireNonNull(endpoint, "Endpoint cannot be null");
+    }
+
+    /**
+     * Returns the transport requests are sent through.
+     */
+    public OpenAITransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Returns the time-to-first-byte histogram of streamed requests.
+     */
+    public LatencyHistogram getTimeToFirstByteHistogram() {
+        return timeToFirstByte;
     }
 
     /**
@@ -60,6 +111,216 @@ public class OpenAITTSClient {
      */
     public CompletableFuture<byte[]> generateSpeech(String input, String voice, String model, String instructions,
             String format) {
+        SpeechCache cache = speechCache;
+        if (cache != null) {
+            return cache.get(SpeechCache.key(input, voice, model, instructions, format),
+                    () -> fetchSpeech(input, voice, model, instructions, format));
+        }
+        return fetchSpeech(input, voice, model, instructions, format);
+    }
+
+    /**
+     * Attaches a cache consulted by {@link #generateSpeech}. Cached arrays are
+     * shared between callers and must not be modified. Streaming and file-based
+     * generation always call the API. Pass {@code null} to detach.
+     */
+    public void setSpeechCache(SpeechCache cache) {
+        this.speechCache = cache;
+    }
+
+    /**
+     * Returns the attached speech cache, if any.
+     */
+    public SpeechCache getSpeechCache() {
+        return speechCache;
+    }
+
+    /**
+     * Enables hedged requests: a request that has not received response
+     * headers within the policy's delay is sent a second time, the first
+     * response wins and the other is cancelled. Applies to every API call made
+     * by this client. Pass {@code null} to disable.
+     */
+    public void setHedgingPolicy(HedgingPolicy policy) {
+        this.hedgingPolicy = policy;
+    }
+
+    /**
+     * Returns the hedging policy, if any.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Synthesizes each phrase into the attached cache, typically at startup for
+     * fixed IVR prompts. Phrases already cached cost nothing; at most
+     * {@code parallelism} API calls run at once. Failures are logged and do not
+     * stop the remaining phrases.
+     *
+     * @return a CompletableFuture completed with the number of phrases now cached
+     */
+    public CompletableFuture<Integer> warmSpeechCache(Collection<String> phrases, String voice, String model,
+            String instructions, String format, int parallelism) {
+        if (speechCache == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No speech cache attached"));
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        Iterator<String> remaining = List.copyOf(phrases).iterator();
+        AtomicInteger warmed = new AtomicInteger();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = warmNext(remaining, voice, model, instructions, format, warmed);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> {
+            logger.info("Speech cache warmed with {} of {} phrases", warmed.get(), phrases.size());
+            return warmed.get();
+        });
+    }
+
+    private CompletableFuture<Void> warmNext(Iterator<String> remaining, String voice, String model,
+            String instructions, String format, AtomicInteger warmed) {
+        // Cache hits complete synchronously: loop over them instead of chaining, which would recurse
+        while (true) {
+            String phrase;
+            synchronized (remaining) {
+                if (!remaining.hasNext()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                phrase = remaining.next();
+            }
+            CompletableFuture<Void> done = generateSpeech(phrase, voice, model, instructions, format)
+                    .handle((audio, throwable) -> {
+                        if (throwable != null) {
+                            logger.warn("Failed to warm speech cache for phrase '{}'", phrase, throwable);
+                        } else {
+                            warmed.incrementAndGet();
+                        }
+                        return null;
+                    });
+            if (!done.isDone()) {
+                return done.thenCompose(ignored -> warmNext(remaining, voice, model, instructions, format, warmed));
+            }
+        }
+    }
+
+    private CompletableFuture<byte[]> fetchSpeech(String input, String voice, String model, String instructions,
+            String format) {
+        HttpRequest request = buildRequest(input, voice, model, instructions, format);
+
+        logger.debug("Sending TTS request to OpenAI: {} with voice {}", model, voice);
+
+        TtsRequestEvent trace = beginTrace(model, voice, format, false);
+        return send(request, responseInfo -> responseInfo.statusCode() != 200
+                ? errorBody(responseInfo)
+                : HttpResponse.BodySubscribers.ofByteArray())
+                .whenComplete((audio, throwable) -> commitTrace(trace, 0, audio == null ? 0 : audio.length,
+                        throwable == null));
+    }
+
+    /**
+     * Streams raw PCM speech (24 kHz, 16-bit little-endian mono) to the handler as
+     * it is synthesized, so playback can start on the first chunk.
+     *
+     * @param input   the text to generate speech for
+     * @param voice   the voice to use
+     * @param model   the model to use
+     * @param handler receives audio chunks in order
+     * @return a CompletableFuture completed with timing once the stream ends
+     */
+    public CompletableFuture<SpeechStreamResult> streamSpeech(String input, String voice, String model,
+            SpeechChunkHandler handler) {
+        return streamSpeech(input, voice, model, null, OpenAIModels.SpeechFormats.PCM, handler);
+    }
+
+    /**
+     * Streams speech to the handler as it is synthesized instead of waiting for
+     * the complete response. If the handler throws, the download is cancelled
+     * and the returned future fails with that exception.
+     *
+     * @param input        the text to generate speech for
+     * @param voice        the voice to use
+     * @param model        the model to use
+     * @param instructions optional instructions (supported by gpt-4o-mini-tts)
+     * @param format       response format; {@code pcm} gives the lowest latency
+     * @param handler      receives audio chunks in order
+     * @return a CompletableFuture completed with timing once the stream ends
+     */
+    public CompletableFuture<SpeechStreamResult> streamSpeech(String input, String voice, String model,
+            String instructions, String format, SpeechChunkHandler handler) {
+        Objects.requireNonNull(handler, "Speech chunk handler cannot be null");
+        HttpRequest request = buildRequest(input, voice, model, instructions, format);
+        boolean pcm = OpenAIModels.SpeechFormats.PCM.equals(format);
+
+        logger.debug("Streaming TTS request to OpenAI: {} with voice {}", model, voice);
+
+        TtsRequestEvent trace = beginTrace(model, voice, format, true);
+        long startNanos = System.nanoTime();
+        return send(request, responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                return errorBody(responseInfo);
+            }
+            return new SpeechChunkSubscriber(handler, pcm, startNanos);
+        }).whenComplete((result, throwable) -> commitTrace(trace,
+                result == null ? 0 : result.timeToFirstByte().toNanos(), result == null ? 0 : result.bytes(),
+                throwable == null));
+    }
+
+    private static TtsRequestEvent beginTrace(String model, String voice, String format, boolean streamed) {
+        TtsRequestEvent trace = new TtsRequestEvent();
+        trace.begin();
+        if (trace.isEnabled()) {
+            trace.model = model;
+            trace.voice = voice;
+            trace.format = format;
+            trace.streamed = streamed;
+        }
+        return trace;
+    }
+
+    private static void commitTrace(TtsRequestEvent trace, long timeToFirstByteNanos, long bytes, boolean succeeded) {
+        trace.end();
+        if (trace.shouldCommit()) {
+            trace.timeToFirstByte = timeToFirstByteNanos;
+            trace.bytes = bytes;
+            trace.succeeded = succeeded;
+            trace.commit();
+        }
+    }
+
+    /**
+     * Sends a request, hedging it if a policy is set, and returns the body.
+     */
+    private <T> CompletableFuture<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        HedgingPolicy policy = hedgingPolicy;
+        if (policy == null) {
+            return transport.sendAsync(request, bodyHandler).thenApply(HttpResponse::body);
+        }
+        return new HedgedExchange<>(request, bodyHandler, policy).start();
+    }
+
+    /**
+     * Reads an error response body and fails with an {@link OpenAIApiException}
+     * carrying the status and any retry delay.
+     */
+    private static <T> HttpResponse.BodySubscriber<T> errorBody(HttpResponse.ResponseInfo responseInfo) {
+        return HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), body -> {
+                    OpenAIApiException error = OpenAIApiException.fromResponse("TTS request failed",
+                            responseInfo.statusCode(), responseInfo.headers(), body);
+                    if (error.isRetryable()) {
+                        logger.warn("TTS request failed with status {}: {}", responseInfo.statusCode(), body);
+                    } else {
+                        logger.error("TTS request failed with status {}: {}", responseInfo.statusCode(), body);
+                    }
+                    throw error;
+                });
+    }
+
+    private HttpRequest buildRequest(String input, String voice, String model, String instructions,
+            String format) {
         JSONObject body = new JSONObject()
                 .put("model", model)
                 .put("input", input)
@@ -72,25 +333,13 @@ public class OpenAITTSClient {
             body.put("response_format", format);
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_URL))
+        return HttpRequest.newBuilder()
+                .uri(endpoint)
                 .header("Authorization", "Bearer " + config.apiKey())
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
                 .timeout(DEFAULT_TIMEOUT)
                 .build();
-
-        logger.debug("Sending TTS request to OpenAI: {} with voice {}", model, voice);
-
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                .thenApply(response -> {
-                    if (response.statusCode() != 200) {
-                        String errorBody = new String(response.body());
-                        logger.error("TTS request failed with status {}: {}", response.statusCode(), errorBody);
-                        throw new RuntimeException("TTS request failed: " + errorBody);
-                    }
-                    return response.body();
-                });
     }
 
     /**
@@ -105,18 +354,299 @@ public class OpenAITTSClient {
      * @return a CompletableFuture containing the Path to the saved file
      */
     public CompletableFuture<Path> generateSpeechToFile(String input, String voice, String model, Path targetPath) {
-        return generateSpeech(input, voice, model)
-                .thenApply(audioBytes -> {
-                    try {
-                        Path finalPath = resolveTargetPath(targetPath, "mp3");
-                        Files.write(finalPath, audioBytes);
-                        logger.info("Speech generated and saved to: {}", finalPath.toAbsolutePath());
-                        return finalPath;
-                    } catch (IOException e) {
-                        logger.error("Failed to save speech to file", e);
-                        throw new RuntimeException("Failed to save audio to file", e);
+        return generateSpeechToFile(input, voice, model, null, null, targetPath);
+    }
+
+    /**
+     * Generates speech and streams it straight to a file, so heap usage does not
+     * grow with the length of the audio. The body is written to a temporary file
+     * next to the target and moved into place once complete, so the target never
+     * holds partial audio. A missing extension is taken from the format.
+     *
+     * @param input        the text to generate speech for
+     * @param voice        the voice to use
+     * @param model        the model to use
+     * @param instructions optional instructions (supported by gpt-4o-mini-tts)
+     * @param format       optional response format; defaults to mp3
+     * @param targetPath   optional target path. If it's a directory or null, a
+     *                     random filename is generated.
+     * @return a CompletableFuture containing the Path to the saved file
+     */
+    public CompletableFuture<Path> generateSpeechToFile(String input, String voice, String model, String instructions,
+            String format, Path targetPath) {
+        String extension = format == null || format.isEmpty() ? OpenAIModels.SpeechFormats.MP3 : format;
+        Path finalPath = resolveTargetPath(targetPath, extension);
+        Path tempFile;
+        try {
+            Path directory = finalPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, ".speech_", ".tmp");
+        } catch (IOException e) {
+            logger.error("Failed to create temporary speech file", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to save audio to file", e));
+        }
+
+        HttpRequest request = buildRequest(input, voice, model, instructions, format);
+
+        logger.debug("Sending TTS request to OpenAI: {} with voice {}, streaming to {}", model, voice, finalPath);
+
+        TtsRequestEvent trace = beginTrace(model, voice, format, false);
+        return send(request, responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                return errorBody(responseInfo);
+            }
+            return HttpResponse.BodySubscribers.ofFile(tempFile);
+        }).thenApply(file -> {
+            try {
+                moveIntoPlace(tempFile, finalPath);
+                logger.info("Speech generated and saved to: {}", finalPath.toAbsolutePath());
+                return finalPath;
+            } catch (IOException e) {
+                logger.error("Failed to save speech to file", e);
+                throw new RuntimeException("Failed to save audio to file", e);
+            }
+        }).whenComplete((path, throwable) -> {
+            commitTrace(trace, 0, 0, throwable == null);
+            if (throwable != null) {
+                deleteQuietly(tempFile);
+            }
+        });
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temporary speech file {}", path, e);
+        }
+    }
+
+    /**
+     * Forwards response body buffers to a {@link SpeechChunkHandler} as they
+     * arrive, holding back a trailing odd byte of PCM so every chunk contains
+     * whole samples.
+     */
+    private final class SpeechChunkSubscriber implements HttpResponse.BodySubscriber<SpeechStreamResult> {
+        private final SpeechChunkHandler handler;
+        private final boolean pcm;
+        private final long startNanos;
+        private final CompletableFuture<SpeechStreamResult> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long firstByteNanos = -1;
+        private long bytes;
+        private int carry = -1;
+
+        SpeechChunkSubscriber(SpeechChunkHandler handler, boolean pcm, long startNanos) {
+            this.handler = handler;
+            this.pcm = pcm;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public CompletionStage<SpeechStreamResult> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    deliver(buffer);
+                }
+                subscription.request(1);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void deliver(ByteBuffer buffer) {
+            if (!buffer.hasRemaining()) {
+                return;
+            }
+            if (firstByteNanos < 0) {
+                firstByteNanos = System.nanoTime();
+                timeToFirstByte.recordNanos(firstByteNanos - startNanos);
+                logger.debug("TTS first byte after {} ms", (firstByteNanos - startNanos) / 1_000_000);
+            }
+            if (pcm) {
+                buffer = alignToSamples(buffer);
+                if (buffer == null) {
+                    return;
+                }
+            }
+            bytes += buffer.remaining();
+            handler.onSpeechChunk(buffer);
+        }
+
+        private ByteBuffer alignToSamples(ByteBuffer buffer) {
+            int length = buffer.remaining() + (carry >= 0 ? 1 : 0);
+            int whole = length & ~1;
+            if (whole == 0) {
+                carry = buffer.get() & 0xFF;
+                return null;
+            }
+            ByteBuffer aligned;
+            if (carry >= 0) {
+                aligned = ByteBuffer.allocate(whole);
+                aligned.put((byte) carry);
+                aligned.put(buffer.slice(buffer.position(), whole - 1));
+                buffer.position(buffer.position() + whole - 1);
+                aligned.flip();
+            } else {
+                aligned = buffer.slice(buffer.position(), whole);
+                buffer.position(buffer.position() + whole);
+            }
+            carry = buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            return aligned;
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (carry >= 0) {
+                logger.warn("TTS PCM stream ended with an incomplete sample");
+            }
+            long endNanos = System.nanoTime();
+            result.complete(new SpeechStreamResult(bytes,
+                    Duration.ofNanos(firstByteNanos < 0 ? 0 : firstByteNanos - startNanos),
+                    Duration.ofNanos(endNanos - startNanos)));
+        }
+    }
+
+    /**
+     * One request raced against an optional hedge. The first attempt to
+     * receive headers claims the body handler; the other is cancelled, and if
+     * its headers arrive anyway its body is discarded unread.
+     */
+    private final class HedgedExchange<T> {
+        private final HttpRequest request;
+        private final HttpResponse.BodyHandler<T> bodyHandler;
+        private final HedgingPolicy policy;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger winner = new AtomicInteger(-1);
+        // Attempts started and not yet failed; a count of -1 means no more may start
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicReferenceArray<CompletableFuture<?>> attempts = new AtomicReferenceArray<>(2);
+        private final long startNanos = System.nanoTime();
+
+        HedgedExchange(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, HedgingPolicy policy) {
+            this.request = request;
+            this.bodyHandler = bodyHandler;
+            this.policy = policy;
+        }
+
+        CompletableFuture<T> start() {
+            policy.onRequest();
+            outstanding.incrementAndGet();
+            launch(0);
+            Duration delay = policy.getHedgeDelay();
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(this::hedge);
+            result.whenComplete((body, throwable) -> {
+                if (result.isCancelled()) {
+                    cancel(0);
+                    cancel(1);
+                }
+            });
+            return result;
+        }
+
+        private void hedge() {
+            if (winner.get() >= 0 || result.isDone() || !policy.tryHedge()) {
+                return;
+            }
+            if (outstanding.getAndUpdate(n -> n <= 0 ? n : n + 1) <= 0) {
+                return;
+            }
+            logger.debug("Hedging TTS request after {} ms without headers",
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            launch(1);
+        }
+
+        private void launch(int index) {
+            CompletableFuture<HttpResponse<T>> attempt = transport.sendAsync(request, responseInfo -> {
+                if (!winner.compareAndSet(-1, index)) {
+                    return new DiscardingSubscriber<>();
+                }
+                policy.onHeaders(System.nanoTime() - startNanos, index == 1);
+                cancel(1 - index);
+                return bodyHandler.apply(responseInfo);
+            });
+            attempts.set(index, attempt);
+            if (winner.get() >= 0 && winner.get() != index) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((response, throwable) -> {
+                if (winner.get() == index) {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(response.body());
                     }
-                });
+                } else if (outstanding.decrementAndGet() == 0 && winner.get() < 0) {
+                    outstanding.set(-1);
+                    result.completeExceptionally(throwable != null ? throwable
+                            : new IllegalStateException("TTS request ended without a response"));
+                }
+            });
+        }
+
+        private void cancel(int index) {
+            CompletableFuture<?> attempt = attempts.get(index);
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Cancels the body of a losing hedge attempt as soon as it is offered.
+     */
+    private static final class DiscardingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final CompletableFuture<T> body = new CompletableFuture<>();
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+            body.complete(null);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.complete(null);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(null);
+        }
     }
 
     private Path resolveTargetPath(Path targetPath, String extension) {
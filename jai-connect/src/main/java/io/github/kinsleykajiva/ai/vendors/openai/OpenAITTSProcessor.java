@@ -0,0 +1,81 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.pipeline.AudioFrame;
+import io.github.kinsleykajiva.ai.pipeline.Frame;
+import io.github.kinsleykajiva.ai.pipeline.FrameProcessor;
+import io.github.kinsleykajiva.ai.pipeline.TextFrame;
+
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Pipeline stage that speaks {@link TextFrame}s with {@link OpenAITTSClient},
+ * pushing the speech downstream as 24 kHz {@link AudioFrame}s while it
+ * streams. Texts are spoken one at a time, in order; an interrupt cancels the
+ * request in progress. Other frames are passed on.
+ */
+public class OpenAITTSProcessor extends FrameProcessor {
+    private static final int SAMPLE_RATE = 24000;
+
+    private final OpenAITTSClient client;
+    private final String voice;
+    private final String model;
+    private volatile CompletableFuture<SpeechStreamResult> inFlight;
+
+    public OpenAITTSProcessor(OpenAITTSClient client, String voice, String model) {
+        super("OpenAI-TTS");
+        this.client = Objects.requireNonNull(client, "TTS client cannot be null");
+        this.voice = Objects.requireNonNull(voice, "Voice cannot be null");
+        this.model = Objects.requireNonNull(model, "Model cannot be null");
+    }
+
+    @Override
+    protected void processFrame(Frame frame) throws InterruptedException {
+        if (!(frame instanceof TextFrame text)) {
+            push(frame);
+            return;
+        }
+        if (text.text().isBlank()) {
+            return;
+        }
+        long generation = getGeneration();
+        CompletableFuture<SpeechStreamResult> speech = client.streamSpeech(text.text(), voice, model, chunk -> {
+            ShortBuffer samples = chunk.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+            short[] pcm = new short[samples.remaining()];
+            samples.get(pcm);
+            boolean pushed;
+            try {
+                pushed = push(new AudioFrame(pcm, SAMPLE_RATE), generation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pushed = false;
+            }
+            if (!pushed) {
+                // Interrupted: failing the handler cancels the download
+                throw new CancellationException("Interrupted");
+            }
+        });
+        inFlight = speech;
+        try {
+            speech.join();
+        } catch (CancellationException | CompletionException e) {
+            if (getGeneration() == generation) {
+                throw e;
+            }
+        } finally {
+            inFlight = null;
+        }
+    }
+
+    @Override
+    protected void onInterrupt() {
+        CompletableFuture<SpeechStreamResult> speech = inFlight;
+        if (speech != null) {
+            speech.cancel(true);
+        }
+    }
+}
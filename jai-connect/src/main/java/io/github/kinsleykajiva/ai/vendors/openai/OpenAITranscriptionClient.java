@@ -0,0 +1,303 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.audio.WavFile;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Client for OpenAI's speech-to-text REST API, for recorded audio.
+ * Uses the /v1/audio/transcriptions endpoint.
+ * <p>
+ * Audio is uploaded as a streamed multipart body, so files of any size are
+ * never loaded into heap. PCM WAV recordings longer than the chunk length are
+ * split into overlapping chunks that are transcribed in parallel and merged:
+ * the overlap is de-duplicated by segment timing where the model returns it
+ * ({@code whisper-1}, diarized models) and by matching words otherwise, and
+ * diarized speaker labels are kept consistent across chunks. Chunks are also
+ * kept under the API's {@linkplain #MAX_UPLOAD_BYTES upload limit}, so short
+ * recordings at high sample rates are split too. Other formats are uploaded
+ * whole and are rejected up front if they exceed the limit.
+ */
+public class OpenAITranscriptionClient {
+    private static final Logger logger = LoggerFactory.getLogger(OpenAITranscriptionClient.class);
+    private static final String TRANSCRIPTIONS_PATH = "audio/transcriptions";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
+    public static final Duration DEFAULT_CHUNK_LENGTH = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_OVERLAP = Duration.ofSeconds(4);
+    public static final int DEFAULT_PARALLELISM = 4;
+    /**
+     * Largest file the transcription endpoint accepts.
+     */
+    public static final long MAX_UPLOAD_BYTES = 25L * 1024 * 1024;
+
+    private final OpenAIConfig config;
+    private final OpenAITransport transport;
+    private final URI endpoint;
+    private final Duration chunkLength;
+    private final Duration overlap;
+    private final int parallelism;
+
+    public OpenAITranscriptionClient(OpenAIConfig config) {
+        this(config, OpenAITransport.shared());
+    }
+
+    public OpenAITranscriptionClient(OpenAIConfig config, OpenAITransport transport) {
+        this(config, transport, DEFAULT_CHUNK_LENGTH, DEFAULT_OVERLAP, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param config      API credentials
+     * @param transport   transport requests are sent through; the endpoint is
+     *                    resolved under its base URL
+     * @param chunkLength length of the chunks long WAV recordings are split into
+     * @param overlap     audio shared by neighbouring chunks, so words at a
+     *                    boundary are heard whole by one of them
+     * @param parallelism maximum chunks transcribed at once
+     */
+    public OpenAITranscriptionClient(OpenAIConfig config, OpenAITransport transport, Duration chunkLength,
+            Duration overlap, int parallelism) {
+        this.config = Objects.requireNonNull(config, "OpenAIConfig cannot be null");
+        this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+        this.endpoint = transport.resolve(TRANSCRIPTIONS_PATH);
+        if (chunkLength.compareTo(overlap.multipliedBy(2)) <= 0 || overlap.isNegative()) {
+            throw new IllegalArgumentException("Chunk length must be more than twice the overlap");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.chunkLength = chunkLength;
+        this.overlap = overlap;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Transcribes a recording.
+     *
+     * @param file  the audio file
+     * @param model the model to use (e.g., "whisper-1", "gpt-4o-transcribe")
+     * @return a CompletableFuture containing the transcription
+     */
+    public CompletableFuture<Transcription> transcribe(Path file, String model) {
+        return transcribe(file, model, null, null);
+    }
+
+    /**
+     * Transcribes a recording, splitting long PCM WAV files into overlapping
+     * chunks transcribed in parallel.
+     *
+     * @param file     the audio file
+     * @param model    the model to use
+     * @param language optional ISO-639-1 language of the audio
+     * @param prompt   optional text to guide the style or vocabulary; not
+     *                 supported by the diarization model
+     * @return a CompletableFuture containing the merged transcription
+     */
+    public CompletableFuture<Transcription> transcribe(Path file, String model, String language, String prompt) {
+        Objects.requireNonNull(file, "File cannot be null");
+        Objects.requireNonNull(model, "Model cannot be null");
+        String fileName = file.getFileName().toString();
+        WavFile wav = null;
+        try {
+            if (fileName.toLowerCase(Locale.ROOT).endsWith(".wav")) {
+                wav = WavFile.read(file);
+            }
+        } catch (IOException e) {
+            logger.debug("Uploading {} whole: {}", fileName, e.getMessage());
+        }
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to read audio file", e));
+        }
+        if (wav == null && size > MAX_UPLOAD_BYTES) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(fileName + " is " + size
+                    + " bytes, over the " + MAX_UPLOAD_BYTES + " byte upload limit; only PCM WAV files are split"));
+        }
+        if (wav == null || (wav.getDurationSeconds() <= chunkLength.toMillis() / 1000.0 && size <= MAX_UPLOAD_BYTES)) {
+            MultipartBody body = form(model, language, prompt)
+                    .file("file", fileName, contentType(fileName), null, file, 0, size);
+            double duration = wav == null ? 0 : wav.getDurationSeconds();
+            return send(body, model).thenApply(result -> new Transcription(result.text(), result.segments(),
+                    duration > 0 ? duration : result.duration()));
+        }
+        return transcribeChunks(file, wav, model, language, prompt);
+    }
+
+    /**
+     * Transcribes audio read from a channel, e.g. a socket or a pipe from a
+     * decoder. The audio is streamed with chunked transfer encoding and is not
+     * split, so it must fit the API's upload limit.
+     *
+     * @param channel  the audio; read once, not closed
+     * @param fileName a file name whose extension tells the API the format
+     * @param model    the model to use
+     * @return a CompletableFuture containing the transcription
+     */
+    public CompletableFuture<Transcription> transcribe(ReadableByteChannel channel, String fileName, String model) {
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        MultipartBody body = form(model, null, null).file("file", fileName, contentType(fileName), channel);
+        return send(body, model);
+    }
+
+    private CompletableFuture<Transcription> transcribeChunks(Path file, WavFile wav, String model, String language,
+            String prompt) {
+        int blockAlign = wav.getBlockAlign();
+        long bytesPerSecond = (long) wav.getSampleRate() * blockAlign;
+        long maxChunkBytes = (MAX_UPLOAD_BYTES - WavFile.HEADER_BYTES) / blockAlign * blockAlign;
+        long chunkBytes = Math.min(chunkLength.toMillis() * bytesPerSecond / 1000 / blockAlign * blockAlign,
+                maxChunkBytes);
+        // The upload limit may shorten chunks below twice the configured overlap
+        long overlapBytes = Math.min(overlap.toMillis() * bytesPerSecond / 1000, chunkBytes / 4) / blockAlign
+                * blockAlign;
+        long step = chunkBytes - overlapBytes;
+
+        List<long[]> ranges = new ArrayList<>();
+        for (long start = 0; start < wav.getDataLength(); start += step) {
+            long length = Math.min(chunkBytes, wav.getDataLength() - start);
+            ranges.add(new long[] { start, length });
+            if (start + length >= wav.getDataLength()) {
+                break;
+            }
+        }
+        logger.info("Transcribing {} in {} chunks of up to {} s with {} s overlap", file.getFileName(), ranges.size(),
+                chunkBytes / bytesPerSecond, (double) overlapBytes / bytesPerSecond);
+
+        List<CompletableFuture<Transcription>> results = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        Iterator<Integer> remaining = IntStream.range(0, ranges.size()).iterator();
+        for (int i = 0; i < Math.min(parallelism, ranges.size()); i++) {
+            transcribeNext(remaining, ranges, results, file, wav, model, language, prompt);
+        }
+        return CompletableFuture.allOf(results.toArray(CompletableFuture<?>[]::new)).thenApply(done -> {
+            List<TranscriptMerger.Chunk> chunks = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                chunks.add(new TranscriptMerger.Chunk((double) ranges.get(i)[0] / bytesPerSecond,
+                        results.get(i).join()));
+            }
+            return TranscriptMerger.merge(chunks, (double) overlapBytes / bytesPerSecond, wav.getDurationSeconds());
+        });
+    }
+
+    private CompletableFuture<Void> transcribeNext(Iterator<Integer> remaining, List<long[]> ranges,
+            List<CompletableFuture<Transcription>> results, Path file, WavFile wav, String model, String language,
+            String prompt) {
+        int index;
+        synchronized (remaining) {
+            if (!remaining.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            index = remaining.next();
+        }
+        long[] range = ranges.get(index);
+        ByteBuffer header = WavFile.header(wav.getSampleRate(), wav.getChannels(), wav.getBitsPerSample(), range[1]);
+        MultipartBody body = form(model, language, prompt).file("file", "chunk_" + index + ".wav", "audio/wav",
+                header, file, wav.getDataOffset() + range[0], range[1]);
+        return send(body, model)
+                .handle((transcription, throwable) -> {
+                    if (throwable != null) {
+                        logger.warn("Transcription of chunk {} failed", index, throwable);
+                        results.get(index).completeExceptionally(throwable);
+                    } else {
+                        results.get(index).complete(transcription);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> transcribeNext(remaining, ranges, results, file, wav, model, language,
+                        prompt));
+    }
+
+    private MultipartBody form(String model, String language, String prompt) {
+        boolean diarize = OpenAIModels.GPT_4O_TRANSCRIBE_DIARIZE.equals(model);
+        return new MultipartBody()
+                .field("model", model)
+                .field("response_format", responseFormat(model))
+                .field("language", language)
+                .field("prompt", diarize ? null : prompt)
+                .field("chunking_strategy", diarize ? "auto" : null)
+                .field("timestamp_granularities[]", OpenAIModels.WHISPER_1.equals(model) ? "segment" : null);
+    }
+
+    private CompletableFuture<Transcription> send(MultipartBody body, String model) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(endpoint)
+                .header("Authorization", "Bearer " + config.apiKey())
+                .header("Content-Type", body.contentType())
+                .POST(body.build())
+                .timeout(DEFAULT_TIMEOUT)
+                .build();
+
+        logger.debug("Sending transcription request to OpenAI: {}", model);
+
+        return transport.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        logger.error("Transcription request failed with status {}: {}", response.statusCode(),
+                                response.body());
+                        throw OpenAIApiException.fromResponse("Transcription request failed", response.statusCode(),
+                                response.headers(), response.body());
+                    }
+                    return parse(new JSONObject(response.body()));
+                });
+    }
+
+    static Transcription parse(JSONObject json) {
+        List<TranscriptSegment> segments = new ArrayList<>();
+        JSONArray array = json.optJSONArray("segments");
+        if (array != null) {
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject segment = array.getJSONObject(i);
+                segments.add(new TranscriptSegment(segment.optDouble("start", 0), segment.optDouble("end", 0),
+                        segment.optString("text", ""), segment.optString("speaker", null)));
+            }
+        }
+        return new Transcription(json.optString("text", ""), segments, json.optDouble("duration", 0));
+    }
+
+    private static String responseFormat(String model) {
+        if (OpenAIModels.WHISPER_1.equals(model)) {
+            return "verbose_json";
+        }
+        if (OpenAIModels.GPT_4O_TRANSCRIBE_DIARIZE.equals(model)) {
+            return "diarized_json";
+        }
+        return "json";
+    }
+
+    private static String contentType(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "wav" -> "audio/wav";
+            case "mp3", "mpga", "mpeg" -> "audio/mpeg";
+            case "m4a", "mp4" -> "audio/mp4";
+            case "ogg", "oga" -> "audio/ogg";
+            case "webm" -> "audio/webm";
+            case "flac" -> "audio/flac";
+            default -> "application/octet-stream";
+        };
+    }
+}
@@ -0,0 +1,341 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP transport shared by the OpenAI clients.
+ * <p>
+ * Owns a single {@link HttpClient} negotiating HTTP/2, so concurrent REST
+ * calls are multiplexed as streams over one TLS connection per host instead of
+ * each client paying its own handshakes and running its own selector thread.
+ * Paths are resolved against a configurable base URL, which can point at a
+ * regional endpoint, a proxy or a local stand-in. Clients created without a
+ * transport use {@link #shared()}.
+ */
+public final class OpenAITransport implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OpenAITransport.class);
+
+    public static final URI DEFAULT_BASE_URL = URI.create("https://api.openai.com/v1/");
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static volatile OpenAITransport shared;
+
+    private final URI baseUrl;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final AtomicInteger streamsInFlight = new AtomicInteger();
+    private final AtomicInteger openWebSockets = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http1Responses = new LongAdder();
+    private final LatencyHistogram requestLatency = new LatencyHistogram("http-request");
+
+    /**
+     * Creates a transport for the public API.
+     */
+    public OpenAITransport() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    /**
+     * Creates a transport that resolves paths against the given base URL, e.g.
+     * {@code https://eu.api.openai.com/v1/} or {@code http://localhost:8080/v1/}.
+     */
+    public OpenAITransport(URI baseUrl) {
+        this(baseUrl, DEFAULT_CONNECT_TIMEOUT, null);
+    }
+
+    /**
+     * @param baseUrl        base URL that request paths are resolved against
+     * @param connectTimeout timeout for establishing connections
+     * @param executor       executor for response handling; if {@code null} the
+     *                       transport creates a daemon pool and shuts it down on
+     *                       {@link #close()}
+     */
+    public OpenAITransport(URI baseUrl, Duration connectTimeout, ExecutorService executor) {
+        Objects.requireNonNull(baseUrl, "Base URL cannot be null");
+        Objects.requireNonNull(connectTimeout, "Connect timeout cannot be null");
+        String url = baseUrl.toString();
+        this.baseUrl = url.endsWith("/") ? baseUrl : URI.create(url + "/");
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newFixedThreadPool(DEFAULT_THREADS, r -> {
+            Thread t = new Thread(r, "OpenAI-Transport-" + System.nanoTime());
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(this.executor)
+                .build();
+    }
+
+    /**
+     * Returns the process-wide transport for the public API, creating it on
+     * first use. Closing it is a no-op.
+     */
+    public static OpenAITransport shared() {
+        OpenAITransport transport = shared;
+        if (transport == null) {
+            synchronized (OpenAITransport.class) {
+                transport = shared;
+                if (transport == null) {
+                    transport = new OpenAITransport();
+                    shared = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Returns the underlying client, for requests the transport does not wrap.
+     * Such requests are not included in the metrics.
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Resolves a path such as {@code audio/speech} against the base URL.
+     */
+    public URI resolve(String path) {
+        return baseUrl.resolve(path.startsWith("/") ? path.substring(1) : path);
+    }
+
+    /**
+     * Resolves a path against the base URL with the scheme switched to
+     * {@code ws} or {@code wss}.
+     */
+    public URI resolveWebSocket(String path) {
+        URI uri = resolve(path);
+        String scheme = "http".equalsIgnoreCase(uri.getScheme()) ? "ws" : "wss";
+        return URI.create(scheme + uri.toString().substring(uri.getScheme().length()));
+    }
+
+    /**
+     * Sends a request asynchronously, recording its latency up to the
+     * completion of the body handler. Cancelling the returned future aborts
+     * the exchange.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> bodyHandler) {
+        if (closed.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Transport is closed"));
+        }
+        requests.increment();
+        streamsInFlight.incrementAndGet();
+        long startNanos = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> exchange = httpClient.sendAsync(request, bodyHandler);
+        CompletableFuture<HttpResponse<T>> result = exchange.whenComplete((response, throwable) -> {
+            streamsInFlight.decrementAndGet();
+            requestLatency.recordSince(startNanos);
+            if (throwable != null) {
+                if (!isCancellation(throwable)) {
+                    failures.increment();
+                }
+            } else if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            } else {
+                http1Responses.increment();
+            }
+        });
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static boolean isCancellation(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        return cause instanceof CancellationException;
+    }
+
+    /**
+     * Opens a WebSocket with the given headers. Each WebSocket holds its own
+     * connection, counted by {@link #getOpenWebSockets()} until it closes.
+     */
+    public CompletableFuture<WebSocket> openWebSocket(URI uri, Map<String, String> headers,
+            WebSocket.Listener listener) {
+        if (closed.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Transport is closed"));
+        }
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder();
+        headers.forEach(builder::header);
+        return builder.buildAsync(uri, new CountingListener(listener));
+    }
+
+    /**
+     * Returns the number of requests whose response has not completed. Over
+     * HTTP/2 these share connections as concurrent streams.
+     */
+    public int getStreamsInFlight() {
+        return streamsInFlight.get();
+    }
+
+    /**
+     * Returns the number of WebSocket connections currently open.
+     */
+    public int getOpenWebSockets() {
+        return openWebSockets.get();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of requests that failed at the transport level, or
+     * whose body handler failed. Cancelled requests are not counted.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the number of responses received over HTTP/2. Responses over
+     * HTTP/1.1 mean the server or a proxy refused HTTP/2 and each concurrent
+     * request needs its own connection.
+     */
+    public long getHttp2Responses() {
+        return http2Responses.sum();
+    }
+
+    public long getHttp1Responses() {
+        return http1Responses.sum();
+    }
+
+    /**
+     * Returns the latency histogram of requests sent through the transport.
+     */
+    public LatencyHistogram getRequestLatency() {
+        return requestLatency;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OpenAITransport{baseUrl=%s, streamsInFlight=%d, openWebSockets=%d, requests=%d, "
+                + "failures=%d, http2=%d, http1=%d, %s}", baseUrl, getStreamsInFlight(), getOpenWebSockets(),
+                getRequests(), getFailures(), getHttp2Responses(), getHttp1Responses(), requestLatency);
+    }
+
+    /**
+     * Stops accepting requests and, if the transport created its executor,
+     * shuts it down. The shared transport cannot be closed.
+     */
+    @Override
+    public void close() {
+        if (this == shared) {
+            logger.debug("Ignoring close of the shared OpenAI transport");
+            return;
+        }
+        if (closed.compareAndSet(false, true) && ownsExecutor) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Delegates to the caller's listener, tracking whether the WebSocket is
+     * still open.
+     */
+    private final class CountingListener implements WebSocket.Listener {
+        private final WebSocket.Listener delegate;
+        private final AtomicBoolean open = new AtomicBoolean(false);
+
+        CountingListener(WebSocket.Listener delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "Listener cannot be null");
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            if (open.compareAndSet(false, true)) {
+                openWebSockets.incrementAndGet();
+            }
+            delegate.onOpen(webSocket);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            return delegate.onText(webSocket, data, last);
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            return delegate.onBinary(webSocket, data, last);
+        }
+
+        @Override
+        public CompletionStage<?> onPing(WebSocket webSocket, ByteBuffer message) {
+            return delegate.onPing(webSocket, message);
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            return delegate.onPong(webSocket, message);
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closed();
+            return delegate.onClose(webSocket, statusCode, reason);
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            closed();
+            delegate.onError(webSocket, error);
+        }
+
+        private void closed() {
+            if (open.compareAndSet(true, false)) {
+                openWebSockets.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+/**
+ * Receives session output from {@link OpenAIRealtimeClient} on the WebSocket
+ * thread, in the order the events arrive. Implementations must not block: the
+ * same thread reads the events that would interrupt them.
+ */
+interface RealtimeOutputTap {
+    /**
+     * Called when the server starts a response, before any of its audio.
+     */
+    void onResponseCreated(String responseId);
+
+    /**
+     * Called with each output audio delta, decoded to PCM16 at the output
+     * sample rate. The array is not reused.
+     */
+    void onOutputAudio(short[] pcm);
+
+    /**
+     * Called with each input transcription delta and completed transcript.
+     */
+    void onInputTranscription(String itemId, String text, boolean isFinal);
+
+    /**
+     * Called when the server detects the user starting to speak.
+     */
+    void onSpeechStarted();
+}
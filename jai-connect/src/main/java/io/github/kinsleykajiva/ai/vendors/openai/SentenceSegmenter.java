@@ -0,0 +1,141 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits incrementally arriving text into sentence-sized segments for speech
+ * synthesis. A segment ends at sentence punctuation followed by whitespace, or
+ * at a line break. Text that grows past the maximum length without a sentence
+ * end is cut at the last clause punctuation, or failing that the last space.
+ * Instances are not thread-safe.
+ */
+final class SentenceSegmenter {
+    private static final Set<String> ABBREVIATIONS = Set.of(
+            "mr", "mrs", "ms", "dr", "prof", "sr", "jr", "st", "vs", "etc", "e.g", "i.e", "approx");
+
+    private final int minLength;
+    private final int maxLength;
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * @param minLength segments shorter than this are merged with the next
+     *                  sentence, avoiding a request per "Yes."
+     * @param maxLength length at which a sentence is cut at a clause boundary
+     */
+    SentenceSegmenter(int minLength, int maxLength) {
+        if (minLength < 0 || maxLength <= minLength) {
+            throw new IllegalArgumentException("Max length must exceed min length");
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Appends text and returns the segments it completed.
+     */
+    List<String> append(CharSequence text) {
+        pending.append(text);
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int scanFrom = 0;
+        while (true) {
+            int end = findSentenceEnd(start, scanFrom);
+            if (end < 0) {
+                if (pending.length() - start >= maxLength) {
+                    end = findClauseEnd(start, start + maxLength);
+                } else {
+                    break;
+                }
+            } else if (end - start < minLength) {
+                scanFrom = end;
+                continue;
+            }
+            addSegment(segments, start, end);
+            start = end;
+            scanFrom = end;
+        }
+        pending.delete(0, start);
+        return segments;
+    }
+
+    /**
+     * Returns whatever text remains as a final segment, or {@code null}.
+     */
+    String flush() {
+        String rest = pending.toString().strip();
+        pending.setLength(0);
+        return rest.isEmpty() ? null : rest;
+    }
+
+    private void addSegment(List<String> segments, int start, int end) {
+        String segment = pending.substring(start, end).strip();
+        if (!segment.isEmpty()) {
+            segments.add(segment);
+        }
+    }
+
+    /**
+     * Returns the index just past a sentence end at or after {@code from}, or -1
+     * if none is known yet.
+     */
+    private int findSentenceEnd(int start, int from) {
+        for (int i = Math.max(from, start); i < pending.length(); i++) {
+            char c = pending.charAt(i);
+            if (c == '\n') {
+                return i + 1;
+            }
+            if (isSentencePunctuation(c)) {
+                if (i + 1 >= pending.length()) {
+                    // Need the next character to rule out "3.5", "e.g." and the like
+                    return -1;
+                }
+                if (Character.isWhitespace(pending.charAt(i + 1)) && !(c == '.' && isAbbreviation(start, i))) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int findClauseEnd(int start, int limit) {
+        int space = -1;
+        for (int i = limit - 1; i > start; i--) {
+            char c = pending.charAt(i);
+            if ((c == ',' || c == ';' || c == ':' || c == '—') && i + 1 < pending.length()
+                    && Character.isWhitespace(pending.charAt(i + 1))) {
+                return i + 1;
+            }
+            if (space < 0 && Character.isWhitespace(c)) {
+                space = i;
+            }
+        }
+        return space > start ? space : limit;
+    }
+
+    private static boolean isSentencePunctuation(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？' || c == '…';
+    }
+
+    private boolean isAbbreviation(int start, int period) {
+        int wordStart = period;
+        while (wordStart > start && !Character.isWhitespace(pending.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        if (wordStart == period) {
+            return false;
+        }
+        String word = pending.substring(wordStart, period).toLowerCase();
+        if (word.equals("no")) {
+            // "No. 5" but not "No. I won't"; undecided until the next word arrives
+            int next = period + 1;
+            while (next < pending.length() && Character.isWhitespace(pending.charAt(next))) {
+                next++;
+            }
+            return next == pending.length() || Character.isDigit(pending.charAt(next));
+        }
+        // Single letters are initials ("J. Smith")
+        return word.length() == 1 && Character.isLetter(word.charAt(0)) || ABBREVIATIONS.contains(word);
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs large numbers of TTS requests with a bound on concurrent API calls and
+ * rate-limit aware retries.
+ * <p>
+ * Requests are pulled lazily from the supplied iterator or stream, so a batch
+ * of any size is never materialized. At most {@code maxInFlight} requests are
+ * outstanding at once, retries included. Rate limiting (429), timeouts (408),
+ * server errors and I/O failures are retried: the delay is the server's
+ * {@code Retry-After} or rate-limit reset header when present, otherwise
+ * exponential backoff with full jitter. A 429 also pauses every worker until
+ * the reset time, since the limit applies to the whole account. Other errors
+ * fail only that request. Results are handed to the consumer as they
+ * complete, in completion order.
+ */
+public final class SpeechBatchExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(SpeechBatchExecutor.class);
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final OpenAITTSClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram("tts-batch-request");
+    // Account-wide pause requested by the last 429, as System.nanoTime()
+    private final AtomicLong pausedUntilNanos = new AtomicLong(System.nanoTime());
+    private volatile long firstStartNanos = -1;
+
+    public SpeechBatchExecutor(OpenAITTSClient client) {
+        this(client, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param client      the client used for synthesis
+     * @param maxInFlight maximum concurrent API calls
+     * @param maxAttempts attempts per request before it is reported as failed
+     */
+    public SpeechBatchExecutor(OpenAITTSClient client, int maxInFlight, int maxAttempts) {
+        this.client = Objects.requireNonNull(client, "TTS client cannot be null");
+        if (maxInFlight <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max in flight and attempts must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Runs every request in the stream. The stream is consumed lazily and
+     * closed when the batch finishes.
+     *
+     * @param onResult called once per request as it completes, from HTTP client
+     *                 threads, possibly concurrently
+     * @return a CompletableFuture completed after every result was delivered
+     */
+    public CompletableFuture<Void> execute(Stream<SpeechRequest> requests, Consumer<SpeechBatchResult> onResult) {
+        return execute(requests.iterator(), onResult).whenComplete((ignored, throwable) -> requests.close());
+    }
+
+    /**
+     * Runs every request in the collection or other iterable.
+     */
+    public CompletableFuture<Void> execute(Iterable<SpeechRequest> requests, Consumer<SpeechBatchResult> onResult) {
+        return execute(requests.iterator(), onResult);
+    }
+
+    private CompletableFuture<Void> execute(Iterator<SpeechRequest> requests, Consumer<SpeechBatchResult> onResult) {
+        Objects.requireNonNull(onResult, "Result consumer cannot be null");
+        if (firstStartNanos < 0) {
+            firstStartNanos = System.nanoTime();
+        }
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[maxInFlight];
+        for (int i = 0; i < maxInFlight; i++) {
+            workers[i] = runNext(requests, onResult);
+        }
+        return CompletableFuture.allOf(workers);
+    }
+
+    private CompletableFuture<Void> runNext(Iterator<SpeechRequest> requests, Consumer<SpeechBatchResult> onResult) {
+        // Cache hits complete synchronously: loop over them instead of chaining, which would recurse
+        while (true) {
+            SpeechRequest request;
+            synchronized (requests) {
+                if (!requests.hasNext()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                request = requests.next();
+            }
+            CompletableFuture<Void> delivered = attempt(request, 1, System.nanoTime())
+                    .thenAccept(result -> {
+                        try {
+                            onResult.accept(result);
+                        } catch (RuntimeException e) {
+                            logger.error("Speech batch result consumer failed", e);
+                        }
+                    });
+            if (!delivered.isDone()) {
+                return delivered.thenCompose(ignored -> runNext(requests, onResult));
+            }
+        }
+    }
+
+    private CompletableFuture<SpeechBatchResult> attempt(SpeechRequest request, int attempt, long startNanos) {
+        return afterPause().thenCompose(ignored -> {
+            inFlight.incrementAndGet();
+            long callStart = System.nanoTime();
+            return client.generateSpeech(request.input(), request.voice(), request.model(), request.instructions(),
+                    request.format())
+                    .handle((audio, throwable) -> {
+                        inFlight.decrementAndGet();
+                        latency.recordSince(callStart);
+                        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                        if (throwable == null) {
+                            succeeded.increment();
+                            return CompletableFuture.completedFuture(
+                                    new SpeechBatchResult(request, audio, null, attempt, elapsed));
+                        }
+                        Throwable cause = unwrap(throwable);
+                        if (attempt >= maxAttempts || !isRetryable(cause)) {
+                            failed.increment();
+                            logger.warn("Speech request failed after {} attempts: {}", attempt, cause.getMessage());
+                            return CompletableFuture.completedFuture(
+                                    new SpeechBatchResult(request, null, cause, attempt, elapsed));
+                        }
+                        retries.increment();
+                        long delayMs = retryDelayMs(cause, attempt);
+                        logger.debug("Retrying speech request in {} ms (attempt {}): {}", delayMs, attempt + 1,
+                                cause.getMessage());
+                        return CompletableFuture.runAsync(() -> {
+                        }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS))
+                                .thenCompose(delayed -> attempt(request, attempt + 1, startNanos));
+                    })
+                    .thenCompose(next -> next);
+        });
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of 429 responses received.
+     */
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Returns the fraction of finished requests that failed.
+     */
+    public double getErrorRate() {
+        long failures = failed.sum();
+        long total = failures + succeeded.sum();
+        return total == 0 ? 0 : (double) failures / total;
+    }
+
+    /**
+     * Returns successfully completed requests per second since the first batch
+     * started.
+     */
+    public double getThroughputPerSecond() {
+        long start = firstStartNanos;
+        if (start < 0) {
+            return 0;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return seconds <= 0 ? 0 : succeeded.sum() / seconds;
+    }
+
+    /**
+     * Returns the latency histogram of individual API calls.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SpeechBatchExecutor{succeeded=%d, failed=%d, retries=%d, rateLimited=%d, "
+                + "inFlight=%d, throughput=%.1f/s, %s}", getSucceeded(), getFailed(), getRetries(), getRateLimited(),
+                getInFlight(), getThroughputPerSecond(), latency);
+    }
+
+    private CompletableFuture<Void> afterPause() {
+        long waitNanos = pausedUntilNanos.get() - System.nanoTime();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private long retryDelayMs(Throwable cause, int attempt) {
+        if (cause instanceof OpenAIApiException apiException) {
+            if (apiException.getStatusCode() == 429) {
+                rateLimited.increment();
+            }
+            long delayMs = apiException.getRetryAfter()
+                    .map(Duration::toMillis)
+                    .orElseGet(() -> jitteredBackoffMs(attempt));
+            if (apiException.getStatusCode() == 429) {
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+                pausedUntilNanos.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+            }
+            return delayMs;
+        }
+        return jitteredBackoffMs(attempt);
+    }
+
+    private static long jitteredBackoffMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof OpenAIApiException apiException) {
+            return apiException.isRetryable();
+        }
+        return cause instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one request in a speech batch.
+ *
+ * @param request  the request
+ * @param audio    the synthesized audio, or {@code null} if it failed
+ * @param error    the final failure, or {@code null} on success
+ * @param attempts number of API calls made for the request
+ * @param elapsed  time from the first attempt to the outcome, including backoff
+ */
+public record SpeechBatchResult(SpeechRequest request, byte[] audio, Throwable error, int attempts,
+        Duration elapsed) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
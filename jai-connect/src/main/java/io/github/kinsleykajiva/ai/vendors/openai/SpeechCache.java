@@ -0,0 +1,444 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache for synthesized speech.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the input, voice, model, instructions
+ * and format, so any change to a request parameter is a different entry. Hits
+ * are served from a byte-bounded in-memory LRU tier, then from an optional
+ * on-disk tier of one file per entry that survives restarts and is read
+ * through a memory mapping. Disk writes run on a background thread, off the
+ * thread completing the API call; disk recency is tracked in memory, so after
+ * a restart entries age from when they were written. Concurrent requests for
+ * the same key share a single in-flight API call. Attach to a client with
+ * {@link OpenAITTSClient#setSpeechCache(SpeechCache)}, and {@link #close()} the
+ * cache on shutdown so queued disk writes are finished.
+ */
+public final class SpeechCache implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SpeechCache.class);
+    private static final String ENTRY_SUFFIX = ".audio";
+
+    private record DiskEntry(long size, long lastAccess) {
+    }
+
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private final ConcurrentHashMap<String, DiskEntry> disk = new ConcurrentHashMap<>();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object diskLock = new Object();
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService diskWriter;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+    private final LongAdder diskEvictions = new LongAdder();
+
+    /**
+     * Creates a memory-only cache.
+     *
+     * @param maxMemoryBytes total audio bytes held in memory
+     */
+    public SpeechCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null, 0);
+    }
+
+    /**
+     * Creates a cache with a memory tier and a persistent disk tier. Entries
+     * already in {@code directory} are indexed on construction.
+     *
+     * @param maxMemoryBytes total audio bytes held in memory
+     * @param directory      directory for the disk tier, or {@code null} for none
+     * @param maxDiskBytes   total audio bytes kept on disk
+     */
+    public SpeechCache(long maxMemoryBytes, Path directory, long maxDiskBytes) {
+        if (maxMemoryBytes < 0 || maxDiskBytes < 0) {
+            throw new IllegalArgumentException("Cache sizes cannot be negative");
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        if (directory != null) {
+            loadDiskIndex();
+            this.diskWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "jai-speech-cache-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.diskWriter = null;
+        }
+    }
+
+    /**
+     * Returns the cache key for a speech request.
+     */
+    public static String key(String input, String voice, String model, String instructions, String format) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : new String[] { input, voice, model, instructions, format }) {
+                if (field == null) {
+                    digest.update((byte) 0);
+                    continue;
+                }
+                byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                digest.update((byte) 1);
+                digest.update(new byte[] { (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                        (byte) (bytes.length >>> 8), (byte) bytes.length });
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the cached audio for {@code key}, or starts {@code loader} to fetch
+     * it. Callers asking for a key that is already being loaded share that load.
+     * Failed loads are not cached.
+     */
+    public CompletableFuture<byte[]> get(String key, Supplier<CompletableFuture<byte[]>> loader) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        // Re-check memory: a load for this key may have completed since the first lookup.
+        cached = lookupMemory(key);
+        if (cached != null) {
+            inFlight.remove(key, created);
+            created.complete(cached);
+            return created;
+        }
+        misses.increment();
+        try {
+            loader.get().whenComplete((audio, throwable) -> {
+                if (throwable == null) {
+                    put(key, audio);
+                }
+                inFlight.remove(key, created);
+                if (throwable != null) {
+                    created.completeExceptionally(throwable);
+                } else {
+                    created.complete(audio);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Returns the cached audio for {@code key} from memory or disk without
+     * loading it, or {@code null}. Disk hits are promoted to memory.
+     */
+    public byte[] getIfPresent(String key) {
+        return lookup(key);
+    }
+
+    /**
+     * Stores audio in both tiers. The disk write happens in the background;
+     * once the cache is closed, audio is stored in memory only.
+     */
+    public void put(String key, byte[] audio) {
+        Objects.requireNonNull(audio, "Audio cannot be null");
+        putInMemory(key, audio);
+        if (diskWriter != null && !closed.get() && audio.length <= maxDiskBytes && !disk.containsKey(key)) {
+            try {
+                diskWriter.execute(() -> writeToDisk(key, audio));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Speech cache closed, not writing {} to disk", key);
+            }
+        }
+    }
+
+    /**
+     * Finishes queued disk writes, waiting up to five seconds, and stops the
+     * writer thread. Lookups keep working afterwards.
+     */
+    @Override
+    public void close() {
+        if (diskWriter == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        diskWriter.shutdown();
+        try {
+            if (!diskWriter.awaitTermination(5, TimeUnit.SECONDS)) {
+                int dropped = diskWriter.shutdownNow().size();
+                logger.warn("Speech cache closed with {} disk writes unfinished", dropped);
+            }
+        } catch (InterruptedException e) {
+            diskWriter.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] lookupMemory(String key) {
+        synchronized (memory) {
+            byte[] audio = memory.get(key);
+            if (audio != null) {
+                memoryHits.increment();
+            }
+            return audio;
+        }
+    }
+
+    private byte[] lookup(String key) {
+        byte[] audio = lookupMemory(key);
+        if (audio != null) {
+            return audio;
+        }
+        audio = readFromDisk(key);
+        if (audio != null) {
+            diskHits.increment();
+            putInMemory(key, audio);
+        }
+        return audio;
+    }
+
+    /**
+     * Removes all entries from both tiers.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        synchronized (diskLock) {
+            for (String key : disk.keySet()) {
+                deleteFromDisk(key);
+            }
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of requests that joined an in-flight load instead of
+     * starting their own.
+     */
+    public long getCoalescedRequests() {
+        return coalesced.sum();
+    }
+
+    public long getMemoryEvictions() {
+        return memoryEvictions.sum();
+    }
+
+    public long getDiskEvictions() {
+        return diskEvictions.sum();
+    }
+
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    public long getDiskBytes() {
+        return diskBytes.get();
+    }
+
+    /**
+     * Returns the fraction of lookups served from either tier.
+     */
+    public double getHitRatio() {
+        long hits = memoryHits.sum() + diskHits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SpeechCache{memoryHits=%d, diskHits=%d, misses=%d, coalesced=%d, "
+                + "memoryEvictions=%d, diskEvictions=%d, memoryBytes=%d, diskBytes=%d}",
+                getMemoryHits(), getDiskHits(), getMisses(), getCoalescedRequests(), getMemoryEvictions(),
+                getDiskEvictions(), getMemoryBytes(), getDiskBytes());
+    }
+
+    private void putInMemory(String key, byte[] audio) {
+        if (audio.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, audio);
+            memoryBytes += audio.length - (previous == null ? 0 : previous.length);
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+                memoryEvictions.increment();
+            }
+        }
+    }
+
+    private byte[] readFromDisk(String key) {
+        if (directory == null || !disk.containsKey(key)) {
+            return null;
+        }
+        try {
+            byte[] audio;
+            try (FileChannel channel = FileChannel.open(entryPath(key), StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                audio = new byte[mapped.remaining()];
+                mapped.get(audio);
+            }
+            long now = System.currentTimeMillis();
+            disk.computeIfPresent(key, (k, entry) -> new DiskEntry(entry.size(), now));
+            return audio;
+        } catch (IOException e) {
+            logger.warn("Failed to read cached speech {}, dropping entry", key, e);
+            synchronized (diskLock) {
+                deleteFromDisk(key);
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] audio) {
+        if (disk.containsKey(key)) {
+            return;
+        }
+        Path target = entryPath(key);
+        try {
+            Path temp = Files.createTempFile(directory, ".speech_", ".tmp");
+            try {
+                Files.write(temp, audio);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write cached speech {}", key, e);
+            return;
+        }
+        synchronized (diskLock) {
+            if (disk.put(key, new DiskEntry(audio.length, System.currentTimeMillis())) == null) {
+                diskBytes.addAndGet(audio.length);
+            }
+            evictFromDisk();
+        }
+    }
+
+    private void evictFromDisk() {
+        while (diskBytes.get() > maxDiskBytes && !disk.isEmpty()) {
+            String oldest = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<String, DiskEntry> entry : disk.entrySet()) {
+                if (entry.getValue().lastAccess() < oldestAccess) {
+                    oldestAccess = entry.getValue().lastAccess();
+                    oldest = entry.getKey();
+                }
+            }
+            deleteFromDisk(oldest);
+            diskEvictions.increment();
+        }
+    }
+
+    private void deleteFromDisk(String key) {
+        DiskEntry entry = disk.remove(key);
+        if (entry == null) {
+            return;
+        }
+        diskBytes.addAndGet(-entry.size());
+        try {
+            Files.deleteIfExists(entryPath(key));
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached speech {}", key, e);
+        }
+    }
+
+    private void loadDiskIndex() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(path -> {
+                    String name = path.getFileName().toString();
+                    try {
+                        if (name.endsWith(ENTRY_SUFFIX)) {
+                            long size = Files.size(path);
+                            disk.put(name.substring(0, name.length() - ENTRY_SUFFIX.length()),
+                                    new DiskEntry(size, Files.getLastModifiedTime(path).toMillis()));
+                            diskBytes.addAndGet(size);
+                        } else if (name.startsWith(".speech_") && name.endsWith(".tmp")) {
+                            Files.deleteIfExists(path);
+                        }
+                    } catch (IOException e) {
+                        logger.warn("Skipping cached speech file {}", path, e);
+                    }
+                });
+            }
+            synchronized (diskLock) {
+                evictFromDisk();
+            }
+            logger.info("Speech cache loaded {} entries ({} bytes) from {}", disk.size(), diskBytes.get(), directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open speech cache directory " + directory, e);
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+}
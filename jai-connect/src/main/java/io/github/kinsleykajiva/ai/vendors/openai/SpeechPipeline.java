@@ -0,0 +1,344 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.vendors.openai.callbacks.SpeechChunkHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speaks long or still-growing text by synthesizing it sentence by sentence.
+ * <p>
+ * Text is fed with {@link #append} as it becomes available, for example from
+ * the text deltas of a realtime or LLM response, and split into sentence or
+ * clause segments. Up to {@code parallelism} segments are synthesized at once
+ * through {@link OpenAITTSClient#generateSpeech}, so an attached
+ * {@link SpeechCache} also applies. The first segment, unless cached, is
+ * streamed with {@link OpenAITTSClient#streamSpeech} so its audio is delivered
+ * as it is synthesized. A segment failing with a retryable error (rate limit,
+ * timeout, server error or I/O failure) is retried after the server's
+ * {@code Retry-After} delay, or with exponential backoff when none is given;
+ * a streamed segment is only retried if none of its audio was delivered.
+ * Audio is handed to the {@link SpeechChunkHandler} strictly in text order,
+ * each segment as soon as it and every segment before it are ready, so
+ * speaking starts during the first sentence rather than after the whole text
+ * and no single request runs into the request timeout.
+ * <p>
+ * Use a headerless format such as {@code pcm} so that segment audio can simply
+ * be concatenated. The handler is called on HTTP client threads, one segment
+ * at a time.
+ */
+public final class SpeechPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(SpeechPipeline.class);
+
+    public static final int DEFAULT_PARALLELISM = 3;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final int MIN_SEGMENT_CHARS = 20;
+    private static final int MAX_SEGMENT_CHARS = 250;
+    private static final long INITIAL_BACKOFF_MS = 250;
+
+    private record Segment(int index, String text, CompletableFuture<byte[]> audio) {
+    }
+
+    private final OpenAITTSClient client;
+    private final String voice;
+    private final String model;
+    private final String instructions;
+    private final String format;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final SpeechChunkHandler handler;
+
+    private final SentenceSegmenter segmenter = new SentenceSegmenter(MIN_SEGMENT_CHARS, MAX_SEGMENT_CHARS);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final ArrayDeque<Segment> waiting = new ArrayDeque<>();
+    private int running;
+    private int segmentCount;
+    private boolean completed;
+    // Ordered emission: each segment's audio is delivered after the previous one's
+    private CompletableFuture<Void> emitted = CompletableFuture.completedFuture(null);
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong bytesEmitted = new AtomicLong();
+    private volatile long startNanos = -1;
+    private volatile long firstAudioNanos = -1;
+
+    /**
+     * Creates a pipeline producing raw PCM with default parallelism and retries.
+     */
+    public SpeechPipeline(OpenAITTSClient client, String voice, String model, SpeechChunkHandler handler) {
+        this(client, voice, model, null, OpenAIModels.SpeechFormats.PCM, DEFAULT_PARALLELISM, DEFAULT_MAX_ATTEMPTS,
+                handler);
+    }
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param client       the client used for synthesis
+     * @param voice        the voice to use
+     * @param model        the model to use
+     * @param instructions optional instructions (supported by gpt-4o-mini-tts)
+     * @param format       response format; should be headerless, e.g. pcm
+     * @param parallelism  maximum segments synthesized at once
+     * @param maxAttempts  attempts per segment before the pipeline fails;
+     *                     non-retryable errors fail it at once
+     * @param handler      receives audio in text order
+     */
+    public SpeechPipeline(OpenAITTSClient client, String voice, String model, String instructions, String format,
+            int parallelism, int maxAttempts, SpeechChunkHandler handler) {
+        this.client = Objects.requireNonNull(client, "TTS client cannot be null");
+        this.handler = Objects.requireNonNull(handler, "Speech chunk handler cannot be null");
+        if (parallelism <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Parallelism and attempts must be positive");
+        }
+        this.voice = voice;
+        this.model = model;
+        this.instructions = instructions;
+        this.format = format;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Speaks a complete text.
+     *
+     * @return a CompletableFuture completed once all audio has been delivered
+     */
+    public CompletableFuture<Void> speak(String text) {
+        append(text);
+        return complete();
+    }
+
+    /**
+     * Adds text. Every sentence it completes is queued for synthesis right away.
+     */
+    public void append(CharSequence text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        if (startNanos < 0) {
+            startNanos = System.nanoTime();
+        }
+        // Segments are queued under the same lock that cuts them, so concurrent
+        // appends and complete() cannot interleave their audio order
+        synchronized (segmenter) {
+            if (completed) {
+                throw new IllegalStateException("Pipeline already completed");
+            }
+            segmenter.append(text).forEach(this::enqueue);
+        }
+        startWaiting();
+    }
+
+    /**
+     * Marks the end of the text, queuing any trailing partial sentence.
+     *
+     * @return a CompletableFuture completed once all audio has been delivered,
+     *         or failed if a segment could not be synthesized
+     */
+    public CompletableFuture<Void> complete() {
+        CompletableFuture<Void> tail;
+        synchronized (segmenter) {
+            if (completed) {
+                return done;
+            }
+            completed = true;
+            String rest = segmenter.flush();
+            if (rest != null) {
+                enqueue(rest);
+            }
+            synchronized (waiting) {
+                tail = emitted;
+            }
+        }
+        startWaiting();
+        tail.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                done.completeExceptionally(throwable);
+            } else {
+                logger.debug("Speech pipeline finished: {} segments, {} bytes, {} retries", segmentCount,
+                        bytesEmitted.get(), retries.get());
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Stops the pipeline: queued segments are dropped, no further audio is
+     * delivered and the completion future fails with a
+     * {@link CancellationException}.
+     */
+    public void cancel() {
+        fail(new CancellationException("Speech pipeline cancelled"));
+    }
+
+    public int getSegmentCount() {
+        synchronized (waiting) {
+            return segmentCount;
+        }
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getBytesEmitted() {
+        return bytesEmitted.get();
+    }
+
+    /**
+     * Returns the time from the first appended text to the first delivered
+     * audio, or {@code null} if no audio has been delivered yet.
+     */
+    public Duration getTimeToFirstAudio() {
+        long first = firstAudioNanos;
+        return first < 0 ? null : Duration.ofNanos(first - startNanos);
+    }
+
+    // Called with the segmenter lock held; the caller starts synthesis afterwards
+    private void enqueue(String text) {
+        synchronized (waiting) {
+            if (done.isDone()) {
+                return;
+            }
+            Segment segment = new Segment(segmentCount++, text, new CompletableFuture<>());
+            emitted = emitted.thenCombine(segment.audio(), (ignored, audio) -> audio).thenAccept(this::emit);
+            waiting.add(segment);
+        }
+    }
+
+    private void startWaiting() {
+        while (true) {
+            Segment next;
+            synchronized (waiting) {
+                if (running >= parallelism || waiting.isEmpty()) {
+                    return;
+                }
+                next = waiting.poll();
+                running++;
+            }
+            synthesize(next, 1);
+        }
+    }
+
+    private void synthesize(Segment segment, int attempt) {
+        if (segment.index() == 0 && !isCached(segment.text())) {
+            streamHead(segment, attempt);
+            return;
+        }
+        client.generateSpeech(segment.text(), voice, model, instructions, format)
+                .whenComplete((audio, throwable) -> {
+                    if (throwable == null) {
+                        finished(segment, audio, null);
+                    } else {
+                        retryOrFail(segment, attempt, throwable, true);
+                    }
+                });
+    }
+
+    /**
+     * Streams the first segment straight to the handler, as nothing is ordered
+     * before it. Its audio future completes empty once the stream ends.
+     */
+    private void streamHead(Segment segment, int attempt) {
+        AtomicLong streamed = new AtomicLong();
+        client.streamSpeech(segment.text(), voice, model, instructions, format, chunk -> {
+            if (done.isDone()) {
+                throw new CancellationException("Speech pipeline stopped");
+            }
+            streamed.addAndGet(chunk.remaining());
+            deliver(chunk);
+        }).whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                finished(segment, new byte[0], null);
+            } else {
+                // Audio already delivered cannot be taken back, so a retry would repeat it
+                retryOrFail(segment, attempt, throwable, streamed.get() == 0);
+            }
+        });
+    }
+
+    private boolean isCached(String text) {
+        SpeechCache cache = client.getSpeechCache();
+        return cache != null && cache.getIfPresent(SpeechCache.key(text, voice, model, instructions, format)) != null;
+    }
+
+    private void retryOrFail(Segment segment, int attempt, Throwable throwable, boolean repeatable) {
+        Throwable cause = unwrap(throwable);
+        if (repeatable && attempt < maxAttempts && !done.isDone() && isRetryable(cause)) {
+            retries.incrementAndGet();
+            long delay = retryDelayMs(cause, attempt);
+            logger.warn("Speech segment {} failed (attempt {}), retrying in {} ms", segment.index(), attempt, delay,
+                    cause);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                    .execute(() -> synthesize(segment, attempt + 1));
+        } else {
+            logger.error("Speech segment {} failed after {} attempts", segment.index(), attempt, cause);
+            finished(segment, null, cause);
+        }
+    }
+
+    private void finished(Segment segment, byte[] audio, Throwable throwable) {
+        synchronized (waiting) {
+            running--;
+        }
+        if (throwable != null) {
+            segment.audio().completeExceptionally(throwable);
+            fail(throwable);
+        } else {
+            segment.audio().complete(audio);
+        }
+        startWaiting();
+    }
+
+    private void fail(Throwable throwable) {
+        synchronized (waiting) {
+            waiting.clear();
+        }
+        done.completeExceptionally(throwable);
+    }
+
+    private void emit(byte[] audio) {
+        if (audio.length > 0 && !done.isDone()) {
+            deliver(ByteBuffer.wrap(audio).asReadOnlyBuffer());
+        }
+    }
+
+    private void deliver(ByteBuffer audio) {
+        if (firstAudioNanos < 0) {
+            firstAudioNanos = System.nanoTime();
+        }
+        bytesEmitted.addAndGet(audio.remaining());
+        handler.onSpeechChunk(audio);
+    }
+
+    private static long retryDelayMs(Throwable cause, int attempt) {
+        long backoff = INITIAL_BACKOFF_MS << (attempt - 1);
+        if (cause instanceof OpenAIApiException apiException) {
+            return apiException.getRetryAfter().map(Duration::toMillis).orElse(backoff);
+        }
+        return backoff;
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof OpenAIApiException apiException) {
+            return apiException.isRetryable();
+        }
+        return cause instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.util.Objects;
+
+/**
+ * Parameters of one text-to-speech request.
+ *
+ * @param input        the text to generate speech for
+ * @param voice        the voice to use
+ * @param model        the model to use
+ * @param instructions optional instructions (supported by gpt-4o-mini-tts)
+ * @param format       optional response format
+ */
+public record SpeechRequest(String input, String voice, String model, String instructions, String format) {
+    public SpeechRequest {
+        Objects.requireNonNull(input, "Input cannot be null");
+    }
+
+    public SpeechRequest(String input, String voice, String model) {
+        this(input, voice, model, null, null);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.time.Duration;
+
+/**
+ * Summary of a streamed TTS response.
+ *
+ * @param bytes           audio bytes delivered to the handler
+ * @param timeToFirstByte time from sending the request to the first audio byte
+ * @param totalTime       time from sending the request to the end of the stream
+ */
+public record SpeechStreamResult(long bytes, Duration timeToFirstByte, Duration totalTime) {
+}
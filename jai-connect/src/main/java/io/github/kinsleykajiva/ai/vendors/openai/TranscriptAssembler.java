@@ -0,0 +1,371 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assembles input audio transcripts per conversation item from the realtime
+ * transcription events.
+ * <p>
+ * Deltas are appended into fixed-size character chunks rather than
+ * concatenated strings, so a long utterance costs linear time and the chunks
+ * of evicted items are reused. Segment events add timing and speaker labels.
+ * Text covered by a segment or by the completed transcript is stable; the rest
+ * is tentative and may still change when the item completes. Completed and
+ * failed items are kept, oldest first evicted, while all items together hold
+ * at most the memory budget in characters. Each item also counts a fixed
+ * overhead against the budget, so items without text are evicted as well.
+ * <p>
+ * Attach an assembler with {@link OpenAIRealtimeClient#setTranscriptAssembler}
+ * so it sees the events in the order they arrive. The listener is called on
+ * the WebSocket thread and should return quickly.
+ */
+public final class TranscriptAssembler {
+    public static final int DEFAULT_MEMORY_BUDGET_CHARS = 1 << 20;
+
+    private static final int CHUNK_CHARS = 256;
+    private static final int MAX_POOLED_CHUNKS = 64;
+    // Charged per item for its entry, id and segment list
+    private static final int ITEM_OVERHEAD_CHARS = 64;
+
+    /**
+     * Notified after each change to an item's transcript.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onTranscriptUpdated(ItemTranscript transcript);
+    }
+
+    private final int memoryBudgetChars;
+    private final Listener listener;
+    private final Map<String, ItemTranscript> items = new LinkedHashMap<>();
+    private final ArrayDeque<char[]> pool = new ArrayDeque<>();
+    private long heldChars;
+
+    public TranscriptAssembler() {
+        this(DEFAULT_MEMORY_BUDGET_CHARS, null);
+    }
+
+    /**
+     * @param memoryBudgetChars characters of storage kept across all items
+     * @param listener          notified of every update, or {@code null}
+     */
+    public TranscriptAssembler(int memoryBudgetChars, Listener listener) {
+        if (memoryBudgetChars < CHUNK_CHARS) {
+            throw new IllegalArgumentException("Memory budget must be at least " + CHUNK_CHARS + " characters");
+        }
+        this.memoryBudgetChars = memoryBudgetChars;
+        this.listener = listener;
+    }
+
+    /**
+     * Appends a transcription delta. Deltas are tentative until a segment or
+     * the completed transcript covers them.
+     */
+    public synchronized void onDelta(String itemId, String delta) {
+        if (delta == null || delta.isEmpty()) {
+            return;
+        }
+        ItemTranscript item = item(itemId);
+        if (item.complete) {
+            return;
+        }
+        item.append(delta);
+        item.deltaChars += delta.length();
+        updated(item);
+    }
+
+    /**
+     * Records a timed segment. When deltas are being streamed the segment marks
+     * their text as stable; otherwise its text is appended.
+     */
+    public synchronized void onSegment(String itemId, TranscriptSegment segment) {
+        Objects.requireNonNull(segment, "Segment cannot be null");
+        ItemTranscript item = item(itemId);
+        if (item.complete) {
+            return;
+        }
+        item.segments.add(segment);
+        String text = segment.text() == null ? "" : segment.text().trim();
+        if (item.deltaChars == 0) {
+            if (item.length > 0 && !text.isEmpty()) {
+                item.append(" ");
+            }
+            item.append(text);
+            item.stableLength = item.length;
+        } else {
+            int from = item.stableLength;
+            while (from < item.length && Character.isWhitespace(item.charAt(from))) {
+                from++;
+            }
+            item.stableLength = Math.min(item.length, from + text.length());
+        }
+        updated(item);
+    }
+
+    /**
+     * Completes an item with the final transcript, which replaces the
+     * assembled text if it differs.
+     */
+    public synchronized void onCompleted(String itemId, String transcript) {
+        ItemTranscript item = item(itemId);
+        if (transcript != null && !item.contentEquals(transcript)) {
+            item.clear();
+            item.append(transcript);
+        }
+        item.stableLength = item.length;
+        item.complete = true;
+        updated(item);
+    }
+
+    /**
+     * Marks an item as failed; its assembled text stays tentative.
+     */
+    public synchronized void onFailed(String itemId) {
+        ItemTranscript item = item(itemId);
+        item.complete = true;
+        item.failed = true;
+        updated(item);
+    }
+
+    /**
+     * Returns the transcript of an item, or {@code null} if it is unknown or
+     * has been evicted.
+     */
+    public synchronized ItemTranscript get(String itemId) {
+        return items.get(itemId);
+    }
+
+    /**
+     * Returns the characters currently held across all items, including the
+     * fixed per-item overhead.
+     */
+    public synchronized long getHeldChars() {
+        return heldChars;
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    private ItemTranscript item(String itemId) {
+        Objects.requireNonNull(itemId, "Item id cannot be null");
+        ItemTranscript item = items.get(itemId);
+        if (item == null) {
+            item = new ItemTranscript(itemId);
+            items.put(itemId, item);
+            heldChars += ITEM_OVERHEAD_CHARS;
+        }
+        return item;
+    }
+
+    private void updated(ItemTranscript item) {
+        evict(item);
+        if (listener != null) {
+            listener.onTranscriptUpdated(item);
+        }
+    }
+
+    /**
+     * Evicts finished items, oldest first, then idle unfinished ones while the
+     * budget is exceeded. The item just updated is never evicted.
+     */
+    private void evict(ItemTranscript current) {
+        for (int pass = 0; pass < 2 && heldChars > memoryBudgetChars; pass++) {
+            Iterator<ItemTranscript> iterator = items.values().iterator();
+            while (heldChars > memoryBudgetChars && iterator.hasNext()) {
+                ItemTranscript item = iterator.next();
+                if (item != current && (item.complete || pass == 1)) {
+                    iterator.remove();
+                    heldChars -= ITEM_OVERHEAD_CHARS;
+                    item.clear();
+                    item.evicted = true;
+                }
+            }
+        }
+    }
+
+    private char[] takeChunk() {
+        char[] chunk = pool.poll();
+        heldChars += CHUNK_CHARS;
+        return chunk != null ? chunk : new char[CHUNK_CHARS];
+    }
+
+    private void releaseChunk(char[] chunk) {
+        heldChars -= CHUNK_CHARS;
+        if (pool.size() < MAX_POOLED_CHUNKS) {
+            pool.push(chunk);
+        }
+    }
+
+    /**
+     * The transcript of one conversation item. Reads are consistent with the
+     * assembler's updates; the {@code append} methods copy text without
+     * creating intermediate strings.
+     */
+    public final class ItemTranscript {
+        private final String itemId;
+        private final List<TranscriptSegment> segments = new ArrayList<>();
+        private char[][] chunks = new char[1][];
+        private int chunkCount;
+        private int length;
+        private int stableLength;
+        private int deltaChars;
+        private boolean complete;
+        private boolean failed;
+        private boolean evicted;
+
+        private ItemTranscript(String itemId) {
+            this.itemId = itemId;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+
+        public int length() {
+            synchronized (TranscriptAssembler.this) {
+                return length;
+            }
+        }
+
+        /**
+         * Returns the length of the prefix that will not change.
+         */
+        public int stableLength() {
+            synchronized (TranscriptAssembler.this) {
+                return stableLength;
+            }
+        }
+
+        /**
+         * Returns whether the final transcript, or a failure, was received.
+         */
+        public boolean isComplete() {
+            synchronized (TranscriptAssembler.this) {
+                return complete;
+            }
+        }
+
+        public boolean isFailed() {
+            synchronized (TranscriptAssembler.this) {
+                return failed;
+            }
+        }
+
+        /**
+         * Returns whether the text was dropped to stay within the budget.
+         */
+        public boolean isEvicted() {
+            synchronized (TranscriptAssembler.this) {
+                return evicted;
+            }
+        }
+
+        /**
+         * Returns the timed segments received so far, in arrival order.
+         */
+        public List<TranscriptSegment> getSegments() {
+            synchronized (TranscriptAssembler.this) {
+                return Collections.unmodifiableList(new ArrayList<>(segments));
+            }
+        }
+
+        public String getText() {
+            return appendText(new StringBuilder()).toString();
+        }
+
+        public String getStableText() {
+            return appendStableText(new StringBuilder()).toString();
+        }
+
+        public String getTentativeText() {
+            return appendTentativeText(new StringBuilder()).toString();
+        }
+
+        public StringBuilder appendText(StringBuilder target) {
+            synchronized (TranscriptAssembler.this) {
+                return copy(target, 0, length);
+            }
+        }
+
+        public StringBuilder appendStableText(StringBuilder target) {
+            synchronized (TranscriptAssembler.this) {
+                return copy(target, 0, stableLength);
+            }
+        }
+
+        public StringBuilder appendTentativeText(StringBuilder target) {
+            synchronized (TranscriptAssembler.this) {
+                return copy(target, stableLength, length);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ItemTranscript{itemId=" + itemId + ", length=" + length() + ", stable=" + stableLength()
+                    + ", complete=" + isComplete() + "}";
+        }
+
+        private void append(String text) {
+            int from = 0;
+            while (from < text.length()) {
+                int offset = length % CHUNK_CHARS;
+                if (offset == 0 && length / CHUNK_CHARS == chunkCount) {
+                    if (chunkCount == chunks.length) {
+                        char[][] grown = new char[chunkCount * 2][];
+                        System.arraycopy(chunks, 0, grown, 0, chunkCount);
+                        chunks = grown;
+                    }
+                    chunks[chunkCount++] = takeChunk();
+                }
+                int count = Math.min(text.length() - from, CHUNK_CHARS - offset);
+                text.getChars(from, from + count, chunks[length / CHUNK_CHARS], offset);
+                from += count;
+                length += count;
+            }
+        }
+
+        private char charAt(int index) {
+            return chunks[index / CHUNK_CHARS][index % CHUNK_CHARS];
+        }
+
+        private boolean contentEquals(String text) {
+            if (text.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (charAt(i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private StringBuilder copy(StringBuilder target, int from, int to) {
+            while (from < to) {
+                int offset = from % CHUNK_CHARS;
+                int count = Math.min(to - from, CHUNK_CHARS - offset);
+                target.append(chunks[from / CHUNK_CHARS], offset, count);
+                from += count;
+            }
+            return target;
+        }
+
+        private void clear() {
+            for (int i = 0; i < chunkCount; i++) {
+                releaseChunk(chunks[i]);
+                chunks[i] = null;
+            }
+            chunkCount = 0;
+            length = 0;
+            stableLength = 0;
+        }
+    }
+}
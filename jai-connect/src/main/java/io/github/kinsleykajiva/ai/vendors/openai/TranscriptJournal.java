@@ -0,0 +1,962 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import io.github.kinsleykajiva.ai.vendors.openai.callbacks.TranscriptionEventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Local, append-only store of the transcripts of every session, queryable by
+ * session, item, speaker and time without an external database.
+ * <p>
+ * Entries are appended to a log split into segment files of bounded size, each
+ * named by the journal offset of its first record. A background writer drains
+ * queued entries in batches, writes each batch with one call and forces it to
+ * disk once (group commit), so the event thread only enqueues. Two
+ * memory-mapped indexes are kept next to the log:
+ * <ul>
+ * <li>an open-addressing hash table from session and from session/item to the
+ * offset of the latest matching record; every record links to the previous
+ * record of its item and of its session, so lookups are one probe followed by
+ * the chain;</li>
+ * <li>a sparse time index of {@code (timestamp, offset)} pairs, written every
+ * few kilobytes of log, that a range scan binary-searches for its start.</li>
+ * </ul>
+ * Both indexes can be rebuilt from the log; on open, records written after the
+ * last indexed offset are re-indexed and a torn final record is truncated.
+ * Timestamps are made non-decreasing so the log stays in time order.
+ */
+public final class TranscriptJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptJournal.class);
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String HASH_INDEX = "items.idx";
+    private static final String TIME_INDEX = "time.idx";
+    private static final long HASH_MAGIC = 0x4A41494A4E4C4831L;
+    private static final int HASH_HEADER = 32;
+    private static final int SLOT_BYTES = 16;
+    private static final long INITIAL_SLOTS = 1 << 16;
+    private static final int TIME_HEADER = 8;
+    private static final int TIME_ENTRY_BYTES = 16;
+    private static final long TIME_INDEX_INTERVAL_BYTES = 4096;
+    private static final long TIME_INDEX_GROWTH = 1 << 20;
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_BATCH = 1024;
+    private static final long SESSION_KEY_SALT = 0x5EED5E55105EED5EL;
+
+    /**
+     * Whether an entry is a completed transcript or a timed segment.
+     */
+    public enum Kind {
+        TRANSCRIPT, SEGMENT
+    }
+
+    /**
+     * A journal entry. {@code offset} is its position in the journal, or -1
+     * before it is written; {@code start}, {@code end} and {@code speaker} are
+     * only set for segments.
+     */
+    public record Entry(long offset, String sessionId, String itemId, Kind kind, long timestampMillis, double start,
+            double end, String speaker, String text) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final TreeMap<Long, FileChannel> segments = new TreeMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final Thread writer;
+    private final Object indexLock = new Object();
+
+    private FileChannel active;
+    private long activeBase;
+    private long endOffset;
+    private long lastTimestamp;
+    private long lastTimeIndexOffset = -TIME_INDEX_INTERVAL_BYTES;
+    // Writer state for records encoded but not yet written and indexed
+    private final Map<Long, Long> unpublishedHeads = new HashMap<>();
+    private final List<long[]> unpublished = new ArrayList<>();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel hashChannel;
+    private MappedByteBuffer hash;
+    private long hashSlots;
+    private long hashSize;
+    private FileChannel timeChannel;
+    private MappedByteBuffer time;
+    private long timeEntries;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram("transcript_journal_commit");
+
+    private TranscriptJournal(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.writer = new Thread(this::runWriter, "TranscriptJournal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens or creates a journal in {@code directory}, with 64 MB segments and
+     * every batch forced to disk.
+     */
+    public static TranscriptJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES, true);
+    }
+
+    /**
+     * @param directory    directory holding the log segments and indexes
+     * @param segmentBytes size after which a new log segment is started
+     * @param fsync        whether each batch is forced to disk before its
+     *                     appends complete
+     */
+    public static TranscriptJournal open(Path directory, long segmentBytes, boolean fsync) throws IOException {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+        }
+        Files.createDirectories(directory);
+        TranscriptJournal journal = new TranscriptJournal(directory, segmentBytes, fsync);
+        try {
+            journal.load();
+        } catch (IOException | RuntimeException e) {
+            journal.closeFiles();
+            throw e;
+        }
+        journal.writer.start();
+        return journal;
+    }
+
+    /**
+     * Appends a completed transcript, timestamped now.
+     *
+     * @return a future completing with the entry's offset once it is written
+     */
+    public CompletableFuture<Long> appendTranscript(String sessionId, String itemId, String text) {
+        return append(new Entry(-1, sessionId, itemId, Kind.TRANSCRIPT, System.currentTimeMillis(), 0, 0, null,
+                text));
+    }
+
+    /**
+     * Appends a timed segment, timestamped now.
+     *
+     * @return a future completing with the entry's offset once it is written
+     */
+    public CompletableFuture<Long> appendSegment(String sessionId, String itemId, TranscriptSegment segment) {
+        return append(new Entry(-1, sessionId, itemId, Kind.SEGMENT, System.currentTimeMillis(), segment.start(),
+                segment.end(), segment.speaker(), segment.text()));
+    }
+
+    /**
+     * Appends an entry; its offset is ignored. Returns immediately, the write
+     * happening in the writer's next batch.
+     *
+     * @return a future completing with the entry's offset once it is written
+     */
+    public CompletableFuture<Long> append(Entry entry) {
+        Objects.requireNonNull(entry.sessionId(), "Session id cannot be null");
+        Objects.requireNonNull(entry.itemId(), "Item id cannot be null");
+        Objects.requireNonNull(entry.kind(), "Kind cannot be null");
+        Pending pending = new Pending(entry, System.nanoTime());
+        if (closed.get()) {
+            pending.future.completeExceptionally(new IllegalStateException("Journal is closed"));
+            return pending.future;
+        }
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Returns a handler that journals the completed transcripts and segments of
+     * one session, for {@link OpenAIRealtimeClient#registerTranscriptionHandler}.
+     */
+    public TranscriptionEventHandler handlerFor(String sessionId) {
+        Objects.requireNonNull(sessionId, "Session id cannot be null");
+        return new TranscriptionEventHandler() {
+            @Override
+            public void onTranscription(String itemId, int contentIndex, String transcript) {
+                appendTranscript(sessionId, itemId, transcript);
+            }
+
+            @Override
+            public void onTranscriptionSegment(String itemId, int contentIndex, TranscriptSegment segment) {
+                appendSegment(sessionId, itemId, segment);
+            }
+        };
+    }
+
+    /**
+     * Returns a future completing once everything appended so far is written.
+     */
+    public CompletableFuture<Void> flush() {
+        Pending marker = new Pending(null, System.nanoTime());
+        if (closed.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        queue.add(marker);
+        return marker.future.thenApply(offset -> null);
+    }
+
+    /**
+     * Returns the entries of an item in the order they were written.
+     */
+    public List<Entry> findItem(String sessionId, String itemId) {
+        List<Entry> entries = new ArrayList<>();
+        long offset = head(itemKey(sessionId, itemId));
+        while (offset >= 0) {
+            Record record = read(offset);
+            if (record.entry.sessionId().equals(sessionId) && record.entry.itemId().equals(itemId)) {
+                entries.add(record.entry);
+            }
+            offset = record.previousInItem;
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Returns the entries of a session in the order they were written.
+     */
+    public List<Entry> findSession(String sessionId) {
+        return findSession(sessionId, entry -> true);
+    }
+
+    /**
+     * Returns the segments of a session attributed to {@code speaker}.
+     */
+    public List<Entry> findSpeaker(String sessionId, String speaker) {
+        return findSession(sessionId, entry -> entry.kind() == Kind.SEGMENT && speaker.equals(entry.speaker()));
+    }
+
+    private List<Entry> findSession(String sessionId, Predicate<Entry> filter) {
+        List<Entry> entries = new ArrayList<>();
+        long offset = head(sessionKey(sessionId));
+        while (offset >= 0) {
+            Record record = read(offset);
+            if (record.entry.sessionId().equals(sessionId) && filter.test(record.entry)) {
+                entries.add(record.entry);
+            }
+            offset = record.previousInSession;
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Passes every entry timestamped within {@code [fromMillis, toMillis]} to
+     * {@code consumer}, in time order.
+     */
+    public void scan(long fromMillis, long toMillis, Consumer<Entry> consumer) {
+        long offset = timeIndexFloor(fromMillis);
+        long end;
+        synchronized (indexLock) {
+            end = endOffset;
+        }
+        while (offset < end) {
+            Record record = read(offset);
+            long timestamp = record.entry.timestampMillis();
+            if (timestamp > toMillis) {
+                return;
+            }
+            if (timestamp >= fromMillis) {
+                consumer.accept(record.entry);
+            }
+            offset = record.next;
+        }
+    }
+
+    public long getRecords() {
+        return records.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Returns the time from append to durable write.
+     */
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    /**
+     * Returns the offset the next entry will be written at.
+     */
+    public long getEndOffset() {
+        synchronized (indexLock) {
+            return endOffset;
+        }
+    }
+
+    /**
+     * Writes what has been appended, then closes the files.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        queue.add(Pending.STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future.completeExceptionally(new IllegalStateException("Journal is closed"));
+        }
+        synchronized (indexLock) {
+            hash.force();
+            time.force();
+        }
+        closeFiles();
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            int stop = batch.indexOf(Pending.STOP);
+            if (stop >= 0) {
+                queue.drainTo(batch);
+                batch.remove(Pending.STOP);
+                running = false;
+            }
+            try {
+                buffer = writeBatch(batch, buffer);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Transcript journal write failed", e);
+                unpublished.clear();
+                unpublishedHeads.clear();
+                for (Pending pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private ByteBuffer writeBatch(List<Pending> batch, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        long batchStart;
+        synchronized (indexLock) {
+            batchStart = endOffset;
+        }
+        long offset = batchStart;
+        for (Pending pending : batch) {
+            if (pending.entry == null) {
+                continue;
+            }
+            Entry entry = pending.entry;
+            int size = RECORD_HEADER + encodedLength(entry);
+            if (size > RECORD_HEADER + MAX_RECORD_BYTES) {
+                pending.future.completeExceptionally(new IllegalArgumentException("Entry is too large"));
+                continue;
+            }
+            if (offset > activeBase && offset + size - activeBase > segmentBytes) {
+                drain(buffer);
+                roll(offset);
+            }
+            if (buffer.remaining() < size) {
+                drain(buffer);
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            pending.offset = offset;
+            offset += encode(entry, offset, buffer);
+        }
+        drain(buffer);
+        if (fsync && offset > batchStart) {
+            active.force(false);
+        }
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            if (pending.entry != null && pending.offset >= 0) {
+                records.increment();
+                commitLatency.recordNanos(now - pending.enqueuedNanos);
+            }
+        }
+        batches.increment();
+        for (Pending pending : batch) {
+            if (pending.entry == null) {
+                pending.future.complete(-1L);
+            } else if (pending.offset >= 0) {
+                pending.future.complete(pending.offset);
+            }
+        }
+        return buffer;
+    }
+
+    private static int encodedLength(Entry entry) {
+        return 1 + 8 * 5 + 4 * 4 + utf8Length(entry.sessionId()) + utf8Length(entry.itemId())
+                + utf8Length(entry.speaker()) + utf8Length(entry.text() == null ? "" : entry.text());
+    }
+
+    /**
+     * Encodes an entry as a record at {@code offset}, linking it to the
+     * previous record of its item and session. Called by the writer in offset
+     * order; the index is updated when the record has been written.
+     *
+     * @return the size of the record
+     */
+    private int encode(Entry entry, long offset, ByteBuffer buffer) {
+        long timestamp = Math.max(entry.timestampMillis(), lastTimestamp);
+        lastTimestamp = timestamp;
+        long itemKey = itemKey(entry.sessionId(), entry.itemId());
+        long sessionKey = sessionKey(entry.sessionId());
+        long previousInItem = unpublishedHead(itemKey, offset);
+        long previousInSession = unpublishedHead(sessionKey, offset);
+
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER);
+        buffer.put((byte) entry.kind().ordinal())
+                .putLong(timestamp)
+                .putLong(previousInItem)
+                .putLong(previousInSession)
+                .putDouble(entry.start())
+                .putDouble(entry.end());
+        putString(buffer, entry.sessionId());
+        putString(buffer, entry.itemId());
+        putString(buffer, entry.speaker());
+        putString(buffer, entry.text() == null ? "" : entry.text());
+        int length = buffer.position() - start - RECORD_HEADER;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start + RECORD_HEADER).limit(buffer.position()));
+        buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        unpublished.add(new long[] { offset, RECORD_HEADER + length, timestamp, itemKey, sessionKey });
+        return RECORD_HEADER + length;
+    }
+
+    private long unpublishedHead(long key, long offset) {
+        Long previous = unpublishedHeads.put(key, offset);
+        if (previous != null) {
+            return previous;
+        }
+        return head(key);
+    }
+
+    /**
+     * Writes the buffer, then makes its records visible: indexes them and
+     * advances the end offset readers stop at.
+     */
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        long position = active.size();
+        while (buffer.hasRemaining()) {
+            position += active.write(buffer, position);
+        }
+        buffer.clear();
+        synchronized (indexLock) {
+            for (long[] record : unpublished) {
+                index(record[0], record[1], record[2], record[3], record[4]);
+            }
+            writeIndexedUpTo(endOffset);
+        }
+        unpublished.clear();
+        unpublishedHeads.clear();
+    }
+
+    private void index(long offset, long size, long timestamp, long itemKey, long sessionKey) {
+        put(itemKey, offset);
+        put(sessionKey, offset);
+        if (offset - lastTimeIndexOffset >= TIME_INDEX_INTERVAL_BYTES) {
+            addTimeEntry(timestamp, offset);
+            lastTimeIndexOffset = offset;
+        }
+        endOffset = offset + size;
+    }
+
+    private void roll(long base) throws IOException {
+        if (fsync) {
+            active.force(false);
+        }
+        FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        synchronized (indexLock) {
+            segments.put(base, channel);
+            active = channel;
+            activeBase = base;
+        }
+        logger.debug("Started transcript journal segment at offset {}", base);
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    // ---------------------------------------------------------------- reading
+
+    private Record read(long offset) {
+        synchronized (indexLock) {
+            return readLocked(offset);
+        }
+    }
+
+    private Record readLocked(long offset) {
+        Map.Entry<Long, FileChannel> segment = segments.floorEntry(offset);
+        if (segment == null) {
+            throw new IllegalArgumentException("No journal segment holds offset " + offset);
+        }
+        try {
+            Record record = readRecord(segment.getValue(), offset - segment.getKey(), segment.getKey());
+            if (record == null) {
+                throw new IllegalStateException("Corrupt journal record at offset " + offset);
+            }
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read journal at offset " + offset, e);
+        }
+    }
+
+    /**
+     * Reads the record at {@code position} of a segment, or returns
+     * {@code null} if it is incomplete or fails its checksum.
+     */
+    private static Record readRecord(FileChannel channel, long position, long base) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, header, position)) {
+            return null;
+        }
+        int length = header.getInt(0);
+        if (length <= 0 || length > MAX_RECORD_BYTES || position + RECORD_HEADER + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, payload, position + RECORD_HEADER)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array(), 0, length);
+        if ((int) crc.getValue() != header.getInt(4)) {
+            return null;
+        }
+        Kind kind = Kind.values()[payload.get()];
+        long timestamp = payload.getLong();
+        long previousInItem = payload.getLong();
+        long previousInSession = payload.getLong();
+        double start = payload.getDouble();
+        double end = payload.getDouble();
+        String session = getString(payload);
+        String item = getString(payload);
+        String speaker = getString(payload);
+        String text = getString(payload);
+        long offset = base + position;
+        Entry entry = new Entry(offset, session, item, kind, timestamp, start, end, speaker, text);
+        return new Record(entry, previousInItem, previousInSession, offset + RECORD_HEADER + length);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int start = buffer.position();
+        buffer.position(start + 4);
+        encoder.reset().encode(CharBuffer.wrap(value), buffer, true);
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+
+    private static int utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // ---------------------------------------------------------------- hash index
+
+    private static long itemKey(String sessionId, String itemId) {
+        return nonZero(mix(hash64(sessionId) * 31 + hash64(itemId)));
+    }
+
+    private static long sessionKey(String sessionId) {
+        return nonZero(mix(hash64(sessionId) ^ SESSION_KEY_SALT));
+    }
+
+    private static long hash64(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+
+    private long head(long key) {
+        synchronized (indexLock) {
+            long slot = find(hash, hashSlots, key);
+            return hash.getLong(slotPosition(slot)) == key ? hash.getLong(slotPosition(slot) + 8) : -1;
+        }
+    }
+
+    /**
+     * Points {@code key} at {@code offset}, returning the offset it pointed at
+     * before or -1.
+     */
+    private long put(long key, long offset) {
+        if ((hashSize + 1) * 2 > hashSlots) {
+            growHash();
+        }
+        long slot = find(hash, hashSlots, key);
+        int position = slotPosition(slot);
+        long previous = -1;
+        if (hash.getLong(position) == key) {
+            previous = hash.getLong(position + 8);
+        } else {
+            hash.putLong(position, key);
+            hashSize++;
+            hash.putLong(16, hashSize);
+        }
+        hash.putLong(position + 8, offset);
+        return previous;
+    }
+
+    private static long find(MappedByteBuffer table, long slots, long key) {
+        long slot = key & (slots - 1);
+        while (true) {
+            long existing = table.getLong(slotPosition(slot));
+            if (existing == 0 || existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & (slots - 1);
+        }
+    }
+
+    private static int slotPosition(long slot) {
+        return (int) (HASH_HEADER + slot * SLOT_BYTES);
+    }
+
+    private void growHash() {
+        long slots = hashSlots * 2;
+        if (HASH_HEADER + slots * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transcript journal index is full");
+        }
+        Path target = directory.resolve(HASH_INDEX);
+        Path temporary = directory.resolve(HASH_INDEX + ".tmp");
+        try {
+            Files.deleteIfExists(temporary);
+            FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer grown = mapHash(channel, slots);
+            for (long slot = 0; slot < hashSlots; slot++) {
+                long key = hash.getLong(slotPosition(slot));
+                if (key != 0) {
+                    int position = slotPosition(find(grown, slots, key));
+                    grown.putLong(position, key);
+                    grown.putLong(position + 8, hash.getLong(slotPosition(slot) + 8));
+                }
+            }
+            grown.putLong(16, hashSize);
+            grown.putLong(24, hash.getLong(24));
+            grown.force();
+            hashChannel.close();
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            hashChannel = channel;
+            hash = grown;
+            hashSlots = slots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow transcript journal index", e);
+        }
+    }
+
+    private static MappedByteBuffer mapHash(FileChannel channel, long slots) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HASH_HEADER + slots * SLOT_BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(0, HASH_MAGIC);
+        buffer.putLong(8, slots);
+        return buffer;
+    }
+
+    private void writeIndexedUpTo(long offset) {
+        hash.putLong(24, offset);
+        time.putLong(0, timeEntries);
+    }
+
+    // ---------------------------------------------------------------- time index
+
+    private void addTimeEntry(long timestamp, long offset) {
+        long position = TIME_HEADER + timeEntries * TIME_ENTRY_BYTES;
+        if (position + TIME_ENTRY_BYTES > time.capacity()) {
+            try {
+                time = mapTime(timeChannel, time.capacity() + TIME_INDEX_GROWTH * TIME_ENTRY_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to grow transcript journal time index", e);
+            }
+        }
+        time.putLong((int) position, timestamp);
+        time.putLong((int) position + 8, offset);
+        timeEntries++;
+    }
+
+    /**
+     * Returns the offset of the last indexed record older than
+     * {@code fromMillis}, or the start of the journal.
+     */
+    private long timeIndexFloor(long fromMillis) {
+        synchronized (indexLock) {
+            long low = 0;
+            long high = timeEntries - 1;
+            long offset = segments.isEmpty() ? 0 : segments.firstKey();
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                int position = (int) (TIME_HEADER + mid * TIME_ENTRY_BYTES);
+                if (time.getLong(position) < fromMillis) {
+                    offset = time.getLong(position + 8);
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return offset;
+        }
+    }
+
+    private static MappedByteBuffer mapTime(FileChannel channel, long bytes) throws IOException {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transcript journal time index is full");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    // ---------------------------------------------------------------- recovery
+
+    private void load() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(base, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, FileChannel.open(segmentPath(0), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+        }
+        Map.Entry<Long, FileChannel> last = segments.lastEntry();
+        active = last.getValue();
+        activeBase = last.getKey();
+        long logEnd = activeBase + active.size();
+
+        hashChannel = FileChannel.open(directory.resolve(HASH_INDEX), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        timeChannel = FileChannel.open(directory.resolve(TIME_INDEX), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long indexedUpTo = -1;
+        if (hashChannel.size() >= HASH_HEADER && timeChannel.size() >= TIME_HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(HASH_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(hashChannel, header, 0);
+            long slots = header.getLong(8);
+            if (header.getLong(0) == HASH_MAGIC && Long.bitCount(slots) == 1
+                    && hashChannel.size() == HASH_HEADER + slots * SLOT_BYTES) {
+                hashSlots = slots;
+                hashSize = header.getLong(16);
+                indexedUpTo = header.getLong(24);
+            }
+        }
+        if (indexedUpTo < 0 || indexedUpTo > logEnd) {
+            // Missing, foreign or ahead of an unsynced log: rebuild from the start
+            hashChannel.truncate(0);
+            timeChannel.truncate(0);
+            hashSlots = INITIAL_SLOTS;
+            hashSize = 0;
+            indexedUpTo = segments.firstKey();
+        }
+        hash = mapHash(hashChannel, hashSlots);
+        time = mapTime(timeChannel, Math.max(timeChannel.size(), TIME_HEADER + TIME_INDEX_GROWTH * TIME_ENTRY_BYTES));
+        timeEntries = time.getLong(0);
+        while (timeEntries > 0 && time.getLong((int) (TIME_HEADER + (timeEntries - 1) * TIME_ENTRY_BYTES) + 8)
+                >= indexedUpTo) {
+            timeEntries--;
+        }
+        if (timeEntries > 0) {
+            int position = (int) (TIME_HEADER + (timeEntries - 1) * TIME_ENTRY_BYTES);
+            lastTimeIndexOffset = time.getLong(position + 8);
+        }
+        endOffset = indexedUpTo;
+        if (endOffset > segments.firstKey()) {
+            lastTimestamp = readLocked(lastRecordBefore(endOffset)).entry.timestampMillis();
+        }
+        recover(logEnd);
+    }
+
+    /**
+     * Re-indexes records written after the last indexed offset and truncates
+     * an incomplete or corrupt tail.
+     */
+    private void recover(long logEnd) throws IOException {
+        long recovered = 0;
+        while (endOffset < logEnd) {
+            Map.Entry<Long, FileChannel> segment = segments.floorEntry(endOffset);
+            long position = endOffset - segment.getKey();
+            if (position >= segment.getValue().size()) {
+                Long next = segments.higherKey(segment.getKey());
+                if (next == null) {
+                    break;
+                }
+                endOffset = next;
+                continue;
+            }
+            Record record = readRecord(segment.getValue(), position, segment.getKey());
+            if (record == null) {
+                logger.warn("Truncating transcript journal at offset {}", endOffset);
+                segment.getValue().truncate(position);
+                while (segments.lastKey() > segment.getKey()) {
+                    Map.Entry<Long, FileChannel> dropped = segments.pollLastEntry();
+                    dropped.getValue().close();
+                    Files.delete(segmentPath(dropped.getKey()));
+                }
+                active = segment.getValue();
+                activeBase = segment.getKey();
+                break;
+            }
+            lastTimestamp = Math.max(lastTimestamp, record.entry.timestampMillis());
+            index(endOffset, record.next - endOffset, record.entry.timestampMillis(),
+                    itemKey(record.entry.sessionId(), record.entry.itemId()), sessionKey(record.entry.sessionId()));
+            recovered++;
+        }
+        writeIndexedUpTo(endOffset);
+        if (recovered > 0) {
+            logger.info("Indexed {} transcript journal records on open", recovered);
+        }
+    }
+
+    private long lastRecordBefore(long offset) {
+        long position = timeIndexFloor(Long.MAX_VALUE);
+        long last = position;
+        while (position < offset) {
+            last = position;
+            position = readLocked(position).next;
+        }
+        return last;
+    }
+
+    private void closeFiles() {
+        for (FileChannel channel : segments.values()) {
+            closeQuietly(channel);
+        }
+        closeQuietly(hashChannel);
+        closeQuietly(timeChannel);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close transcript journal file", e);
+        }
+    }
+
+    private record Record(Entry entry, long previousInItem, long previousInSession, long next) {
+    }
+
+    private static final class Pending {
+        static final Pending STOP = new Pending(null, 0);
+
+        final Entry entry;
+        final long enqueuedNanos;
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        long offset = -1;
+
+        Pending(Entry entry, long enqueuedNanos) {
+            this.entry = entry;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Joins the transcripts of overlapping chunks of one recording.
+ * <p>
+ * With timed segments, each overlap is cut at its midpoint: a segment is kept
+ * from the chunk that contains its midpoint, so speech in the overlap appears
+ * once. Without timing, the longest run of words that ends the transcript so
+ * far and starts the next chunk is dropped from the next chunk. Diarized
+ * chunks label speakers independently, so each chunk's labels are mapped to
+ * the labels already in use by how long they speak at the same time within
+ * the overlap; speakers with no match get new labels.
+ */
+final class TranscriptMerger {
+    private static final int MAX_OVERLAP_WORDS = 64;
+
+    /**
+     * A chunk's transcript with segment times relative to the chunk.
+     */
+    record Chunk(double offset, Transcription transcription) {
+    }
+
+    private TranscriptMerger() {
+    }
+
+    static Transcription merge(List<Chunk> chunks, double overlapSeconds, double duration) {
+        if (chunks.size() == 1) {
+            Transcription only = chunks.get(0).transcription();
+            return new Transcription(only.text(), only.segments(), duration);
+        }
+        boolean timed = chunks.stream().allMatch(chunk -> !chunk.transcription().segments().isEmpty()
+                || chunk.transcription().text().isBlank());
+        return timed ? mergeSegments(chunks, overlapSeconds, duration) : mergeText(chunks, duration);
+    }
+
+    private static Transcription mergeSegments(List<Chunk> chunks, double overlapSeconds, double duration) {
+        List<TranscriptSegment> merged = new ArrayList<>();
+        List<TranscriptSegment> previous = List.of();
+        Set<String> labels = new HashSet<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk = chunks.get(i);
+            List<TranscriptSegment> current = new ArrayList<>();
+            for (TranscriptSegment segment : chunk.transcription().segments()) {
+                current.add(segment.shift(chunk.offset()));
+            }
+            current = relabel(previous, current, chunk.offset(), chunk.offset() + overlapSeconds, labels);
+
+            double from = i == 0 ? Double.NEGATIVE_INFINITY : chunk.offset() + overlapSeconds / 2;
+            double to = i == chunks.size() - 1 ? Double.POSITIVE_INFINITY
+                    : chunks.get(i + 1).offset() + overlapSeconds / 2;
+            for (TranscriptSegment segment : current) {
+                double mid = (segment.start() + segment.end()) / 2;
+                if (mid >= from && mid < to) {
+                    merged.add(segment);
+                }
+            }
+            previous = current;
+        }
+        StringBuilder text = new StringBuilder();
+        for (TranscriptSegment segment : merged) {
+            appendWords(text, segment.text());
+        }
+        return new Transcription(text.toString(), merged, duration);
+    }
+
+    /**
+     * Maps the speaker labels of {@code current} onto those of {@code previous}
+     * using the overlap window, giving unmatched speakers unused labels.
+     */
+    private static List<TranscriptSegment> relabel(List<TranscriptSegment> previous,
+            List<TranscriptSegment> current, double windowStart, double windowEnd, Set<String> labels) {
+        if (current.stream().allMatch(segment -> segment.speaker() == null)) {
+            return current;
+        }
+        Map<String, Map<String, Double>> together = new HashMap<>();
+        for (TranscriptSegment next : current) {
+            if (next.speaker() == null) {
+                continue;
+            }
+            for (TranscriptSegment prior : previous) {
+                if (prior.speaker() == null) {
+                    continue;
+                }
+                double start = Math.max(Math.max(next.start(), prior.start()), windowStart);
+                double end = Math.min(Math.min(next.end(), prior.end()), windowEnd);
+                if (end > start) {
+                    together.computeIfAbsent(next.speaker(), key -> new HashMap<>())
+                            .merge(prior.speaker(), end - start, Double::sum);
+                }
+            }
+        }
+        Map<String, String> mapping = new HashMap<>();
+        Set<String> taken = new HashSet<>();
+        while (true) {
+            String bestLocal = null;
+            String bestGlobal = null;
+            double best = 0;
+            for (Map.Entry<String, Map<String, Double>> local : together.entrySet()) {
+                if (mapping.containsKey(local.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<String, Double> global : local.getValue().entrySet()) {
+                    if (!taken.contains(global.getKey()) && global.getValue() > best) {
+                        best = global.getValue();
+                        bestLocal = local.getKey();
+                        bestGlobal = global.getKey();
+                    }
+                }
+            }
+            if (bestLocal == null) {
+                break;
+            }
+            mapping.put(bestLocal, bestGlobal);
+            taken.add(bestGlobal);
+        }
+        List<TranscriptSegment> relabeled = new ArrayList<>(current.size());
+        for (TranscriptSegment segment : current) {
+            String local = segment.speaker();
+            if (local == null) {
+                relabeled.add(segment);
+                continue;
+            }
+            String global = mapping.get(local);
+            if (global == null) {
+                global = previous.isEmpty() && !labels.contains(local) ? local : unusedLabel(labels);
+                mapping.put(local, global);
+            }
+            labels.add(global);
+            relabeled.add(segment.withSpeaker(global));
+        }
+        return relabeled;
+    }
+
+    private static String unusedLabel(Set<String> labels) {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            String label = String.valueOf(c);
+            if (!labels.contains(label)) {
+                return label;
+            }
+        }
+        int n = labels.size() + 1;
+        while (labels.contains("S" + n)) {
+            n++;
+        }
+        return "S" + n;
+    }
+
+    private static Transcription mergeText(List<Chunk> chunks, double duration) {
+        List<String> words = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            String[] next = chunk.transcription().text().trim().split("\\s+");
+            if (next.length == 1 && next[0].isEmpty()) {
+                continue;
+            }
+            int skip = overlapWords(words, next);
+            for (int i = skip; i < next.length; i++) {
+                words.add(next[i]);
+            }
+        }
+        return new Transcription(String.join(" ", words), List.of(), duration);
+    }
+
+    /**
+     * Returns the length of the longest run of words ending {@code words} that
+     * also starts {@code next}, ignoring case and punctuation.
+     */
+    static int overlapWords(List<String> words, String[] next) {
+        int max = Math.min(MAX_OVERLAP_WORDS, Math.min(words.size(), next.length));
+        for (int k = max; k > 0; k--) {
+            boolean match = true;
+            for (int i = 0; i < k && match; i++) {
+                match = normalize(words.get(words.size() - k + i)).equals(normalize(next[i]));
+            }
+            if (match && (k > 1 || normalize(next[0]).length() > 3)) {
+                return k;
+            }
+        }
+        return 0;
+    }
+
+    private static String normalize(String word) {
+        return word.replaceAll("[^\\p{L}\\p{N}']", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static void appendWords(StringBuilder text, String words) {
+        String trimmed = words.trim();
+        if (trimmed.isEmpty()) {
+            return;
+        }
+        if (text.length() > 0) {
+            text.append(' ');
+        }
+        text.append(trimmed);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+/**
+ * A timed piece of a transcript.
+ *
+ * @param start   start time in seconds from the beginning of the audio
+ * @param end     end time in seconds from the beginning of the audio
+ * @param text    the transcribed text
+ * @param speaker speaker label for diarized transcripts, otherwise {@code null}
+ */
+public record TranscriptSegment(double start, double end, String text, String speaker) {
+
+    /**
+     * Returns a copy moved later by {@code seconds}.
+     */
+    public TranscriptSegment shift(double seconds) {
+        return new TranscriptSegment(start + seconds, end + seconds, text, speaker);
+    }
+
+    /**
+     * Returns a copy with another speaker label.
+     */
+    public TranscriptSegment withSpeaker(String label) {
+        return new TranscriptSegment(start, end, text, label);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import java.util.List;
+
+/**
+ * Result of transcribing a recording.
+ *
+ * @param text     the full transcript
+ * @param segments timed segments, empty if the model does not return timing
+ * @param duration duration of the audio in seconds, or 0 if unknown
+ */
+public record Transcription(String text, List<TranscriptSegment> segments, double duration) {
+    public Transcription {
+        segments = List.copyOf(segments);
+    }
+}
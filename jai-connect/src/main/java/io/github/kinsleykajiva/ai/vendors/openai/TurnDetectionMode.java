@@ -0,0 +1,26 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+/**
+ * Who decides when a user turn ends in a Realtime session.
+ */
+public enum TurnDetectionMode {
+    /**
+     * The server detects the end of speech ({@code server_vad}) and commits the
+     * input buffer itself.
+     */
+    SERVER_VAD,
+
+    /**
+     * The session is configured with {@code turn_detection: null} and the client
+     * runs its own endpointing on all outgoing audio, whether appended as PCM16
+     * or as base64 in the session input format, committing the buffer and
+     * requesting a response as soon as the end of a turn is detected.
+     */
+    LOCAL,
+
+    /**
+     * The session is configured with {@code turn_detection: null} and the
+     * application commits the buffer and requests responses explicitly.
+     */
+    MANUAL
+}
@@ -0,0 +1,279 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.metrics.LatencyHistogram;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Breaks voice-to-voice latency of a realtime session down by stage.
+ * <p>
+ * Each turn is timestamped, on receipt, at {@code input_audio_buffer.speech_stopped},
+ * {@code input_audio_buffer.committed}, {@code response.created}, the first
+ * text or audio transcript delta, the first audio delta and
+ * {@code response.done}, and optionally when the application reports the first
+ * audio as played. A turn starts at speech stopped, or at the commit or the
+ * response when earlier events are absent (manual turns, text input). Each
+ * finished turn records the gaps between consecutive stages and the
+ * end-to-end latencies into {@link LatencyHistogram}s, and is handed to the
+ * exporter. On close the session's histograms are logged and exported.
+ */
+public final class TurnTracer {
+    private static final Logger logger = LoggerFactory.getLogger(TurnTracer.class);
+
+    public static final String STOP_TO_COMMIT = "stop_to_commit";
+    public static final String COMMIT_TO_RESPONSE = "commit_to_response";
+    public static final String RESPONSE_TO_FIRST_TEXT = "response_to_first_text";
+    public static final String RESPONSE_TO_FIRST_AUDIO = "response_to_first_audio";
+    public static final String FIRST_AUDIO_TO_DONE = "first_audio_to_done";
+    public static final String FIRST_AUDIO_TO_PLAYED = "first_audio_to_played";
+    public static final String VOICE_TO_FIRST_AUDIO = "voice_to_first_audio";
+    public static final String VOICE_TO_PLAYED = "voice_to_played";
+    public static final String VOICE_TO_DONE = "voice_to_done";
+
+    /**
+     * Receives finished turns and the session summary. Called on the
+     * WebSocket thread, so implementations should hand off slow work.
+     */
+    public interface Exporter {
+        void onTurn(String sessionId, Turn turn);
+
+        default void onSessionSummary(String sessionId, Map<String, LatencyHistogram> histograms) {
+        }
+    }
+
+    /**
+     * Timestamps of one turn from {@link System#nanoTime()}; 0 where the stage
+     * was not observed.
+     */
+    public record Turn(int index, String itemId, String responseId, String status, long speechStopped,
+            long committed, long responseCreated, long firstText, long firstAudio, long responseDone,
+            long firstAudioPlayed) {
+
+        /**
+         * Returns the first timestamp of the turn.
+         */
+        public long start() {
+            return speechStopped != 0 ? speechStopped : committed != 0 ? committed : responseCreated;
+        }
+
+        /**
+         * Returns the nanoseconds from the start of the turn to the first audio
+         * delta, or -1 if there was no audio.
+         */
+        public long voiceToFirstAudioNanos() {
+            return firstAudio == 0 ? -1 : firstAudio - start();
+        }
+    }
+
+    private final Map<String, LatencyHistogram> histograms;
+    private volatile Exporter exporter;
+    private volatile String sessionId;
+    private int turns;
+    private Builder current;
+    private boolean playoutReported;
+    private boolean closed;
+
+    public TurnTracer() {
+        Map<String, LatencyHistogram> map = new LinkedHashMap<>();
+        for (String stage : new String[] { STOP_TO_COMMIT, COMMIT_TO_RESPONSE, RESPONSE_TO_FIRST_TEXT,
+                RESPONSE_TO_FIRST_AUDIO, FIRST_AUDIO_TO_DONE, FIRST_AUDIO_TO_PLAYED, VOICE_TO_FIRST_AUDIO,
+                VOICE_TO_PLAYED, VOICE_TO_DONE }) {
+            map.put(stage, new LatencyHistogram(stage));
+        }
+        this.histograms = Collections.unmodifiableMap(map);
+    }
+
+    public void setExporter(Exporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Returns the histograms by stage name; see the constants of this class.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    public LatencyHistogram getHistogram(String stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Records a server event received at {@code nanos}.
+     */
+    synchronized void onEvent(String type, JSONObject event, long nanos) {
+        if (closed) {
+            return;
+        }
+        switch (type) {
+            case "input_audio_buffer.speech_stopped" -> {
+                finishPending();
+                current = new Builder(event.optString("item_id", null));
+                current.speechStopped = nanos;
+            }
+            case "input_audio_buffer.committed" -> {
+                if (current == null || current.committed != 0 || current.responseCreated != 0) {
+                    finishPending();
+                    current = new Builder(event.optString("item_id", null));
+                }
+                current.committed = nanos;
+            }
+            case "response.created" -> {
+                if (current == null || current.responseCreated != 0) {
+                    finishPending();
+                    current = new Builder(null);
+                }
+                current.responseCreated = nanos;
+                JSONObject response = event.optJSONObject("response");
+                current.responseId = response == null ? null : response.optString("id", null);
+            }
+            case "response.output_text.delta", "response.output_audio_transcript.delta" -> {
+                if (current != null && current.firstText == 0) {
+                    current.firstText = nanos;
+                }
+            }
+            case "response.output_audio.delta" -> {
+                if (current != null && current.firstAudio == 0) {
+                    current.firstAudio = nanos;
+                }
+            }
+            case "response.done" -> {
+                if (current != null) {
+                    current.responseDone = nanos;
+                    JSONObject response = event.optJSONObject("response");
+                    current.status = response == null ? null : response.optString("status", null);
+                    // When the application reports playout, wait for it before finishing the turn
+                    if (!playoutReported || current.firstAudio == 0 || current.firstAudioPlayed != 0) {
+                        finish(current.status);
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Reports that the first audio of the current response started playing,
+     * e.g. from the audio output thread. Once this has been called, turns
+     * stay open after {@code response.done} until their audio is reported
+     * played.
+     */
+    public void onFirstAudioPlayed() {
+        onFirstAudioPlayed(System.nanoTime());
+    }
+
+    synchronized void onFirstAudioPlayed(long nanos) {
+        playoutReported = true;
+        if (current == null || current.firstAudio == 0 || current.firstAudioPlayed != 0) {
+            return;
+        }
+        current.firstAudioPlayed = nanos;
+        if (current.responseDone != 0) {
+            finish(current.status);
+        }
+    }
+
+    /**
+     * Finishes the turn in progress, logs the session summary and passes it to
+     * the exporter.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        finishPending();
+        closed = true;
+        if (turns == 0) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        for (LatencyHistogram histogram : histograms.values()) {
+            if (histogram.getCount() > 0) {
+                summary.append("\n  ").append(histogram);
+            }
+        }
+        logger.info("Session {} latency over {} turns:{}", sessionId, turns, summary);
+        Exporter target = exporter;
+        if (target != null) {
+            try {
+                target.onSessionSummary(sessionId, histograms);
+            } catch (RuntimeException e) {
+                logger.warn("Turn trace exporter failed", e);
+            }
+        }
+    }
+
+    private void finishPending() {
+        if (current != null) {
+            finish(current.responseDone != 0 ? current.status : "incomplete");
+        }
+    }
+
+    private void finish(String status) {
+        Builder builder = current;
+        current = null;
+        if (builder == null) {
+            return;
+        }
+        Turn turn = new Turn(++turns, builder.itemId, builder.responseId, status, builder.speechStopped,
+                builder.committed, builder.responseCreated, builder.firstText, builder.firstAudio,
+                builder.responseDone, builder.firstAudioPlayed);
+        record(STOP_TO_COMMIT, turn.speechStopped(), turn.committed());
+        record(COMMIT_TO_RESPONSE, turn.committed(), turn.responseCreated());
+        record(RESPONSE_TO_FIRST_TEXT, turn.responseCreated(), turn.firstText());
+        record(RESPONSE_TO_FIRST_AUDIO, turn.responseCreated(), turn.firstAudio());
+        record(FIRST_AUDIO_TO_DONE, turn.firstAudio(), turn.responseDone());
+        record(FIRST_AUDIO_TO_PLAYED, turn.firstAudio(), turn.firstAudioPlayed());
+        // End-to-end latencies only count turns that began with the user speaking
+        if (turn.speechStopped() != 0 || turn.committed() != 0) {
+            record(VOICE_TO_FIRST_AUDIO, turn.start(), turn.firstAudio());
+            record(VOICE_TO_PLAYED, turn.start(), turn.firstAudioPlayed());
+            record(VOICE_TO_DONE, turn.start(), turn.responseDone());
+        }
+        Exporter target = exporter;
+        if (target != null) {
+            try {
+                target.onTurn(sessionId, turn);
+            } catch (RuntimeException e) {
+                logger.warn("Turn trace exporter failed", e);
+            }
+        }
+    }
+
+    private void record(String stage, long from, long to) {
+        if (from != 0 && to != 0) {
+            histograms.get(stage).recordNanos(to - from);
+        }
+    }
+
+    private static final class Builder {
+        final String itemId;
+        String responseId;
+        String status;
+        long speechStopped;
+        long committed;
+        long responseCreated;
+        long firstText;
+        long firstAudio;
+        long responseDone;
+        long firstAudioPlayed;
+
+        Builder(String itemId) {
+            this.itemId = itemId;
+        }
+    }
+}
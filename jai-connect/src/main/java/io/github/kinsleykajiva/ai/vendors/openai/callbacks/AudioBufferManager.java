@@ -1,5 +1,12 @@
 package io.github.kinsleykajiva.ai.vendors.openai.callbacks;
 
+import io.github.kinsleykajiva.ai.audio.G711Codec;
+import io.github.kinsleykajiva.ai.audio.PcmKernels;
+import io.github.kinsleykajiva.ai.audio.PolyphaseResampler;
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+
+import java.util.Base64;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -7,6 +14,61 @@ import java.util.concurrent.CompletableFuture;
  */
 public interface AudioBufferManager {
 	CompletableFuture<Void> appendAudio(String base64Audio);
+
+	/**
+	 * Returns the session input format that PCM16 appends are encoded to. The
+	 * default is {@link AudioFormats#PCM_24KHZ_MONO}.
+	 */
+	default AudioFormats getInputFormat() {
+		return AudioFormats.PCM_24KHZ_MONO;
+	}
+
+	/**
+	 * Appends linear PCM16 samples, encoding them to the session input format
+	 * first (G.711 for {@code PCMU}/{@code PCMA}, little-endian PCM16 otherwise).
+	 * Samples must already be at the input format's sample rate.
+	 * <p>
+	 * The default implementation encodes to {@link #getInputFormat()} and passes
+	 * the result to {@link #appendAudio}.
+	 */
+	default CompletableFuture<Void> appendPcm16(short[] pcm, int offset, int length) {
+		Objects.requireNonNull(pcm, "Audio data cannot be null");
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		AudioFormats format = getInputFormat();
+		byte[] audio;
+		if (G711Codec.isG711(format)) {
+			audio = new byte[length];
+			G711Codec.forFormat(format).encode(pcm, offset, audio, 0, length);
+		} else {
+			audio = new byte[length * 2];
+			PcmKernels.shortsToPcm16le(pcm, offset, audio, 0, length);
+		}
+		return appendAudio(Base64.getEncoder().encodeToString(audio));
+	}
+
+	/**
+	 * Appends linear PCM16 samples captured at {@code sampleRate}, resampling them
+	 * to the session input format's rate before encoding. Implementations that keep
+	 * resampler state per source rate join consecutive chunks seamlessly; chunks
+	 * for the same rate must then be appended in order from a single producer.
+	 * <p>
+	 * The default implementation resamples each chunk on its own with a fresh
+	 * {@link PolyphaseResampler}, so the filter restarts at every chunk boundary.
+	 * Implementations fed a continuous stream should keep a resampler per rate.
+	 */
+	default CompletableFuture<Void> appendPcm16(short[] pcm, int offset, int length, int sampleRate) {
+		Objects.requireNonNull(pcm, "Audio data cannot be null");
+		Objects.checkFromIndexSize(offset, length, pcm.length);
+		int targetRate = getInputFormat().getSampleRate();
+		if (sampleRate == targetRate) {
+			return appendPcm16(pcm, offset, length);
+		}
+		PolyphaseResampler resampler = new PolyphaseResampler(sampleRate, targetRate);
+		short[] resampled = new short[resampler.maxOutputSamples(length)];
+		int resampledLength = resampler.process(pcm, offset, length, resampled, 0);
+		return appendPcm16(resampled, 0, resampledLength);
+	}
+
 	CompletableFuture<Void> commitBuffer();
 	CompletableFuture<Void> clearBuffer();
 	long getCurrentDurationMs();
@@ -0,0 +1,14 @@
+package io.github.kinsleykajiva.ai.vendors.openai.callbacks;
+
+/**
+ * Output audio handler that receives linear PCM16 samples regardless of the
+ * session output format. G.711 output is expanded before delivery.
+ */
+@FunctionalInterface
+public interface Pcm16AudioHandler {
+	/**
+	 * Called for each output audio delta. Only the first {@code length} samples of
+	 * {@code pcm} are valid; the array must not be retained after the call.
+	 */
+	void onPcm16Audio(String itemId, int contentIndex, short[] pcm, int length);
+}
@@ -0,0 +1,16 @@
+package io.github.kinsleykajiva.ai.vendors.openai.callbacks;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives synthesized speech as it streams from the TTS endpoint. For the
+ * {@code pcm} format every chunk holds a whole number of 16-bit samples.
+ */
+@FunctionalInterface
+public interface SpeechChunkHandler {
+	/**
+	 * Called for each chunk in order, on an HTTP client thread. The buffer is
+	 * owned by the handler and may be retained.
+	 */
+	void onSpeechChunk(ByteBuffer chunk);
+}
@@ -1,5 +1,7 @@
 package io.github.kinsleykajiva.ai.vendors.openai.callbacks;
 
+import io.github.kinsleykajiva.ai.vendors.openai.TranscriptSegment;
+
 /**
  * Transcription event handler interface
  */
@@ -12,4 +14,11 @@ public interface TranscriptionEventHandler {
 	 */
 	default void onTranscriptionDelta(String itemId, int contentIndex, String delta) {
 	}
+
+	/**
+	 * Called for each timed segment, with speaker labels for diarized
+	 * transcription.
+	 */
+	default void onTranscriptionSegment(String itemId, int contentIndex, TranscriptSegment segment) {
+	}
 }
@@ -0,0 +1,20 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The send buffer pool was empty and a buffer was allocated.
+ */
+@Name(JaiEvents.BUFFER_POOL_EXHAUSTED)
+@Label("Buffer Pool Exhausted")
+@Category({ "jai-connect", "Realtime" })
+@Description("Send buffer pool empty, buffer allocated")
+public final class BufferPoolExhaustedEvent extends jdk.jfr.Event {
+	@Label("Buffer Size")
+	@DataAmount
+	public int bufferSize;
+}
@@ -0,0 +1,27 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A realtime WebSocket connection attempt; the duration is the handshake.
+ */
+@Name(JaiEvents.CONNECT)
+@Label("Realtime Connect")
+@Category({ "jai-connect", "Realtime" })
+@Description("Realtime WebSocket connection opened or failed")
+@StackTrace(false)
+public final class ConnectEvent extends jdk.jfr.Event {
+	@Label("URI")
+	public String uri;
+
+	@Label("Reconnect")
+	@Description("Whether the client had been connected before")
+	public boolean reconnect;
+
+	@Label("Succeeded")
+	public boolean succeeded;
+}
@@ -0,0 +1,32 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A registered event handler run on the client executor. The duration runs
+ * from dispatch on the WebSocket thread to completion; the execution time
+ * excludes the wait in the executor queue.
+ */
+@Name(JaiEvents.HANDLER_EXECUTION)
+@Label("Handler Execution")
+@Category({ "jai-connect", "Realtime" })
+@Description("Event handler dispatched to the executor and completed")
+@Enabled(false)
+@StackTrace(false)
+public final class HandlerExecutionEvent extends jdk.jfr.Event {
+	@Label("Event Type")
+	public String eventType;
+
+	@Label("Execution Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long executionTime;
+
+	@Label("Succeeded")
+	public boolean succeeded;
+}
@@ -0,0 +1,29 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A realtime server event received and parsed; the duration is the parse
+ * time.
+ */
+@Name(JaiEvents.INBOUND_FRAME)
+@Label("Inbound Frame")
+@Category({ "jai-connect", "Realtime" })
+@Description("Realtime server event received and parsed")
+@Enabled(false)
+@StackTrace(false)
+public final class InboundFrameEvent extends jdk.jfr.Event {
+	@Label("Event Type")
+	public String eventType;
+
+	@Label("Size")
+	@Description("Length of the text frame in characters")
+	@DataAmount
+	public int size;
+}
@@ -0,0 +1,85 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Names of the Flight Recorder events emitted by the OpenAI clients and the
+ * settings profile shipped with the library.
+ * <p>
+ * The high-rate events (frames in and out, handler execution) are disabled
+ * unless a recording enables them; disabled events cost a field store and a
+ * flag check on the hot path. The shipped {@value #SETTINGS_RESOURCE}
+ * profile enables all of them. Use it on top of the JDK defaults with
+ * {@link #newRecording()}, or write it out with {@link #writeSettings} and
+ * pass it on the command line, e.g.
+ * {@code -XX:StartFlightRecording:settings=default,settings=jai-connect.jfc}.
+ */
+public final class JaiEvents {
+	public static final String INBOUND_FRAME = "io.github.kinsleykajiva.jai.InboundFrame";
+	public static final String HANDLER_EXECUTION = "io.github.kinsleykajiva.jai.HandlerExecution";
+	public static final String OUTBOUND_FRAME_QUEUED = "io.github.kinsleykajiva.jai.OutboundFrameQueued";
+	public static final String OUTBOUND_FRAME_SENT = "io.github.kinsleykajiva.jai.OutboundFrameSent";
+	public static final String BUFFER_POOL_EXHAUSTED = "io.github.kinsleykajiva.jai.BufferPoolExhausted";
+	public static final String CONNECT = "io.github.kinsleykajiva.jai.Connect";
+	public static final String TTS_REQUEST = "io.github.kinsleykajiva.jai.TtsRequest";
+
+	/**
+	 * Classpath resource, next to this class, holding the settings profile.
+	 */
+	public static final String SETTINGS_RESOURCE = "jai-connect.jfc";
+
+	private JaiEvents() {
+	}
+
+	/**
+	 * Loads the shipped settings profile.
+	 */
+	public static Configuration settings() throws IOException, ParseException {
+		try (Reader reader = new InputStreamReader(openSettings(), StandardCharsets.UTF_8)) {
+			return Configuration.create(reader);
+		}
+	}
+
+	/**
+	 * Creates a recording with the JDK {@code default} settings and the
+	 * library events enabled as in the shipped profile. The recording is not
+	 * started.
+	 */
+	public static Recording newRecording() throws IOException, ParseException {
+		Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+		settings.putAll(settings().getSettings());
+		return new Recording(settings);
+	}
+
+	/**
+	 * Copies the shipped settings profile to {@code target}, for use with
+	 * {@code -XX:StartFlightRecording} or {@code jcmd JFR.start}.
+	 */
+	public static Path writeSettings(Path target) throws IOException {
+		try (InputStream in = openSettings()) {
+			Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return target;
+	}
+
+	private static InputStream openSettings() throws IOException {
+		InputStream in = JaiEvents.class.getResourceAsStream(SETTINGS_RESOURCE);
+		if (in == null) {
+			throw new IOException("Missing resource " + SETTINGS_RESOURCE);
+		}
+		return in;
+	}
+}
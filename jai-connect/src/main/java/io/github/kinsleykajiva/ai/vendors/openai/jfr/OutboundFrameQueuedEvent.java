@@ -0,0 +1,30 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A client event queued for sending.
+ */
+@Name(JaiEvents.OUTBOUND_FRAME_QUEUED)
+@Label("Outbound Frame Queued")
+@Category({ "jai-connect", "Realtime" })
+@Description("Client event queued for sending")
+@Enabled(false)
+@StackTrace(false)
+public final class OutboundFrameQueuedEvent extends jdk.jfr.Event {
+	@Label("Event Type")
+	public String eventType;
+
+	@Label("Queue Depth")
+	@Description("Events waiting to be written, including this one")
+	public int queueDepth;
+
+	@Label("Priority")
+	@Description("Whether the event overtakes the regular send queue")
+	public boolean priority;
+}
@@ -0,0 +1,30 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A client event written to the socket; the duration is the write.
+ */
+@Name(JaiEvents.OUTBOUND_FRAME_SENT)
+@Label("Outbound Frame Sent")
+@Category({ "jai-connect", "Realtime" })
+@Description("Client event written to the WebSocket")
+@Enabled(false)
+@StackTrace(false)
+public final class OutboundFrameSentEvent extends jdk.jfr.Event {
+	@Label("Event Type")
+	public String eventType;
+
+	@Label("Size")
+	@DataAmount
+	public int size;
+
+	@Label("Succeeded")
+	public boolean succeeded;
+}
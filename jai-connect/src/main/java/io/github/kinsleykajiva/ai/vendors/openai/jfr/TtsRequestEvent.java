@@ -0,0 +1,44 @@
+package io.github.kinsleykajiva.ai.vendors.openai.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A text-to-speech request, from sending it to the end of the response.
+ */
+@Name(JaiEvents.TTS_REQUEST)
+@Label("TTS Request")
+@Category({ "jai-connect", "TTS" })
+@Description("Text-to-speech request from start to complete")
+@StackTrace(false)
+public final class TtsRequestEvent extends jdk.jfr.Event {
+	@Label("Model")
+	public String model;
+
+	@Label("Voice")
+	public String voice;
+
+	@Label("Format")
+	public String format;
+
+	@Label("Streamed")
+	public boolean streamed;
+
+	@Label("Time to First Byte")
+	@Description("Time to the first audio byte; streamed requests only")
+	@Timespan(Timespan.NANOSECONDS)
+	public long timeToFirstByte;
+
+	@Label("Bytes")
+	@Description("Audio bytes received; 0 for requests saved to a file")
+	@DataAmount
+	public long bytes;
+
+	@Label("Succeeded")
+	public boolean succeeded;
+}
@@ -4,8 +4,14 @@ module io.github.kinsleykajiva.jai.connect {
     requires org.slf4j;
     requires webrtc.java;
     requires org.jspecify;
+    requires jdk.jfr;
+    requires static jdk.incubator.vector;
 
+    exports io.github.kinsleykajiva.ai.audio;
+    exports io.github.kinsleykajiva.ai.metrics;
+    exports io.github.kinsleykajiva.ai.pipeline;
     exports io.github.kinsleykajiva.ai.vendors.openai;
     exports io.github.kinsleykajiva.ai.vendors.openai.callbacks;
+    exports io.github.kinsleykajiva.ai.vendors.openai.jfr;
     exports io.github.kinsleykajiva.ai.vendors.openai.models;
 }
@@ -0,0 +1,51 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AudioDeltaDecoderTest {
+
+	@Test
+	void decodesPcm16AndReusesTheBuffer() {
+		AudioDeltaDecoder decoder = new AudioDeltaDecoder(AudioFormats.PCM_24KHZ_MONO);
+		short[] first = { 1, -1, 0x1234, Short.MIN_VALUE, Short.MAX_VALUE };
+
+		int length = decoder.decode(encode(first));
+		assertEquals(first.length, length);
+		assertArrayEquals(first, Arrays.copyOf(decoder.samples(), length));
+
+		short[] buffer = decoder.samples();
+		short[] second = { 7, 8, 9 };
+		length = decoder.decode(encode(second));
+		assertEquals(second.length, length);
+		assertArrayEquals(second, Arrays.copyOf(decoder.samples(), length));
+		assertSame(buffer, decoder.samples());
+	}
+
+	@Test
+	void expandsG711() {
+		short[] pcm = { 0, 500, -500, 20000, -20000 };
+		byte[] ulaw = new byte[pcm.length];
+		G711Codec.MU_LAW.encode(pcm, 0, ulaw, 0, pcm.length);
+		short[] expected = new short[pcm.length];
+		G711Codec.MU_LAW.decode(ulaw, 0, expected, 0, pcm.length);
+
+		AudioDeltaDecoder decoder = new AudioDeltaDecoder(AudioFormats.PCMU);
+		int length = decoder.decode(Base64.getEncoder().encodeToString(ulaw));
+		assertEquals(pcm.length, length);
+		assertArrayEquals(expected, Arrays.copyOf(decoder.samples(), length));
+	}
+
+	private static String encode(short[] pcm) {
+		byte[] bytes = new byte[pcm.length * 2];
+		PcmKernels.shortsToPcm16le(pcm, 0, bytes, 0, pcm.length);
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,71 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointerTest {
+	private static final int RATE = 8000;
+	// 20 ms chunks
+	private static final short[] SPEECH = filled(160, (short) 1);
+	private static final short[] SILENCE = new short[160];
+
+	@Test
+	void reportsTurnsInMillisecondsOfAudio() {
+		List<long[]> turns = new ArrayList<>();
+		Endpointer endpointer = endpointer(turns);
+		feed(endpointer, SILENCE, 10);
+		feed(endpointer, SPEECH, 15);
+		assertTrue(feed(endpointer, SILENCE, 25));
+
+		assertEquals(1, turns.size());
+		assertEquals(200, turns.get(0)[0]);
+		assertEquals(500, turns.get(0)[1]);
+	}
+
+	@Test
+	void resetRestartsTheTimeBase() {
+		List<long[]> turns = new ArrayList<>();
+		Endpointer endpointer = endpointer(turns);
+		feed(endpointer, SILENCE, 50);
+		feed(endpointer, SPEECH, 5);
+		endpointer.reset();
+
+		assertEquals(0, endpointer.getPositionMs());
+		assertFalse(endpointer.isInSpeech());
+		feed(endpointer, SILENCE, 5);
+		feed(endpointer, SPEECH, 15);
+		feed(endpointer, SILENCE, 25);
+
+		assertEquals(1, turns.size());
+		assertEquals(100, turns.get(0)[0]);
+		assertEquals(400, turns.get(0)[1]);
+	}
+
+	private static Endpointer endpointer(List<long[]> turns) {
+		VoiceActivityDetector detector = (pcm, offset, length) -> pcm[offset] != 0;
+		Endpointer endpointer = new Endpointer(detector, RATE, 200, 500);
+		endpointer.setListener((start, end) -> turns.add(new long[] { start, end }));
+		return endpointer;
+	}
+
+	private static boolean feed(Endpointer endpointer, short[] chunk, int count) {
+		boolean ended = false;
+		for (int i = 0; i < count; i++) {
+			ended |= endpointer.process(chunk, 0, chunk.length);
+		}
+		return ended;
+	}
+
+	private static short[] filled(int length, short value) {
+		short[] pcm = new short[length];
+		Arrays.fill(pcm, value);
+		return pcm;
+	}
+}
@@ -0,0 +1,77 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PcmKernelsTest {
+	// Odd lengths leave a scalar tail after the vector loop
+	private static final int[] LENGTHS = { 0, 1, 7, 64, 333, 4097 };
+
+	@Test
+	void vectorPathEngagesWhenTheModuleIsPresent() {
+		boolean available = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+				&& Boolean.parseBoolean(System.getProperty("jai.audio.vector", "true"));
+		assertEquals(available, PcmKernels.isVectorized());
+	}
+
+	@Test
+	void vectorKernelsMatchScalar() {
+		assertTrue(PcmKernels.isVectorized(), "run with --add-modules jdk.incubator.vector");
+		Random random = new Random(42);
+		for (int length : LENGTHS) {
+			short[] pcm = randomShorts(random, length + 3);
+			short[] other = randomShorts(random, length + 3);
+
+			assertEquals(PcmKernels.scalarSumOfSquares(pcm, 3, length), VectorPcmKernels.sumOfSquares(pcm, 3, length));
+
+			short[] expected = new short[length];
+			short[] actual = new short[length];
+			PcmKernels.scalarApplyGain(pcm, 3, expected, 0, length, 5000);
+			VectorPcmKernels.applyGain(pcm, 3, actual, 0, length, 5000);
+			assertArrayEquals(expected, actual);
+
+			expected = pcm.clone();
+			actual = pcm.clone();
+			PcmKernels.scalarMixInto(expected, 3, other, 3, length);
+			VectorPcmKernels.mixInto(actual, 3, other, 3, length);
+			assertArrayEquals(expected, actual);
+
+			int[] expectedAcc = new int[length];
+			int[] actualAcc = new int[length];
+			PcmKernels.scalarAccumulate(pcm, 3, expectedAcc, 0, length, 7000);
+			VectorPcmKernels.accumulate(pcm, 3, actualAcc, 0, length, 7000);
+			assertArrayEquals(expectedAcc, actualAcc);
+
+			byte[] expectedBytes = new byte[length * 2];
+			byte[] actualBytes = new byte[length * 2];
+			PcmKernels.scalarShortsToPcm16le(pcm, 3, expectedBytes, 0, length);
+			VectorPcmKernels.shortsToPcm16le(pcm, 3, actualBytes, 0, length);
+			assertArrayEquals(expectedBytes, actualBytes);
+
+			expected = new short[length];
+			actual = new short[length];
+			PcmKernels.scalarPcm16leToShorts(expectedBytes, 0, expected, 0, length);
+			VectorPcmKernels.pcm16leToShorts(expectedBytes, 0, actual, 0, length);
+			assertArrayEquals(expected, actual);
+
+			expected = new short[length / 2];
+			actual = new short[length / 2];
+			PcmKernels.scalarDownmixStereo(pcm, 3, expected, 0, length / 2);
+			VectorPcmKernels.downmixStereo(pcm, 3, actual, 0, length / 2);
+			assertArrayEquals(expected, actual);
+		}
+	}
+
+	private static short[] randomShorts(Random random, int length) {
+		short[] pcm = new short[length];
+		for (int i = 0; i < length; i++) {
+			pcm[i] = (short) random.nextInt();
+		}
+		return pcm;
+	}
+}
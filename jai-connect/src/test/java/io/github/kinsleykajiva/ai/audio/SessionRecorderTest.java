@@ -0,0 +1,109 @@
+package io.github.kinsleykajiva.ai.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRecorderTest {
+	private static final int RATE = 8000;
+	private static final int CHUNK_FRAMES = RATE / 50;
+
+	@TempDir
+	Path directory;
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void silenceLongerThanTheStageKeepsRecording() throws IOException {
+		// Both directions quiet for longer than twice the 10 s staging window
+		SessionRecorder recorder = new SessionRecorder(directory, "gap", RATE, SessionRecorder.Layout.STEREO,
+				SessionRecorder.MAX_WAV_FILE_BYTES, 0, clock::get);
+		speak(recorder, 0, 50, (short) 1000);
+		speak(recorder, 24_000, 50, (short) 2000);
+		recorder.close();
+
+		assertEquals(0, recorder.getWriteErrors());
+		assertEquals(1, recorder.getFiles().size());
+		short[] left = channel(recorder.getFiles().get(0), 0);
+		// One second of speech, 23 s of silence, then the second second of speech
+		assertEquals(25 * RATE, left.length, 0.01 * RATE);
+		assertEquals(RATE, count(left, (short) 1000));
+		assertEquals(RATE, count(left, (short) 2000));
+		int resumed = indexOf(left, (short) 2000);
+		assertEquals(24 * RATE, resumed, 0.05 * RATE);
+	}
+
+	@Test
+	void rotatesAtTheDurationLimit() throws IOException {
+		SessionRecorder recorder = new SessionRecorder(directory, "rotate", RATE, SessionRecorder.Layout.MIXED,
+				SessionRecorder.MAX_WAV_FILE_BYTES, 2, clock::get);
+		speak(recorder, 0, 250, (short) 500);
+		recorder.close();
+
+		assertEquals(0, recorder.getWriteErrors());
+		assertEquals(3, recorder.getFiles().size());
+		long frames = 0;
+		for (Path file : recorder.getFiles()) {
+			long dataBytes = Files.size(file) - 44;
+			assertTrue(dataBytes <= 2L * 2 * RATE, "file exceeds its duration limit");
+			assertEquals(dataBytes, header(file).getInt(40));
+			frames += dataBytes / 2;
+		}
+		assertEquals(5 * RATE, frames);
+	}
+
+	// Records input chunks of 20 ms starting at the given time, advancing the clock as a live source would
+	private void speak(SessionRecorder recorder, long startMillis, int chunks, short value) {
+		short[] pcm = new short[CHUNK_FRAMES];
+		Arrays.fill(pcm, value);
+		for (int i = 0; i < chunks; i++) {
+			clock.set(TimeUnit.MILLISECONDS.toNanos(startMillis + (i + 1) * 20L));
+			assertTrue(recorder.recordInput(pcm, 0, pcm.length, RATE));
+		}
+	}
+
+	private static ByteBuffer header(Path file) throws IOException {
+		return ByteBuffer.wrap(Files.readAllBytes(file), 0, 44).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static short[] channel(Path file, int channel) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+		int channels = data.getShort(22);
+		data.position(44);
+		short[] samples = new short[data.remaining() / 2 / channels];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = data.getShort(44 + (i * channels + channel) * 2);
+		}
+		return samples;
+	}
+
+	private static int count(short[] samples, short value) {
+		int count = 0;
+		for (short sample : samples) {
+			if (sample == value) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int indexOf(short[] samples, short value) {
+		for (int i = 0; i < samples.length; i++) {
+			if (samples[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,195 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAITTSClientTest {
+
+    @Test
+    void streamsChunksAsTheyArriveAlignedToSamples() throws Exception {
+        byte[] audio = new byte[4000];
+        for (int i = 0; i < audio.length; i++) {
+            audio[i] = (byte) i;
+        }
+        // Odd-sized writes split samples across chunks
+        int[] writes = { 3, 997, 1501, 1499 };
+        AtomicLong lastWriteNanos = new AtomicLong();
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            JSONObject body = new JSONObject(request.bodyText());
+            assertEquals("Hello there", body.getString("input"));
+            assertEquals("pcm", body.getString("response_format"));
+            exchange.getResponseHeaders().set("Content-Type", "audio/pcm");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                int offset = 0;
+                for (int write : writes) {
+                    out.write(audio, offset, write);
+                    out.flush();
+                    offset += write;
+                    Thread.sleep(150);
+                }
+                lastWriteNanos.set(System.nanoTime());
+            }
+        })) {
+            OpenAITTSClient client = new OpenAITTSClient(server.config(), server.transport());
+            List<Long> chunkNanos = new CopyOnWriteArrayList<>();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            SpeechStreamResult result = client.streamSpeech("Hello there", "alloy", OpenAIModels.GPT_4O_MINI_TTS,
+                    null, OpenAIModels.SpeechFormats.PCM, chunk -> {
+                        chunkNanos.add(System.nanoTime());
+                        assertEquals(0, chunk.remaining() % 2, "chunk splits a sample");
+                        byte[] bytes = new byte[chunk.remaining()];
+                        chunk.get(bytes);
+                        received.writeBytes(bytes);
+                    }).join();
+
+            assertArrayEquals(audio, received.toByteArray());
+            assertEquals(audio.length, result.bytes());
+            assertTrue(chunkNanos.size() >= writes.length - 1, chunkNanos.size() + " chunks");
+            assertTrue(chunkNanos.get(0) < lastWriteNanos.get(), "first chunk waited for the whole body");
+            assertTrue(result.timeToFirstByte().compareTo(result.totalTime().minus(Duration.ofMillis(300))) < 0,
+                    "time to first byte " + result.timeToFirstByte() + " of " + result.totalTime());
+            assertEquals(1, client.getTimeToFirstByteHistogram().getCount());
+        }
+    }
+
+    @Test
+    void streamFailsWithTheApiErrorAndRetryDelay() throws Exception {
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            exchange.getResponseHeaders().set("retry-after", "2");
+            StubOpenAIServer.respondJson(exchange, 429, "{\"error\":{\"message\":\"rate limited\"}}");
+        })) {
+            OpenAITTSClient client = new OpenAITTSClient(server.config(), server.transport());
+            List<ByteBuffer> chunks = new CopyOnWriteArrayList<>();
+            CompletionException failure = assertThrows(CompletionException.class, () -> client.streamSpeech(
+                    "Hello", "alloy", OpenAIModels.GPT_4O_MINI_TTS, null, OpenAIModels.SpeechFormats.PCM,
+                    chunks::add).join());
+
+            OpenAIApiException error = (OpenAIApiException) failure.getCause();
+            assertEquals(429, error.getStatusCode());
+            assertEquals(Duration.ofSeconds(2), error.getRetryAfter().orElseThrow());
+            assertEquals(0, chunks.size());
+        }
+    }
+
+    @Test
+    void hedgeWinsWhenTheFirstRequestStallsAndTheLoserIsCancelled() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch loserAborted = new CountDownLatch(1);
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            if (received.incrementAndGet() == 1) {
+                // Headers only after the hedge has won, then a body the client should stop reading
+                Thread.sleep(600);
+                streamUntilAborted(exchange, loserAborted);
+            } else {
+                respondAudio(exchange, "hedge");
+            }
+        })) {
+            OpenAITTSClient client = new OpenAITTSClient(server.config(), server.transport());
+            HedgingPolicy policy = HedgingPolicy.fixed(Duration.ofMillis(100), 1.0);
+            client.setHedgingPolicy(policy);
+            long start = System.nanoTime();
+            byte[] audio = client.generateSpeech("Hello", "alloy", OpenAIModels.TTS_1).join();
+
+            assertArrayEquals(audioFor("hedge"), audio);
+            assertTrue(System.nanoTime() - start < 500_000_000L, "waited for the stalled request");
+            assertEquals(1, policy.getHedges());
+            assertEquals(1, policy.getHedgeWins());
+            assertEquals(2, server.requests().size());
+            assertTrue(loserAborted.await(10, TimeUnit.SECONDS), "losing request was not cancelled");
+        }
+    }
+    @Test
+    void originalWinsOverASlowerHedgeAndTheHedgeIsCancelled() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch loserAborted = new CountDownLatch(1);
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            if (received.incrementAndGet() == 1) {
+                Thread.sleep(200);
+                respondAudio(exchange, "original");
+            } else {
+                Thread.sleep(600);
+                streamUntilAborted(exchange, loserAborted);
+            }
+        })) {
+            OpenAITTSClient client = new OpenAITTSClient(server.config(), server.transport());
+            HedgingPolicy policy = HedgingPolicy.fixed(Duration.ofMillis(100), 1.0);
+            client.setHedgingPolicy(policy);
+            byte[] audio = client.generateSpeech("Hello", "alloy", OpenAIModels.TTS_1).join();
+
+            assertArrayEquals(audioFor("original"), audio);
+            assertEquals(1, policy.getHedges());
+            assertEquals(0, policy.getHedgeWins());
+            assertTrue(loserAborted.await(10, TimeUnit.SECONDS), "losing hedge was not cancelled");
+        }
+    }
+
+    @Test
+    void fastResponsesAreNotHedged() throws Exception {
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> respondAudio(exchange, "fast"))) {
+            OpenAITTSClient client = new OpenAITTSClient(server.config(), server.transport());
+            HedgingPolicy policy = HedgingPolicy.fixed(Duration.ofMillis(300), 1.0);
+            client.setHedgingPolicy(policy);
+            for (int i = 0; i < 5; i++) {
+                assertArrayEquals(audioFor("fast"), client.generateSpeech("Hi " + i, "alloy", OpenAIModels.TTS_1)
+                        .join());
+            }
+            Thread.sleep(400);
+
+            assertEquals(0, policy.getHedges());
+            assertEquals(5, server.requests().size());
+        }
+    }
+
+    private static byte[] audioFor(String name) {
+        return ("audio:" + name).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respondAudio(HttpExchange exchange, String name) throws IOException {
+        byte[] audio = audioFor(name);
+        exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+        exchange.sendResponseHeaders(200, audio.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(audio);
+        }
+    }
+
+    /**
+     * Writes a long body slowly, counting down once the client has gone away.
+     */
+    private static void streamUntilAborted(HttpExchange exchange, CountDownLatch aborted) throws Exception {
+        exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+        try {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            byte[] block = new byte[16 * 1024];
+            for (int i = 0; i < 500; i++) {
+                out.write(block);
+                out.flush();
+                Thread.sleep(10);
+            }
+        } catch (IOException e) {
+            aborted.countDown();
+        }
+    }
+}
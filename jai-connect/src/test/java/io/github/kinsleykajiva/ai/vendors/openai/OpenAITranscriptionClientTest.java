@@ -0,0 +1,202 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import io.github.kinsleykajiva.ai.audio.WavFile;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAITranscriptionClientTest {
+    private static final int RATE = 8000;
+    private static final Pattern CHUNK_NAME = Pattern.compile("chunk_(\\d+)\\.wav");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void splitsLongWavIntoOverlappingChunksAndMergesThem() throws Exception {
+        Path file = dir.resolve("call.wav");
+        writeWav(file, 12 * RATE);
+
+        // Each chunk answers with one segment per second, named by absolute time
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            Map<String, Part> parts = parts(request);
+            Part audio = parts.get("file");
+            Matcher name = CHUNK_NAME.matcher(audio.fileName());
+            assertTrue(name.matches(), audio.fileName());
+            int offset = Integer.parseInt(name.group(1)) * 4;
+            WavHeader wav = WavHeader.parse(audio.body());
+            JSONArray segments = new JSONArray();
+            for (int second = 0; second < wav.dataBytes() / (RATE * 2); second++) {
+                segments.put(new JSONObject().put("start", second).put("end", second + 1)
+                        .put("text", "s" + (offset + second)));
+            }
+            StubOpenAIServer.respondJson(exchange, 200, new JSONObject().put("text", "ignored")
+                    .put("segments", segments).toString());
+        })) {
+            OpenAITranscriptionClient client = new OpenAITranscriptionClient(server.config(), server.transport(),
+                    Duration.ofSeconds(5), Duration.ofSeconds(1), 2);
+            Transcription transcription = client.transcribe(file, OpenAIModels.WHISPER_1, "en", null).join();
+
+            assertEquals(3, server.requests().size());
+            for (StubOpenAIServer.Request request : server.requests()) {
+                assertEquals("/v1/audio/transcriptions", request.path());
+                Map<String, Part> parts = parts(request);
+                assertEquals(OpenAIModels.WHISPER_1, parts.get("model").text());
+                assertEquals("en", parts.get("language").text());
+                assertEquals("segment", parts.get("timestamp_granularities[]").text());
+                assertEquals("audio/wav", parts.get("file").contentType());
+                WavHeader wav = WavHeader.parse(parts.get("file").body());
+                assertEquals(WavFile.HEADER_BYTES + wav.dataBytes(), parts.get("file").body().length);
+            }
+            List<String> texts = new ArrayList<>();
+            transcription.segments().forEach(segment -> texts.add(segment.text()));
+            List<String> expected = new ArrayList<>();
+            for (int second = 0; second < 12; second++) {
+                expected.add("s" + second);
+            }
+            assertEquals(expected, texts);
+            assertEquals(12.0, transcription.duration(), 1e-9);
+        }
+    }
+
+    @Test
+    void splitsShortWavThatExceedsTheUploadLimit() throws Exception {
+        // 70 s of 48 kHz 32-bit stereo is about 27 MB, well within the chunk length
+        Path file = dir.resolve("studio.wav");
+        int rate = 48_000;
+        int blockAlign = 8;
+        long dataBytes = 70L * rate * blockAlign;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(WavFile.header(rate, 2, 32, dataBytes));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(WavFile.HEADER_BYTES + dataBytes);
+        }
+
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) ->
+                StubOpenAIServer.respondJson(exchange, 200, new JSONObject().put("text", "words").toString()))) {
+            OpenAITranscriptionClient client = new OpenAITranscriptionClient(server.config(), server.transport());
+            client.transcribe(file, OpenAIModels.GPT_4O_TRANSCRIBE).join();
+
+            assertEquals(2, server.requests().size());
+            for (StubOpenAIServer.Request request : server.requests()) {
+                Part audio = parts(request).get("file");
+                assertTrue(audio.body().length <= OpenAITranscriptionClient.MAX_UPLOAD_BYTES,
+                        "chunk of " + audio.body().length + " bytes");
+                assertEquals(0, WavHeader.parse(audio.body()).dataBytes() % blockAlign);
+            }
+        }
+    }
+
+    @Test
+    void rejectsOversizeNonWavUpFront() throws Exception {
+        Path file = dir.resolve("long.mp3");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(OpenAITranscriptionClient.MAX_UPLOAD_BYTES + 1);
+        }
+
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) ->
+                StubOpenAIServer.respondJson(exchange, 200, "{\"text\":\"\"}"))) {
+            OpenAITranscriptionClient client = new OpenAITranscriptionClient(server.config(), server.transport());
+            CompletionException failure = assertThrows(CompletionException.class,
+                    () -> client.transcribe(file, OpenAIModels.WHISPER_1).join());
+
+            assertTrue(failure.getCause() instanceof IllegalArgumentException);
+            assertEquals(0, server.requests().size());
+        }
+    }
+
+    private static void writeWav(Path file, int samples) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            data.putShort((short) (1000 * Math.sin(2 * Math.PI * 220 * i / RATE)));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(WavFile.header(RATE, 1, 16, samples * 2L));
+            channel.write(data.flip());
+        }
+    }
+
+    private record Part(String fileName, String contentType, byte[] body) {
+        String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private record WavHeader(long dataBytes) {
+        static WavHeader parse(byte[] file) {
+            ByteBuffer buffer = ByteBuffer.wrap(file).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals("RIFF", new String(file, 0, 4, StandardCharsets.US_ASCII));
+            assertEquals("data", new String(file, 36, 4, StandardCharsets.US_ASCII));
+            return new WavHeader(Integer.toUnsignedLong(buffer.getInt(40)));
+        }
+    }
+
+    private static Map<String, Part> parts(StubOpenAIServer.Request request) {
+        String boundary = "--" + request.contentType().substring(request.contentType().indexOf("boundary=") + 9);
+        byte[] body = request.body();
+        byte[] delimiter = ("\r\n" + boundary).getBytes(StandardCharsets.US_ASCII);
+        Map<String, Part> parts = new HashMap<>();
+        int start = indexOf(body, boundary.getBytes(StandardCharsets.US_ASCII), 0) + boundary.length() + 2;
+        while (start < body.length) {
+            int headersEnd = indexOf(body, "\r\n\r\n".getBytes(StandardCharsets.US_ASCII), start);
+            String headers = new String(body, start, headersEnd - start, StandardCharsets.UTF_8);
+            int end = indexOf(body, delimiter, headersEnd + 4);
+            byte[] content = Arrays.copyOfRange(body, headersEnd + 4, end);
+            parts.put(header(headers, "name=\""), new Part(header(headers, "filename=\""),
+                    header(headers, "Content-Type: "), content));
+            start = end + delimiter.length;
+            if (body[start] == '-') {
+                break;
+            }
+            start += 2;
+        }
+        return parts;
+    }
+
+    private static String header(String headers, String prefix) {
+        int at = headers.indexOf(prefix);
+        if (at < 0) {
+            return null;
+        }
+        int from = at + prefix.length();
+        int to = prefix.endsWith("\"") ? headers.indexOf('"', from) : headers.indexOf("\r\n", from);
+        return headers.substring(from, to < 0 ? headers.length() : to);
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("Malformed multipart body");
+    }
+}
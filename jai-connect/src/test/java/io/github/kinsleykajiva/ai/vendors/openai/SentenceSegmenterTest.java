@@ -0,0 +1,39 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SentenceSegmenterTest {
+
+    @Test
+    void splitsAfterNoAsAWord() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(0, 250);
+        List<String> segments = new ArrayList<>(segmenter.append("Are you coming? No. I have to work late."));
+        segments.add(segmenter.flush());
+
+        assertEquals(List.of("Are you coming?", "No.", "I have to work late."), segments);
+    }
+
+    @Test
+    void keepsNoBeforeANumberInOneSentence() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(0, 250);
+        List<String> segments = new ArrayList<>(segmenter.append("Please call room no. 12 now. "));
+        segments.addAll(segmenter.append("Thanks."));
+        segments.add(segmenter.flush());
+
+        assertEquals(List.of("Please call room no. 12 now.", "Thanks."), segments);
+    }
+
+    @Test
+    void waitsForTheWordAfterNo() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(0, 250);
+
+        assertEquals(List.of(), segmenter.append("It is no. "));
+        assertEquals(List.of("It is no."), segmenter.append("We close at five."));
+        assertEquals("We close at five.", segmenter.flush());
+    }
+}
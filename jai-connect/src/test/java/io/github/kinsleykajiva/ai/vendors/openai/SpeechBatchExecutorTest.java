@@ -0,0 +1,122 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechBatchExecutorTest {
+    private static final long PAUSE_MS = 600;
+
+    @Test
+    void rateLimitRetriesTheRequestAndPausesEveryWorker() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        AtomicLong rateLimitedNanos = new AtomicLong();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            int current = concurrent.incrementAndGet();
+            peak.accumulateAndGet(current, Math::max);
+            try {
+                if (received.incrementAndGet() == 6) {
+                    exchange.getResponseHeaders().set("retry-after-ms", Long.toString(PAUSE_MS));
+                    rateLimitedNanos.set(System.nanoTime());
+                    StubOpenAIServer.respondJson(exchange, 429, "{\"error\":{\"message\":\"rate limited\"}}");
+                    return;
+                }
+                Thread.sleep(20);
+                respondAudio(exchange, input(request));
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        })) {
+            SpeechBatchExecutor executor = new SpeechBatchExecutor(
+                    new OpenAITTSClient(server.config(), server.transport()), 3, 4);
+            Map<String, SpeechBatchResult> results = new ConcurrentHashMap<>();
+            executor.execute(IntStream.range(0, 20).mapToObj(i -> new SpeechRequest("phrase " + i, "alloy", "tts-1")),
+                    result -> results.put(result.request().input(), result)).join();
+
+            assertEquals(20, results.size());
+            assertEquals(20, executor.getSucceeded());
+            assertEquals(0, executor.getFailed());
+            assertEquals(1, executor.getRetries());
+            assertEquals(1, executor.getRateLimited());
+            assertTrue(peak.get() <= 3, "peak concurrency " + peak.get());
+            List<SpeechBatchResult> retried = new ArrayList<>();
+            results.values().forEach(result -> {
+                assertArrayEquals(audioFor(result.request().input()), result.audio());
+                if (result.attempts() > 1) {
+                    retried.add(result);
+                }
+            });
+            assertEquals(1, retried.size());
+            assertEquals(2, retried.get(0).attempts());
+
+            // Requests already sent may land just after the 429; nothing new starts until the pause ends
+            long pauseStart = rateLimitedNanos.get() + 100_000_000L;
+            long pauseEnd = rateLimitedNanos.get() + (PAUSE_MS - 50) * 1_000_000L;
+            for (StubOpenAIServer.Request request : server.requests()) {
+                assertTrue(request.receivedNanos() < pauseStart || request.receivedNanos() >= pauseEnd,
+                        "request sent during the pause, "
+                                + (request.receivedNanos() - rateLimitedNanos.get()) / 1_000_000 + " ms after the 429");
+            }
+        }
+    }
+
+    @Test
+    void clientErrorsFailOnlyThatRequestWithoutRetry() throws Exception {
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            String input = input(request);
+            if (input.equals("phrase 3")) {
+                StubOpenAIServer.respondJson(exchange, 400, "{\"error\":{\"message\":\"bad input\"}}");
+            } else {
+                respondAudio(exchange, input);
+            }
+        })) {
+            SpeechBatchExecutor executor = new SpeechBatchExecutor(
+                    new OpenAITTSClient(server.config(), server.transport()), 2, 4);
+            Map<String, SpeechBatchResult> results = new ConcurrentHashMap<>();
+            executor.execute(IntStream.range(0, 8).mapToObj(i -> new SpeechRequest("phrase " + i, "alloy", "tts-1")),
+                    result -> results.put(result.request().input(), result)).join();
+
+            SpeechBatchResult failed = results.get("phrase 3");
+            assertEquals(1, failed.attempts());
+            assertEquals(400, ((OpenAIApiException) failed.error()).getStatusCode());
+            assertEquals(7, executor.getSucceeded());
+            assertEquals(1, executor.getFailed());
+            assertEquals(0, executor.getRetries());
+            assertEquals(8, server.requests().size());
+        }
+    }
+
+    private static String input(StubOpenAIServer.Request request) {
+        return new JSONObject(request.bodyText()).getString("input");
+    }
+
+    private static byte[] audioFor(String input) {
+        return ("audio:" + input).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respondAudio(HttpExchange exchange, String input) throws IOException {
+        byte[] audio = audioFor(input);
+        exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+        exchange.sendResponseHeaders(200, audio.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(audio);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpeechCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void closeFinishesQueuedDiskWrites() {
+        SpeechCache cache = new SpeechCache(1 << 20, dir, 1 << 20);
+        for (int i = 0; i < 50; i++) {
+            cache.put(SpeechCache.key("phrase " + i, "alloy", "tts-1", null, "pcm"), audio(i, 4096));
+        }
+        cache.close();
+
+        assertEquals(50L * 4096, cache.getDiskBytes());
+    }
+
+    @Test
+    void reopenedCacheServesEntriesFromDisk() {
+        String key = SpeechCache.key("Welcome back.", "alloy", "tts-1", null, "pcm");
+        byte[] audio = audio(7, 10_000);
+        try (SpeechCache cache = new SpeechCache(1 << 20, dir, 1 << 20)) {
+            cache.get(key, () -> CompletableFuture.completedFuture(audio)).join();
+        }
+
+        try (SpeechCache reopened = new SpeechCache(1 << 20, dir, 1 << 20)) {
+            assertArrayEquals(audio, reopened.getIfPresent(key));
+            assertEquals(1, reopened.getDiskHits());
+            assertArrayEquals(audio, reopened.getIfPresent(key));
+            assertEquals(1, reopened.getMemoryHits());
+        }
+    }
+
+    @Test
+    void putAfterCloseKeepsAudioInMemoryOnly() {
+        SpeechCache cache = new SpeechCache(1 << 20, dir, 1 << 20);
+        cache.close();
+        String key = SpeechCache.key("Goodbye.", "alloy", "tts-1", null, "pcm");
+        cache.put(key, audio(3, 100));
+
+        assertEquals(0, cache.getDiskBytes());
+        assertArrayEquals(audio(3, 100), cache.getIfPresent(key));
+        try (SpeechCache reopened = new SpeechCache(1 << 20, dir, 1 << 20)) {
+            assertNull(reopened.getIfPresent(key));
+        }
+    }
+
+    private static byte[] audio(int seed, int length) {
+        byte[] audio = new byte[length];
+        for (int i = 0; i < length; i++) {
+            audio[i] = (byte) (seed * 31 + i);
+        }
+        return audio;
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechPipelineTest {
+    private static final String FIRST = "The first sentence is right here.";
+    private static final String SECOND = "The second sentence follows it now.";
+    private static final String THIRD = "And finally the third one ends.";
+    private static final String TEXT = FIRST + " " + SECOND + " " + THIRD;
+
+    @Test
+    void streamsTheHeadSegmentAndDeliversAllAudioInOrder() throws Exception {
+        AtomicLong headFinishedNanos = new AtomicLong();
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            String input = input(request);
+            if (input.equals(FIRST)) {
+                // Half the audio now, the rest after a pause
+                byte[] audio = audioFor(input);
+                exchange.getResponseHeaders().set("Content-Type", "audio/pcm");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(audio, 0, audio.length / 2);
+                    out.flush();
+                    Thread.sleep(300);
+                    headFinishedNanos.set(System.nanoTime());
+                    out.write(audio, audio.length / 2, audio.length - audio.length / 2);
+                }
+            } else {
+                respondAudio(exchange, input);
+            }
+        })) {
+            Received received = new Received();
+            SpeechPipeline pipeline = new SpeechPipeline(new OpenAITTSClient(server.config(), server.transport()),
+                    "alloy", OpenAIModels.GPT_4O_MINI_TTS, received::add);
+            pipeline.speak(TEXT).join();
+
+            assertEquals(3, pipeline.getSegmentCount());
+            assertArrayEquals(concat(audioFor(FIRST), audioFor(SECOND), audioFor(THIRD)), received.bytes());
+            assertTrue(received.firstNanos.get() < headFinishedNanos.get(), "head audio arrived only after its stream");
+            assertEquals(0, pipeline.getRetries());
+        }
+    }
+
+    @Test
+    void retriesRateLimitedSegmentsAfterRetryAfter() throws Exception {
+        AtomicInteger secondAttempts = new AtomicInteger();
+        List<Long> secondNanos = new CopyOnWriteArrayList<>();
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            String input = input(request);
+            if (input.equals(SECOND)) {
+                secondNanos.add(request.receivedNanos());
+                if (secondAttempts.incrementAndGet() == 1) {
+                    exchange.getResponseHeaders().set("retry-after-ms", "400");
+                    StubOpenAIServer.respondJson(exchange, 429, "{\"error\":{\"message\":\"slow down\"}}");
+                    return;
+                }
+            }
+            respondAudio(exchange, input);
+        })) {
+            Received received = new Received();
+            SpeechPipeline pipeline = new SpeechPipeline(new OpenAITTSClient(server.config(), server.transport()),
+                    "alloy", OpenAIModels.GPT_4O_MINI_TTS, received::add);
+            pipeline.speak(TEXT).join();
+
+            assertEquals(1, pipeline.getRetries());
+            assertEquals(2, secondNanos.size());
+            assertTrue(secondNanos.get(1) - secondNanos.get(0) >= 400_000_000L, "retried before Retry-After");
+            assertArrayEquals(concat(audioFor(FIRST), audioFor(SECOND), audioFor(THIRD)), received.bytes());
+        }
+    }
+
+    @Test
+    void doesNotRetryClientErrors() throws Exception {
+        ConcurrentHashMap<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        try (StubOpenAIServer server = new StubOpenAIServer((request, exchange) -> {
+            String input = input(request);
+            attempts.computeIfAbsent(input, key -> new AtomicInteger()).incrementAndGet();
+            if (input.equals(SECOND)) {
+                StubOpenAIServer.respondJson(exchange, 400, "{\"error\":{\"message\":\"bad voice\"}}");
+            } else {
+                respondAudio(exchange, input);
+            }
+        })) {
+            SpeechPipeline pipeline = new SpeechPipeline(new OpenAITTSClient(server.config(), server.transport()),
+                    "alloy", OpenAIModels.GPT_4O_MINI_TTS, chunk -> { });
+            CompletionException failure = assertThrows(CompletionException.class, () -> pipeline.speak(TEXT).join());
+
+            assertTrue(failure.getCause() instanceof OpenAIApiException);
+            assertEquals(400, ((OpenAIApiException) failure.getCause()).getStatusCode());
+            assertEquals(1, attempts.get(SECOND).get());
+            assertEquals(0, pipeline.getRetries());
+        }
+    }
+
+    private static String input(StubOpenAIServer.Request request) {
+        return new JSONObject(request.bodyText()).getString("input");
+    }
+
+    private static byte[] audioFor(String input) {
+        // An even length keeps every chunk a whole number of samples
+        byte[] text = input.getBytes(StandardCharsets.UTF_8);
+        byte[] audio = new byte[text.length * 2];
+        for (int i = 0; i < text.length; i++) {
+            audio[2 * i] = text[i];
+        }
+        return audio;
+    }
+
+    private static void respondAudio(HttpExchange exchange, String input) throws IOException {
+        byte[] audio = audioFor(input);
+        exchange.getResponseHeaders().set("Content-Type", "audio/pcm");
+        exchange.sendResponseHeaders(200, audio.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(audio);
+        }
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Received {
+        private final ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        private final AtomicLong firstNanos = new AtomicLong(Long.MAX_VALUE);
+
+        synchronized void add(ByteBuffer chunk) {
+            firstNanos.compareAndSet(Long.MAX_VALUE, System.nanoTime());
+            byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            audio.writeBytes(bytes);
+        }
+
+        synchronized byte[] bytes() {
+            return audio.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.kinsleykajiva.ai.vendors.openai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the OpenAI REST API. Every request is recorded and
+ * answered by the test's {@link Responder}.
+ */
+final class StubOpenAIServer implements AutoCloseable {
+
+    /**
+     * A request as received, with its body read in full.
+     */
+    record Request(String method, String path, String contentType, byte[] body, long receivedNanos) {
+        String bodyText() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    @FunctionalInterface
+    interface Responder {
+        void respond(Request request, HttpExchange exchange) throws Exception;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final OpenAITransport transport;
+
+    StubOpenAIServer(Responder responder) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                Request request = new Request(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                        exchange.getRequestHeaders().getFirst("Content-Type"), body, System.nanoTime());
+                requests.add(request);
+                responder.respond(request, exchange);
+            } catch (IOException e) {
+                // The client went away, e.g. a cancelled hedge
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        transport = new OpenAITransport(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/"));
+    }
+
+    OpenAITransport transport() {
+        return transport;
+    }
+
+    OpenAIConfig config() {
+        return new OpenAIConfig(null, "test-key", AudioFormats.PCM_24KHZ_MONO, AudioFormats.PCM_24KHZ_MONO, null,
+                null);
+    }
+
+    List<Request> requests() {
+        return requests;
+    }
+
+    static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    static void respondJson(HttpExchange exchange, int status, String json) throws IOException {
+        respond(exchange, status, "application/json", json);
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
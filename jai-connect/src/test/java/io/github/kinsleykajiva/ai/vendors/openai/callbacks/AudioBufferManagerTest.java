@@ -0,0 +1,92 @@
+package io.github.kinsleykajiva.ai.vendors.openai.callbacks;
+
+import io.github.kinsleykajiva.ai.audio.G711Codec;
+import io.github.kinsleykajiva.ai.vendors.openai.AudioFormats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AudioBufferManagerTest {
+
+	@Test
+	void defaultEncodesLittleEndianPcm16() {
+		RecordingManager manager = new RecordingManager(AudioFormats.PCM_24KHZ_MONO);
+		manager.appendPcm16(new short[] { 9, 0x0102, -2, 7 }, 1, 2).join();
+
+		assertArrayEquals(new byte[] { 0x02, 0x01, (byte) 0xFE, (byte) 0xFF }, manager.appended.get(0));
+	}
+
+	@Test
+	void defaultEncodesG711ForG711Sessions() {
+		RecordingManager manager = new RecordingManager(AudioFormats.PCMU);
+		short[] pcm = { 0, 1000, -1000, 32000 };
+		manager.appendPcm16(pcm, 0, pcm.length).join();
+
+		byte[] expected = new byte[pcm.length];
+		G711Codec.MU_LAW.encode(pcm, 0, expected, 0, pcm.length);
+		assertArrayEquals(expected, manager.appended.get(0));
+	}
+
+	@Test
+	void defaultResamplesToTheInputRate() {
+		RecordingManager manager = new RecordingManager(AudioFormats.PCM_24KHZ_MONO);
+		short[] pcm = new short[800];
+		for (int i = 0; i < pcm.length; i++) {
+			pcm[i] = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / 8000.0));
+		}
+		manager.appendPcm16(pcm, 0, pcm.length, 8000).join();
+
+		// 100 ms at 8 kHz becomes 100 ms at 24 kHz, less the filter's start-up
+		int samples = manager.appended.get(0).length / 2;
+		assertEquals(2400, samples, 48);
+	}
+
+	@Test
+	void defaultPassesMatchingRatesThrough() {
+		RecordingManager manager = new RecordingManager(AudioFormats.PCMA);
+		manager.appendPcm16(new short[160], 0, 160, 8000).join();
+
+		assertEquals(160, manager.appended.get(0).length);
+	}
+
+	private static final class RecordingManager implements AudioBufferManager {
+		private final AudioFormats format;
+		private final List<byte[]> appended = new ArrayList<>();
+
+		RecordingManager(AudioFormats format) {
+			this.format = format;
+		}
+
+		@Override
+		public AudioFormats getInputFormat() {
+			return format;
+		}
+
+		@Override
+		public CompletableFuture<Void> appendAudio(String base64Audio) {
+			appended.add(Base64.getDecoder().decode(base64Audio));
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<Void> commitBuffer() {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public CompletableFuture<Void> clearBuffer() {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public long getCurrentDurationMs() {
+			return 0;
+		}
+	}
+}